@@ -0,0 +1,17 @@
+package com.splitwise.config;
+
+/**
+ * How API requests are authenticated, selected with splitwise.auth.mode
+ */
+public enum AuthMode {
+
+    /**
+     * Server-side HttpSession holding the logged-in user's principal (requires sticky sessions across nodes)
+     */
+    SESSION,
+
+    /**
+     * Stateless HMAC-signed bearer tokens issued by /api/auth/login, verified without a session or DB lookup
+     */
+    TOKEN
+}
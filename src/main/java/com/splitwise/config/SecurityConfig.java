@@ -1,10 +1,14 @@
 package com.splitwise.config;
 
+import com.splitwise.service.AccessTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -22,6 +26,15 @@ public class SecurityConfig {
     @Autowired
     private SessionAuthenticationFilter sessionAuthenticationFilter;
 
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private UserAuthorities userAuthorities;
+
+    @Value("${splitwise.auth.mode:SESSION}")
+    private AuthMode authMode;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -29,16 +42,31 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // Disable CSRF for API usage
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/hello", "/api/auth/**", "/", "/login.html", "/index.html", "/style.css", "/script.js", "/auth.js").permitAll() // Allow static files and auth endpoints
+                // Jobs that scan and rewrite every group are for administrators only
+                .requestMatchers(HttpMethod.POST, "/api/balances/ledger/rebuild").hasRole(UserAuthorities.ADMIN_ROLE)
+                .requestMatchers(HttpMethod.POST, "/api/analytics/monthly-spend/backfill").hasRole(UserAuthorities.ADMIN_ROLE)
+                .requestMatchers(HttpMethod.POST, "/api/groups/counters/reconcile").hasRole(UserAuthorities.ADMIN_ROLE)
+                // Operational statistics expose key IDs and internal cache state
+                .requestMatchers("/api/stats/**").hasRole(UserAuthorities.ADMIN_ROLE)
                 .anyRequest().authenticated() // All other requests need authentication
             )
-            .sessionManagement(session -> session
-                .maximumSessions(1)
-                .maxSessionsPreventsLogin(false)
-            )
-            .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .formLogin(form -> form.disable()) // Disable default form login
             .httpBasic(basic -> basic.disable()); // Disable HTTP Basic Authentication
 
+        if (authMode == AuthMode.TOKEN) {
+            // Stateless: every request carries a signed bearer token, so any node can serve it
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService, userAuthorities), UsernamePasswordAuthenticationFilter.class);
+        } else {
+            http
+                .sessionManagement(session -> session
+                    .maximumSessions(1)
+                    .maxSessionsPreventsLogin(false)
+                )
+                .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
@@ -1,44 +1,46 @@
 package com.splitwise.config;
 
-import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 public class SessionAuthenticationFilter extends OncePerRequestFilter {
 
+    private final UserAuthorities userAuthorities;
+
+    public SessionAuthenticationFilter(UserAuthorities userAuthorities) {
+        this.userAuthorities = userAuthorities;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         HttpSession session = request.getSession(false);
-        
+
         if (session != null) {
-            User currentUser = (User) session.getAttribute("currentUser");
-            
-            if (currentUser != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        currentUser.getEmail(),
-                        null,
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
-                    );
-                
+            Object attribute = session.getAttribute(SessionPrincipal.SESSION_ATTRIBUTE);
+
+            // Sessions created before the compact principal hold a User entity; they simply log in again
+            if (attribute instanceof SessionPrincipal && SecurityContextHolder.getContext().getAuthentication() == null) {
+                SessionPrincipal principal = (SessionPrincipal) attribute;
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(principal, null, userAuthorities.of(principal));
+
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
-        
+
         filterChain.doFilter(request, response);
     }
 
@@ -0,0 +1,62 @@
+package com.splitwise.config;
+
+import com.splitwise.service.AccessTokenService;
+import com.splitwise.util.SessionPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} access token (splitwise.auth.mode=TOKEN).
+ * Not a component: SecurityConfig adds it to the security chain only in token mode.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+    private final UserAuthorities userAuthorities;
+
+    public TokenAuthenticationFilter(AccessTokenService accessTokenService, UserAuthorities userAuthorities) {
+        this.accessTokenService = accessTokenService;
+        this.userAuthorities = userAuthorities;
+    }
+
+    /**
+     * Extract the bearer token of a request
+     * @param request the request
+     * @return the token or null if there is none
+     */
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length()).trim();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String token = bearerToken(request);
+
+        // Auth endpoints are filtered too, so /api/auth/current sees the token's user
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            SessionPrincipal principal = accessTokenService.verify(token);
+            if (principal != null) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        principal, null, userAuthorities.of(principal)));
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
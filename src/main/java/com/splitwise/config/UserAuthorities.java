@@ -0,0 +1,47 @@
+package com.splitwise.config;
+
+import com.splitwise.util.SessionPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Grants the authorities of an authenticated principal: every user has ROLE_USER, and the users listed in
+ * splitwise.security.admin-user-ids also have ROLE_ADMIN, which the full-table maintenance endpoints require.
+ * Admins are configured by user ID because an email could be registered by anyone.
+ */
+@Component
+public class UserAuthorities {
+
+    public static final String ADMIN_ROLE = "ADMIN";
+
+    private static final List<GrantedAuthority> USER_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_" + ADMIN_ROLE));
+
+    private final Set<Long> adminUserIds = new HashSet<>();
+
+    public UserAuthorities(@Value("${splitwise.security.admin-user-ids:}") String adminUserIds) {
+        for (String id : adminUserIds.split(",")) {
+            if (!id.isBlank()) {
+                this.adminUserIds.add(Long.valueOf(id.trim()));
+            }
+        }
+    }
+
+    /**
+     * Get the authorities of a principal
+     * @param principal the authenticated principal
+     * @return ROLE_USER, plus ROLE_ADMIN for configured admins
+     */
+    public List<GrantedAuthority> of(SessionPrincipal principal) {
+        return adminUserIds.contains(principal.getId()) ? ADMIN_AUTHORITIES : USER_AUTHORITIES;
+    }
+}
@@ -0,0 +1,106 @@
+package com.splitwise.controller;
+
+import com.splitwise.dto.MonthlySpendReport;
+import com.splitwise.service.GroupNotFoundException;
+import com.splitwise.service.MonthlySpendService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*") // Allow CORS for frontend
+public class AnalyticsController {
+    
+    private final MonthlySpendService monthlySpendService;
+    
+    @Autowired
+    public AnalyticsController(MonthlySpendService monthlySpendService) {
+        this.monthlySpendService = monthlySpendService;
+    }
+    
+    /**
+     * Get a group's spend per month and per member, read from the monthly rollups
+     * GET /api/analytics/groups/{groupId}/monthly-spend?from=2025-01&to=2025-12
+     */
+    @GetMapping("/groups/{groupId}/monthly-spend")
+    public ResponseEntity<?> getMonthlySpend(@PathVariable Long groupId,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to) {
+        try {
+            MonthlySpendReport report = monthlySpendService.getMonthlySpend(groupId, from, to);
+            return ResponseEntity.ok(report);
+        } catch (GroupNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Recompute the monthly rollups of a group from its expenses and splits (administrators and group members)
+     * POST /api/analytics/groups/{groupId}/monthly-spend/rebuild
+     */
+    @PostMapping("/groups/{groupId}/monthly-spend/rebuild")
+    public ResponseEntity<?> rebuildGroupMonthlySpend(@PathVariable Long groupId) {
+        try {
+            monthlySpendService.rebuildGroup(groupId);
+            return ResponseEntity.ok(new BackfillResponse(1));
+        } catch (GroupNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to rebuild monthly spend: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Recompute the monthly rollups of every group in parallel (backfill / drift repair); administrators only
+     * POST /api/analytics/monthly-spend/backfill
+     */
+    @PostMapping("/monthly-spend/backfill")
+    public ResponseEntity<?> backfillMonthlySpend() {
+        try {
+            int groupsRebuilt = monthlySpendService.backfillAll();
+            return ResponseEntity.ok(new BackfillResponse(groupsRebuilt));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to backfill monthly spend: " + e.getMessage()));
+        }
+    }
+    
+    // Response classes
+    public static class ErrorResponse {
+        private String error;
+        private long timestamp;
+        
+        public ErrorResponse(String error) {
+            this.error = error;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public String getError() { return error; }
+        public long getTimestamp() { return timestamp; }
+    }
+    
+    public static class BackfillResponse {
+        private int groupsRebuilt;
+        private long timestamp;
+        
+        public BackfillResponse(int groupsRebuilt) {
+            this.groupsRebuilt = groupsRebuilt;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public int getGroupsRebuilt() { return groupsRebuilt; }
+        public long getTimestamp() { return timestamp; }
+    }
+}
@@ -1,11 +1,20 @@
 package com.splitwise.controller;
 
+import com.splitwise.config.AuthMode;
+import com.splitwise.config.TokenAuthenticationFilter;
 import com.splitwise.dto.*;
 import com.splitwise.entity.User;
+import com.splitwise.service.AccessTokenService;
 import com.splitwise.service.AuthService;
+import com.splitwise.service.PasswordHashingRejectedException;
+import com.splitwise.util.SecurityUtil;
+import com.splitwise.util.SessionPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,8 +29,17 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private SecurityUtil securityUtil;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Value("${splitwise.auth.mode:SESSION}")
+    private AuthMode authMode;
+
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request, HttpSession session) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
         try {
             User user = authService.registerUser(
                 request.getName(),
@@ -30,13 +48,12 @@ public class AuthController {
                 request.getPhone()
             );
             
-            // Store user in session
-            session.setAttribute("currentUser", user);
-            
             UserDTO userDTO = new UserDTO(user);
             return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AuthResponse.success("User registered successfully", userDTO));
+                    .body(authenticated(httpRequest, user, AuthResponse.success("User registered successfully", userDTO)));
                     
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(AuthResponse.error(e.getMessage()));
@@ -44,8 +61,9 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpSession session) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
+            authService.recordLoginAttempt(request.getEmail());
             Optional<User> userOpt = authService.findByEmail(request.getEmail());
             
             if (userOpt.isEmpty()) {
@@ -60,12 +78,11 @@ public class AuthController {
                         .body(AuthResponse.error("Invalid email or password"));
             }
             
-            // Store user in session
-            session.setAttribute("currentUser", user);
-            
             UserDTO userDTO = new UserDTO(user);
-            return ResponseEntity.ok(AuthResponse.success("Login successful", userDTO));
+            return ResponseEntity.ok(authenticated(httpRequest, user, AuthResponse.success("Login successful", userDTO)));
             
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(AuthResponse.error("Login failed: " + e.getMessage()));
@@ -73,14 +90,24 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<AuthResponse> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<AuthResponse> logout(HttpServletRequest httpRequest) {
+        if (authMode == AuthMode.TOKEN) {
+            String token = TokenAuthenticationFilter.bearerToken(httpRequest);
+            if (token != null) {
+                accessTokenService.revoke(token);
+            }
+        } else {
+            HttpSession session = httpRequest.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+        }
         return ResponseEntity.ok(AuthResponse.success("Logout successful", null));
     }
 
     @GetMapping("/current")
-    public ResponseEntity<AuthResponse> getCurrentUser(HttpSession session) {
-        User currentUser = (User) session.getAttribute("currentUser");
+    public ResponseEntity<AuthResponse> getCurrentUser() {
+        User currentUser = securityUtil.getCurrentUser();
         
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -90,4 +117,27 @@ public class AuthController {
         UserDTO userDTO = new UserDTO(currentUser);
         return ResponseEntity.ok(AuthResponse.success("Current user retrieved", userDTO));
     }
+
+    /**
+     * Log the user in: store the compact principal, not the entity, in the session,
+     * or in token mode issue an access token and create no session
+     * @param httpRequest the current request
+     * @param user the authenticated user
+     * @param response the response to return
+     * @return the response, carrying the access token in token mode
+     */
+    private AuthResponse authenticated(HttpServletRequest httpRequest, User user, AuthResponse response) {
+        if (authMode == AuthMode.TOKEN) {
+            response.setToken(accessTokenService.issue(user));
+        } else {
+            httpRequest.getSession().setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user));
+        }
+        return response;
+    }
+
+    private ResponseEntity<AuthResponse> tooManyRequests(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(AuthResponse.error(e.getMessage()));
+    }
 }
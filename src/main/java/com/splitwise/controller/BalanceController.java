@@ -1,13 +1,21 @@
 package com.splitwise.controller;
 
 import com.splitwise.dto.BalanceResponse;
+import com.splitwise.dto.GroupBalanceSummary;
+import com.splitwise.service.BalanceLedgerService;
 import com.splitwise.service.BalanceService;
+import com.splitwise.service.GroupVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -15,11 +23,19 @@ import java.util.Map;
 @CrossOrigin(origins = "*") // Allow CORS for frontend
 public class BalanceController {
     
+    // Clients may keep group views but must revalidate them with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     private final BalanceService balanceService;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
     
     @Autowired
-    public BalanceController(BalanceService balanceService) {
+    public BalanceController(BalanceService balanceService, BalanceLedgerService balanceLedgerService,
+                             GroupVersionService groupVersionService) {
         this.balanceService = balanceService;
+        this.balanceLedgerService = balanceLedgerService;
+        this.groupVersionService = groupVersionService;
     }
     
     /**
@@ -27,10 +43,19 @@ public class BalanceController {
      * GET /api/balances/group/{groupId}
      */
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<?> getGroupBalances(@PathVariable Long groupId) {
+    public ResponseEntity<?> getGroupBalances(@PathVariable Long groupId, WebRequest webRequest) {
         try {
+            // Answer If-None-Match from the group version before computing anything
+            String etag = groupVersionService.currentETag(groupId);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+            }
             BalanceResponse balances = balanceService.calculateGroupBalances(groupId);
-            return ResponseEntity.ok(balances);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (etag != null) {
+                response.eTag(etag).cacheControl(REVALIDATE);
+            }
+            return response.body(balances);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse(e.getMessage()));
@@ -47,7 +72,7 @@ public class BalanceController {
     @GetMapping("/user/{userId}/summary")
     public ResponseEntity<?> getUserBalanceSummary(@PathVariable Long userId) {
         try {
-            Map<Long, BigDecimal> balanceSummary = balanceService.getUserBalanceSummary(userId);
+            List<GroupBalanceSummary> balanceSummary = balanceService.getUserBalanceSummary(userId);
             return ResponseEntity.ok(new UserBalanceSummaryResponse(userId, balanceSummary));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -91,6 +116,42 @@ public class BalanceController {
         }
     }
     
+    /**
+     * Recompute the balance ledger of a group from its expenses and splits (group members and administrators)
+     * POST /api/balances/group/{groupId}/ledger/rebuild
+     */
+    @PostMapping("/group/{groupId}/ledger/rebuild")
+    public ResponseEntity<?> rebuildGroupLedger(@PathVariable Long groupId) {
+        try {
+            balanceLedgerService.rebuildGroup(groupId);
+            return ResponseEntity.ok(new LedgerRebuildResponse(1));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to rebuild balance ledger: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Recompute the balance ledger of every group (backfill / drift repair); administrators only
+     * POST /api/balances/ledger/rebuild
+     */
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<?> rebuildAllLedgers() {
+        try {
+            int groupsRebuilt = balanceLedgerService.rebuildAll();
+            return ResponseEntity.ok(new LedgerRebuildResponse(groupsRebuilt));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to rebuild balance ledger: " + e.getMessage()));
+        }
+    }
+    
     // Response classes
     public static class ErrorResponse {
         private String error;
@@ -121,19 +182,25 @@ public class BalanceController {
     public static class UserBalanceSummaryResponse {
         private Long userId;
         private Map<Long, BigDecimal> groupBalances;
+        private List<GroupBalanceSummary> groups;
         private BigDecimal totalNetBalance;
         private long timestamp;
         
-        public UserBalanceSummaryResponse(Long userId, Map<Long, BigDecimal> groupBalances) {
+        public UserBalanceSummaryResponse(Long userId, List<GroupBalanceSummary> groups) {
             this.userId = userId;
-            this.groupBalances = groupBalances;
-            this.totalNetBalance = groupBalances.values().stream()
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            this.groups = groups;
+            this.groupBalances = new LinkedHashMap<>();
+            this.totalNetBalance = BigDecimal.ZERO;
+            for (GroupBalanceSummary group : groups) {
+                groupBalances.put(group.getGroupId(), group.getNetBalance());
+                totalNetBalance = totalNetBalance.add(group.getNetBalance());
+            }
             this.timestamp = System.currentTimeMillis();
         }
         
         public Long getUserId() { return userId; }
         public Map<Long, BigDecimal> getGroupBalances() { return groupBalances; }
+        public List<GroupBalanceSummary> getGroups() { return groups; }
         public BigDecimal getTotalNetBalance() { return totalNetBalance; }
         public long getTimestamp() { return timestamp; }
     }
@@ -153,4 +220,17 @@ public class BalanceController {
         public boolean isFullySettled() { return isFullySettled; }
         public long getTimestamp() { return timestamp; }
     }
+    
+    public static class LedgerRebuildResponse {
+        private int groupsRebuilt;
+        private long timestamp;
+        
+        public LedgerRebuildResponse(int groupsRebuilt) {
+            this.groupsRebuilt = groupsRebuilt;
+            this.timestamp = System.currentTimeMillis();
+        }
+        
+        public int getGroupsRebuilt() { return groupsRebuilt; }
+        public long getTimestamp() { return timestamp; }
+    }
 }
@@ -1,31 +1,66 @@
 package com.splitwise.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitwise.dto.CreateExpenseRequest;
 import com.splitwise.dto.ExpenseDTO;
+import com.splitwise.dto.ExpenseImportResult;
+import com.splitwise.dto.ExpenseSplitDTO;
+import com.splitwise.dto.SettleUpResult;
 import com.splitwise.entity.Expense;
-import com.splitwise.entity.ExpenseSplit;
+import com.splitwise.service.ExpenseExportFormat;
+import com.splitwise.service.ExpenseExportService;
+import com.splitwise.service.ExpenseImportFormat;
+import com.splitwise.service.ExpenseImportService;
 import com.splitwise.service.ExpenseService;
+import com.splitwise.service.GroupVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/expenses")
 @CrossOrigin(origins = "*") // Allow CORS for frontend
 public class ExpenseController {
     
+    // Clients may keep group views but must revalidate them with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final GroupVersionService groupVersionService;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, ExpenseImportService expenseImportService,
+                             ExpenseExportService expenseExportService, GroupVersionService groupVersionService,
+                             ObjectMapper objectMapper) {
         this.expenseService = expenseService;
+        this.expenseImportService = expenseImportService;
+        this.expenseExportService = expenseExportService;
+        this.groupVersionService = groupVersionService;
+        this.objectMapper = objectMapper;
     }
     
     /**
@@ -41,12 +76,38 @@ public class ExpenseController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("Failed to create expense: " + e.getMessage()));
         }
     }
     
+    /**
+     * Bulk import expenses from a streamed CSV or NDJSON body
+     * POST /api/expenses/import?format=csv|ndjson (defaults to the Content-Type: text/csv or application/x-ndjson)
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importExpenses(@RequestParam(required = false) String format,
+                                            HttpServletRequest httpRequest) {
+        try {
+            ExpenseImportFormat importFormat = resolveImportFormat(format, httpRequest.getContentType());
+            Charset charset = httpRequest.getCharacterEncoding() != null
+                    ? Charset.forName(httpRequest.getCharacterEncoding()) : StandardCharsets.UTF_8;
+            Reader body = new InputStreamReader(httpRequest.getInputStream(), charset);
+            ExpenseImportResult result = expenseImportService.importExpenses(body, importFormat);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to import expenses: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get expense by ID
      * GET /api/expenses/{id}
@@ -67,12 +128,101 @@ public class ExpenseController {
      * GET /api/expenses/group/{groupId}
      */
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<List<ExpenseDTO>> getExpensesByGroup(@PathVariable Long groupId) {
+    public ResponseEntity<List<ExpenseDTO>> getExpensesByGroup(@PathVariable Long groupId, WebRequest webRequest) {
+        // Answer If-None-Match from the group version before touching the expenses
+        String etag = groupVersionService.currentETag(groupId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
         List<Expense> expenses = expenseService.getExpensesByGroupId(groupId);
         List<ExpenseDTO> expenseDTOs = expenses.stream()
                 .map(ExpenseDTO::new)
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(expenseDTOs);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag).cacheControl(REVALIDATE);
+        }
+        return response.body(expenseDTOs);
+    }
+    
+    /**
+     * Get a group's expenses one page at a time, newest first
+     * GET /api/expenses/group/{groupId}/feed?size=20&cursor={nextCursor of the previous page}&includeSplits=true
+     */
+    @GetMapping("/group/{groupId}/feed")
+    public ResponseEntity<?> getExpenseFeed(@PathVariable Long groupId,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "false") boolean includeSplits) {
+        try {
+            return ResponseEntity.ok(expenseService.getExpenseFeed(groupId, size, cursor, includeSplits));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Stream a group's full ledger, one row per split, gzip-compressed when the client accepts it
+     * GET /api/expenses/group/{groupId}/export?format=csv|ndjson
+     */
+    @GetMapping("/group/{groupId}/export")
+    public ResponseEntity<StreamingResponseBody> exportLedger(@PathVariable Long groupId,
+                                                              @RequestParam(defaultValue = "csv") String format,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExpenseExportFormat exportFormat;
+        try {
+            exportFormat = ExpenseExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return exportError("Unsupported export format: " + format);
+        }
+        try {
+            // Checked on the request thread: the body is written later, after the status is committed
+            expenseExportService.checkExportAllowed(groupId);
+        } catch (IllegalArgumentException e) {
+            return exportError(e.getMessage());
+        }
+        
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String extension = exportFormat == ExpenseExportFormat.CSV ? "csv" : "ndjson";
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                expenseExportService.exportLedger(groupId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                expenseExportService.exportLedger(groupId, exportFormat, out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == ExpenseExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("group-" + groupId + "-ledger." + extension).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noStore());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    /**
+     * Search expense descriptions and notes across the current user's groups, best match first
+     * GET /api/expenses/search?q=dinner&groupId={optional}&page=0&size=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchExpenses(@RequestParam String q,
+                                            @RequestParam(required = false) Long groupId,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(expenseService.searchExpenses(q, groupId, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     /**
@@ -80,8 +230,8 @@ public class ExpenseController {
      * GET /api/expenses/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Expense>> getExpensesPaidByUser(@PathVariable Long userId) {
-        List<Expense> expenses = expenseService.getExpensesPaidByUser(userId);
+    public ResponseEntity<List<ExpenseDTO>> getExpensesPaidByUser(@PathVariable Long userId) {
+        List<ExpenseDTO> expenses = expenseService.getExpensesPaidByUser(userId);
         return ResponseEntity.ok(expenses);
     }
     
@@ -90,8 +240,8 @@ public class ExpenseController {
      * GET /api/expenses/{expenseId}/splits
      */
     @GetMapping("/{expenseId}/splits")
-    public ResponseEntity<List<ExpenseSplit>> getExpenseSplits(@PathVariable Long expenseId) {
-        List<ExpenseSplit> splits = expenseService.getExpenseSplits(expenseId);
+    public ResponseEntity<List<ExpenseSplitDTO>> getExpenseSplits(@PathVariable Long expenseId) {
+        List<ExpenseSplitDTO> splits = expenseService.getExpenseSplits(expenseId);
         return ResponseEntity.ok(splits);
     }
     
@@ -100,8 +250,8 @@ public class ExpenseController {
      * GET /api/expenses/splits/user/{userId}
      */
     @GetMapping("/splits/user/{userId}")
-    public ResponseEntity<List<ExpenseSplit>> getSplitsOwedByUser(@PathVariable Long userId) {
-        List<ExpenseSplit> splits = expenseService.getSplitsOwedByUser(userId);
+    public ResponseEntity<List<ExpenseSplitDTO>> getSplitsOwedByUser(@PathVariable Long userId) {
+        List<ExpenseSplitDTO> splits = expenseService.getSplitsOwedByUser(userId);
         return ResponseEntity.ok(splits);
     }
     
@@ -110,8 +260,8 @@ public class ExpenseController {
      * GET /api/expenses/splits/user/{userId}/unsettled
      */
     @GetMapping("/splits/user/{userId}/unsettled")
-    public ResponseEntity<List<ExpenseSplit>> getUnsettledSplitsOwedByUser(@PathVariable Long userId) {
-        List<ExpenseSplit> splits = expenseService.getUnsettledSplitsOwedByUser(userId);
+    public ResponseEntity<List<ExpenseSplitDTO>> getUnsettledSplitsOwedByUser(@PathVariable Long userId) {
+        List<ExpenseSplitDTO> splits = expenseService.getUnsettledSplitsOwedByUser(userId);
         return ResponseEntity.ok(splits);
     }
     
@@ -120,9 +270,9 @@ public class ExpenseController {
      * GET /api/expenses/splits/group/{groupId}/user/{userId}/unsettled
      */
     @GetMapping("/splits/group/{groupId}/user/{userId}/unsettled")
-    public ResponseEntity<List<ExpenseSplit>> getUnsettledSplitsByGroupAndUser(
+    public ResponseEntity<List<ExpenseSplitDTO>> getUnsettledSplitsByGroupAndUser(
             @PathVariable Long groupId, @PathVariable Long userId) {
-        List<ExpenseSplit> splits = expenseService.getUnsettledSplitsByGroupAndUser(groupId, userId);
+        List<ExpenseSplitDTO> splits = expenseService.getUnsettledSplitsByGroupAndUser(groupId, userId);
         return ResponseEntity.ok(splits);
     }
     
@@ -162,6 +312,47 @@ public class ExpenseController {
         }
     }
     
+    /**
+     * Settle all unsettled splits a user owes on expenses another user paid in a group; the caller must be
+     * the user who is owed and a member of the group
+     * POST /api/expenses/settle-up/group/{groupId}/user/{fromUserId}/to/{toUserId}
+     */
+    @PostMapping("/settle-up/group/{groupId}/user/{fromUserId}/to/{toUserId}")
+    public ResponseEntity<?> settleUpInGroup(@PathVariable Long groupId,
+                                             @PathVariable Long fromUserId,
+                                             @PathVariable Long toUserId) {
+        return settleUp(groupId, fromUserId, toUserId);
+    }
+    
+    /**
+     * Settle all unsettled splits a user owes on expenses another user paid, across all groups; the caller
+     * must be the user who is owed
+     * POST /api/expenses/settle-up/user/{fromUserId}/to/{toUserId}
+     */
+    @PostMapping("/settle-up/user/{fromUserId}/to/{toUserId}")
+    public ResponseEntity<?> settleUpAcrossGroups(@PathVariable Long fromUserId, @PathVariable Long toUserId) {
+        return settleUp(null, fromUserId, toUserId);
+    }
+    
+    private ResponseEntity<?> settleUp(Long groupId, Long fromUserId, Long toUserId) {
+        try {
+            SettleUpResult result = expenseService.settleUp(groupId, fromUserId, toUserId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to settle up: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Delete an expense
      * DELETE /api/expenses/{id}
@@ -212,6 +403,41 @@ public class ExpenseController {
         return ResponseEntity.ok(new AmountResponse(amount));
     }
     
+    private ExpenseImportFormat resolveImportFormat(String format, String contentType) {
+        if (format != null) {
+            try {
+                return ExpenseImportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported import format: " + format);
+            }
+        }
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("csv")) {
+            return ExpenseImportFormat.CSV;
+        }
+        return ExpenseImportFormat.NDJSON;
+    }
+    
+    // A streaming endpoint can only return streaming bodies, so errors are serialized by hand
+    private ResponseEntity<StreamingResponseBody> exportError(String message) {
+        ErrorResponse error = new ErrorResponse(message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+    
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+            if (parts[0].trim().equals("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
     // Response classes
     public static class ErrorResponse {
         private String error;
@@ -5,6 +5,7 @@ import com.splitwise.dto.UserDTO;
 import com.splitwise.entity.Group;
 import com.splitwise.entity.GroupMember;
 import com.splitwise.entity.User;
+import com.splitwise.service.GroupCounterService;
 import com.splitwise.service.GroupService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,10 +23,12 @@ import java.util.Optional;
 public class GroupController {
     
     private final GroupService groupService;
+    private final GroupCounterService groupCounterService;
     
     @Autowired
-    public GroupController(GroupService groupService) {
+    public GroupController(GroupService groupService, GroupCounterService groupCounterService) {
         this.groupService = groupService;
+        this.groupCounterService = groupCounterService;
     }
     
     /**
@@ -92,11 +95,17 @@ public class GroupController {
     
     /**
      * Delete group
-     * DELETE /api/groups/{id}
+     * DELETE /api/groups/{id}?async=true soft-deletes the group and purges its expenses in the background
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteGroup(@PathVariable Long id) {
+    public ResponseEntity<?> deleteGroup(@PathVariable Long id,
+                                         @RequestParam(defaultValue = "false") boolean async) {
         try {
+            if (async) {
+                groupService.scheduleGroupDeletion(id);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(new SuccessResponse("Group deleted, its expenses are being purged"));
+            }
             groupService.deleteGroup(id);
             return ResponseEntity.ok(new SuccessResponse("Group deleted successfully"));
         } catch (IllegalArgumentException e) {
@@ -202,6 +211,20 @@ public class GroupController {
         }
     }
     
+    /**
+     * Recount the counters of every group whose member count, expense count or total amount drifted; administrators only
+     * POST /api/groups/counters/reconcile
+     */
+    @PostMapping("/counters/reconcile")
+    public ResponseEntity<?> reconcileGroupCounters() {
+        try {
+            return ResponseEntity.ok(groupCounterService.reconcileAll());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("Failed to reconcile group counters: " + e.getMessage()));
+        }
+    }
+    
     // Response classes
     public static class ErrorResponse {
         private String error;
@@ -0,0 +1,118 @@
+package com.splitwise.controller;
+
+import com.splitwise.service.AccessTokenService;
+import com.splitwise.service.CurrentUserCache;
+import com.splitwise.service.ExpenseSearchIndex;
+import com.splitwise.service.GroupBalanceCache;
+import com.splitwise.service.GroupCounterService;
+import com.splitwise.service.GroupMembershipIndex;
+import com.splitwise.service.PasswordHashingService;
+import com.splitwise.service.TypeaheadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Operational counters of the caches, indexes and background jobs; administrators only (see SecurityConfig)
+ */
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*") // Allow CORS for frontend
+public class StatsController {
+    
+    private final GroupBalanceCache groupBalanceCache;
+    private final TypeaheadService typeaheadService;
+    private final CurrentUserCache currentUserCache;
+    private final AccessTokenService accessTokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final GroupCounterService groupCounterService;
+    private final ExpenseSearchIndex expenseSearchIndex;
+    
+    @Autowired
+    public StatsController(GroupBalanceCache groupBalanceCache, TypeaheadService typeaheadService,
+                           CurrentUserCache currentUserCache, AccessTokenService accessTokenService,
+                           PasswordHashingService passwordHashingService, GroupMembershipIndex groupMembershipIndex,
+                           GroupCounterService groupCounterService, ExpenseSearchIndex expenseSearchIndex) {
+        this.groupBalanceCache = groupBalanceCache;
+        this.typeaheadService = typeaheadService;
+        this.currentUserCache = currentUserCache;
+        this.accessTokenService = accessTokenService;
+        this.passwordHashingService = passwordHashingService;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.groupCounterService = groupCounterService;
+        this.expenseSearchIndex = expenseSearchIndex;
+    }
+    
+    /**
+     * Get hit/miss/eviction counters of the group balance cache
+     * GET /api/stats/balance-cache
+     */
+    @GetMapping("/balance-cache")
+    public ResponseEntity<GroupBalanceCache.Stats> getBalanceCacheStats() {
+        return ResponseEntity.ok(groupBalanceCache.getStats());
+    }
+    
+    /**
+     * Get hit/miss/eviction counters of the per-user typeahead index cache
+     * GET /api/stats/typeahead
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<TypeaheadService.Stats> getTypeaheadStats() {
+        return ResponseEntity.ok(typeaheadService.getStats());
+    }
+    
+    /**
+     * Get current-user lookup counters, including how many user reads the request memo and cache avoided
+     * GET /api/stats/current-user
+     */
+    @GetMapping("/current-user")
+    public ResponseEntity<CurrentUserCache.Stats> getCurrentUserStats() {
+        return ResponseEntity.ok(currentUserCache.getStats());
+    }
+    
+    /**
+     * Get access token counters, including the mean verification time per request
+     * GET /api/stats/auth-tokens
+     */
+    @GetMapping("/auth-tokens")
+    public ResponseEntity<AccessTokenService.Stats> getAuthTokenStats() {
+        return ResponseEntity.ok(accessTokenService.getStats());
+    }
+    
+    /**
+     * Get password hashing pool counters: hash/verify latency, queue depth, shed and throttled sign-ins
+     * GET /api/stats/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingService.Stats> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+    
+    /**
+     * Get hit/load counters of the in-memory group membership index
+     * GET /api/stats/membership
+     */
+    @GetMapping("/membership")
+    public ResponseEntity<GroupMembershipIndex.Stats> getMembershipStats() {
+        return ResponseEntity.ok(groupMembershipIndex.getStats());
+    }
+    
+    /**
+     * Get drift/repair counters of the group counter reconciliation
+     * GET /api/stats/group-counters
+     */
+    @GetMapping("/group-counters")
+    public ResponseEntity<GroupCounterService.Stats> getGroupCounterStats() {
+        return ResponseEntity.ok(groupCounterService.getStats());
+    }
+    
+    /**
+     * Get hit/load/reload counters of the in-memory expense search index
+     * GET /api/stats/search
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ExpenseSearchIndex.Stats> getSearchStats() {
+        return ResponseEntity.ok(expenseSearchIndex.getStats());
+    }
+}
@@ -0,0 +1,32 @@
+package com.splitwise.controller;
+
+import com.splitwise.dto.TypeaheadSuggestion;
+import com.splitwise.service.TypeaheadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/typeahead")
+@CrossOrigin(origins = "*") // Allow CORS for frontend
+public class TypeaheadController {
+    
+    private final TypeaheadService typeaheadService;
+    
+    @Autowired
+    public TypeaheadController(TypeaheadService typeaheadService) {
+        this.typeaheadService = typeaheadService;
+    }
+    
+    /**
+     * Suggest the current user's contacts and groups whose name, any word of the name, or email starts with q
+     * GET /api/typeahead?q={prefix}&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<List<TypeaheadSuggestion>> suggest(@RequestParam(defaultValue = "") String q,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(typeaheadService.suggest(q, limit));
+    }
+}
@@ -5,7 +5,7 @@ public class AuthResponse {
     private boolean success;
     private String message;
     private UserDTO user;
-    private String token; // For future JWT implementation
+    private String token; // Access token, issued when splitwise.auth.mode=TOKEN
     
     // Constructors
     public AuthResponse() {}
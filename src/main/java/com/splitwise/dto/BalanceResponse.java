@@ -10,6 +10,7 @@ public class BalanceResponse {
     private List<UserBalance> userBalances;
     private List<Settlement> settlements;
     private BigDecimal totalGroupExpenses;
+    private String settlementAlgorithm; // Algorithm that produced the settlements
     private long timestamp;
     
     // Constructors
@@ -68,6 +69,14 @@ public class BalanceResponse {
         this.totalGroupExpenses = totalGroupExpenses;
     }
     
+    public String getSettlementAlgorithm() {
+        return settlementAlgorithm;
+    }
+    
+    public void setSettlementAlgorithm(String settlementAlgorithm) {
+        this.settlementAlgorithm = settlementAlgorithm;
+    }
+    
     public long getTimestamp() {
         return timestamp;
     }
@@ -175,6 +184,7 @@ public class BalanceResponse {
                 ", userBalances=" + userBalances +
                 ", settlements=" + settlements +
                 ", totalGroupExpenses=" + totalGroupExpenses +
+                ", settlementAlgorithm='" + settlementAlgorithm + '\'' +
                 ", timestamp=" + timestamp +
                 '}';
     }
@@ -1,8 +1,10 @@
 package com.splitwise.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.splitwise.entity.Expense;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class ExpenseDTO {
     private Long id;
@@ -18,10 +20,31 @@ public class ExpenseDTO {
     private String paidByName;
     private Long groupId;
     private String groupName;
+    
+    // Only filled when splits are requested (expense feed with includeSplits=true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ExpenseSplitDTO> splits;
 
     // Constructors
     public ExpenseDTO() {}
 
+    // Used by JPQL constructor expressions, which select only these columns
+    public ExpenseDTO(Long id, String description, BigDecimal amount, String notes,
+                      LocalDateTime expenseDate, LocalDateTime createdAt, LocalDateTime updatedAt,
+                      Long paidById, String paidByName, Long groupId, String groupName) {
+        this.id = id;
+        this.description = description;
+        this.amount = amount;
+        this.notes = notes;
+        this.expenseDate = expenseDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.paidById = paidById;
+        this.paidByName = paidByName;
+        this.groupId = groupId;
+        this.groupName = groupName;
+    }
+
     public ExpenseDTO(Expense expense) {
         this.id = expense.getId();
         this.description = expense.getDescription();
@@ -130,4 +153,12 @@ public class ExpenseDTO {
     public void setGroupName(String groupName) {
         this.groupName = groupName;
     }
+
+    public List<ExpenseSplitDTO> getSplits() {
+        return splits;
+    }
+
+    public void setSplits(List<ExpenseSplitDTO> splits) {
+        this.splits = splits;
+    }
 }
@@ -0,0 +1,43 @@
+package com.splitwise.dto;
+
+import java.util.List;
+
+public class ExpenseFeedPage {
+    private List<ExpenseDTO> items;
+    private String nextCursor; // Null on the last page
+    private boolean hasMore;
+
+    // Constructors
+    public ExpenseFeedPage() {}
+
+    public ExpenseFeedPage(List<ExpenseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<ExpenseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ExpenseDTO> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,63 @@
+package com.splitwise.dto;
+
+import java.util.List;
+
+public class ExpenseSearchResult {
+    private String query;
+    private int total; // Matches across all pages
+    private int page;
+    private int size;
+    private List<ExpenseDTO> items;
+
+    // Constructors
+    public ExpenseSearchResult() {}
+
+    public ExpenseSearchResult(String query, int total, int page, int size, List<ExpenseDTO> items) {
+        this.query = query;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<ExpenseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ExpenseDTO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,160 @@
+package com.splitwise.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ExpenseSplitDTO {
+    private Long id;
+    private BigDecimal amount;
+    private boolean settled;
+    private LocalDateTime settledAt;
+    private LocalDateTime createdAt;
+    
+    // Simple fields instead of full objects
+    private Long expenseId;
+    private String expenseDescription;
+    private LocalDateTime expenseDate;
+    private Long groupId;
+    private String groupName;
+    private Long owedById;
+    private String owedByName;
+    private Long paidById;
+    private String paidByName;
+
+    // Constructors
+    public ExpenseSplitDTO() {}
+
+    // Used by JPQL constructor expressions, which select only these columns
+    public ExpenseSplitDTO(Long id, BigDecimal amount, boolean settled, LocalDateTime settledAt, LocalDateTime createdAt,
+                           Long expenseId, String expenseDescription, LocalDateTime expenseDate,
+                           Long groupId, String groupName, Long owedById, String owedByName,
+                           Long paidById, String paidByName) {
+        this.id = id;
+        this.amount = amount;
+        this.settled = settled;
+        this.settledAt = settledAt;
+        this.createdAt = createdAt;
+        this.expenseId = expenseId;
+        this.expenseDescription = expenseDescription;
+        this.expenseDate = expenseDate;
+        this.groupId = groupId;
+        this.groupName = groupName;
+        this.owedById = owedById;
+        this.owedByName = owedByName;
+        this.paidById = paidById;
+        this.paidByName = paidByName;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
+
+    public void setSettledAt(LocalDateTime settledAt) {
+        this.settledAt = settledAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public String getExpenseDescription() {
+        return expenseDescription;
+    }
+
+    public void setExpenseDescription(String expenseDescription) {
+        this.expenseDescription = expenseDescription;
+    }
+
+    public LocalDateTime getExpenseDate() {
+        return expenseDate;
+    }
+
+    public void setExpenseDate(LocalDateTime expenseDate) {
+        this.expenseDate = expenseDate;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public Long getOwedById() {
+        return owedById;
+    }
+
+    public void setOwedById(Long owedById) {
+        this.owedById = owedById;
+    }
+
+    public String getOwedByName() {
+        return owedByName;
+    }
+
+    public void setOwedByName(String owedByName) {
+        this.owedByName = owedByName;
+    }
+
+    public Long getPaidById() {
+        return paidById;
+    }
+
+    public void setPaidById(Long paidById) {
+        this.paidById = paidById;
+    }
+
+    public String getPaidByName() {
+        return paidByName;
+    }
+
+    public void setPaidByName(String paidByName) {
+        this.paidByName = paidByName;
+    }
+}
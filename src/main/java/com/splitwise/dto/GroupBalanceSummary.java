@@ -0,0 +1,63 @@
+package com.splitwise.dto;
+
+import java.math.BigDecimal;
+
+public class GroupBalanceSummary {
+    private Long groupId;
+    private String groupName;
+    private BigDecimal totalPaid;
+    private BigDecimal totalOwed;
+    private BigDecimal netBalance; // Positive means the user is owed money in this group
+
+    // Constructors
+    public GroupBalanceSummary() {}
+
+    public GroupBalanceSummary(Long groupId, String groupName, BigDecimal totalPaid, BigDecimal totalOwed) {
+        this.groupId = groupId;
+        this.groupName = groupName;
+        this.totalPaid = totalPaid;
+        this.totalOwed = totalOwed;
+        this.netBalance = totalPaid.subtract(totalOwed);
+    }
+
+    // Getters and Setters
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public void setGroupName(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public BigDecimal getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(BigDecimal totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    public BigDecimal getTotalOwed() {
+        return totalOwed;
+    }
+
+    public void setTotalOwed(BigDecimal totalOwed) {
+        this.totalOwed = totalOwed;
+    }
+
+    public BigDecimal getNetBalance() {
+        return netBalance;
+    }
+
+    public void setNetBalance(BigDecimal netBalance) {
+        this.netBalance = netBalance;
+    }
+}
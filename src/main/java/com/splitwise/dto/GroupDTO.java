@@ -1,6 +1,7 @@
 package com.splitwise.dto;
 
 import com.splitwise.entity.Group;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class GroupDTO {
@@ -9,6 +10,10 @@ public class GroupDTO {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int memberCount;
+    private long expenseCount;
+    private BigDecimal totalAmount;
+    private LocalDateTime lastActivityAt;
 
     // Constructors
     public GroupDTO() {}
@@ -19,6 +24,10 @@ public class GroupDTO {
         this.description = group.getDescription();
         this.createdAt = group.getCreatedAt();
         this.updatedAt = group.getUpdatedAt();
+        this.memberCount = group.getMemberCount();
+        this.expenseCount = group.getExpenseCount();
+        this.totalAmount = group.getTotalAmount();
+        this.lastActivityAt = group.getLastActivityAt();
     }
 
     // Getters and Setters
@@ -61,4 +70,36 @@ public class GroupDTO {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+
+    public void setMemberCount(int memberCount) {
+        this.memberCount = memberCount;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
 }
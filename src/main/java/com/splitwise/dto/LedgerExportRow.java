@@ -0,0 +1,148 @@
+package com.splitwise.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class LedgerExportRow {
+    private Long expenseId;
+    private LocalDateTime expenseDate;
+    private String description;
+    private String notes;
+    private BigDecimal expenseAmount;
+    private Long paidById;
+    private String paidByName;
+    private Long splitId;
+    private Long owedById;
+    private String owedByName;
+    private BigDecimal splitAmount;
+    private boolean settled;
+    private LocalDateTime settledAt;
+
+    // Constructors
+    public LedgerExportRow() {}
+
+    // Used by the JPQL constructor expression of the ledger export
+    public LedgerExportRow(Long expenseId, LocalDateTime expenseDate, String description, String notes,
+                           BigDecimal expenseAmount, Long paidById, String paidByName,
+                           Long splitId, Long owedById, String owedByName, BigDecimal splitAmount,
+                           Boolean settled, LocalDateTime settledAt) {
+        this.expenseId = expenseId;
+        this.expenseDate = expenseDate;
+        this.description = description;
+        this.notes = notes;
+        this.expenseAmount = expenseAmount;
+        this.paidById = paidById;
+        this.paidByName = paidByName;
+        this.splitId = splitId;
+        this.owedById = owedById;
+        this.owedByName = owedByName;
+        this.splitAmount = splitAmount;
+        this.settled = Boolean.TRUE.equals(settled);
+        this.settledAt = settledAt;
+    }
+
+    // Getters and Setters
+    public Long getExpenseId() {
+        return expenseId;
+    }
+
+    public void setExpenseId(Long expenseId) {
+        this.expenseId = expenseId;
+    }
+
+    public LocalDateTime getExpenseDate() {
+        return expenseDate;
+    }
+
+    public void setExpenseDate(LocalDateTime expenseDate) {
+        this.expenseDate = expenseDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public BigDecimal getExpenseAmount() {
+        return expenseAmount;
+    }
+
+    public void setExpenseAmount(BigDecimal expenseAmount) {
+        this.expenseAmount = expenseAmount;
+    }
+
+    public Long getPaidById() {
+        return paidById;
+    }
+
+    public void setPaidById(Long paidById) {
+        this.paidById = paidById;
+    }
+
+    public String getPaidByName() {
+        return paidByName;
+    }
+
+    public void setPaidByName(String paidByName) {
+        this.paidByName = paidByName;
+    }
+
+    public Long getSplitId() {
+        return splitId;
+    }
+
+    public void setSplitId(Long splitId) {
+        this.splitId = splitId;
+    }
+
+    public Long getOwedById() {
+        return owedById;
+    }
+
+    public void setOwedById(Long owedById) {
+        this.owedById = owedById;
+    }
+
+    public String getOwedByName() {
+        return owedByName;
+    }
+
+    public void setOwedByName(String owedByName) {
+        this.owedByName = owedByName;
+    }
+
+    public BigDecimal getSplitAmount() {
+        return splitAmount;
+    }
+
+    public void setSplitAmount(BigDecimal splitAmount) {
+        this.splitAmount = splitAmount;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
+
+    public void setSettledAt(LocalDateTime settledAt) {
+        this.settledAt = settledAt;
+    }
+}
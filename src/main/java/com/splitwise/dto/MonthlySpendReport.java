@@ -0,0 +1,170 @@
+package com.splitwise.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MonthlySpendReport {
+    private Long groupId;
+    private YearMonth fromMonth;
+    private YearMonth toMonth;
+    private List<Month> months = new ArrayList<>(); // Every month of the range, empty months included
+
+    // Constructors
+    public MonthlySpendReport() {}
+
+    public MonthlySpendReport(Long groupId, YearMonth fromMonth, YearMonth toMonth) {
+        this.groupId = groupId;
+        this.fromMonth = fromMonth;
+        this.toMonth = toMonth;
+    }
+
+    // Getters and Setters
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public YearMonth getFromMonth() {
+        return fromMonth;
+    }
+
+    public void setFromMonth(YearMonth fromMonth) {
+        this.fromMonth = fromMonth;
+    }
+
+    public YearMonth getToMonth() {
+        return toMonth;
+    }
+
+    public void setToMonth(YearMonth toMonth) {
+        this.toMonth = toMonth;
+    }
+
+    public List<Month> getMonths() {
+        return months;
+    }
+
+    public void setMonths(List<Month> months) {
+        this.months = months;
+    }
+
+    // Inner class for one month of the series
+    public static class Month {
+        private YearMonth month;
+        private BigDecimal totalSpend = BigDecimal.ZERO; // Sum of the group's expenses dated in the month
+        private long expenseCount;
+        private List<MemberSpend> members = new ArrayList<>();
+
+        public Month() {}
+
+        public Month(YearMonth month) {
+            this.month = month;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public void setMonth(YearMonth month) {
+            this.month = month;
+        }
+
+        public BigDecimal getTotalSpend() {
+            return totalSpend;
+        }
+
+        public void setTotalSpend(BigDecimal totalSpend) {
+            this.totalSpend = totalSpend;
+        }
+
+        public long getExpenseCount() {
+            return expenseCount;
+        }
+
+        public void setExpenseCount(long expenseCount) {
+            this.expenseCount = expenseCount;
+        }
+
+        public List<MemberSpend> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<MemberSpend> members) {
+            this.members = members;
+        }
+    }
+
+    // Inner class for a member's share of a month
+    public static class MemberSpend {
+        private Long userId;
+        private String userName;
+        private BigDecimal paid;
+        private long paidCount;
+        private BigDecimal owed; // Split shares, settled or not
+        private long owedCount;
+
+        public MemberSpend() {}
+
+        public MemberSpend(Long userId, String userName, BigDecimal paid, long paidCount, BigDecimal owed, long owedCount) {
+            this.userId = userId;
+            this.userName = userName;
+            this.paid = paid;
+            this.paidCount = paidCount;
+            this.owed = owed;
+            this.owedCount = owedCount;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public BigDecimal getPaid() {
+            return paid;
+        }
+
+        public void setPaid(BigDecimal paid) {
+            this.paid = paid;
+        }
+
+        public long getPaidCount() {
+            return paidCount;
+        }
+
+        public void setPaidCount(long paidCount) {
+            this.paidCount = paidCount;
+        }
+
+        public BigDecimal getOwed() {
+            return owed;
+        }
+
+        public void setOwed(BigDecimal owed) {
+            this.owed = owed;
+        }
+
+        public long getOwedCount() {
+            return owedCount;
+        }
+
+        public void setOwedCount(long owedCount) {
+            this.owedCount = owedCount;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.splitwise.dto;
+
+import java.math.BigDecimal;
+
+public class SettleUpResult {
+    private Long fromUserId;
+    private Long toUserId;
+    private Long groupId; // Null when settled across all groups
+    private long settledCount;
+    private BigDecimal settledAmount;
+
+    // Constructors
+    public SettleUpResult() {}
+
+    public SettleUpResult(Long fromUserId, Long toUserId, Long groupId, long settledCount, BigDecimal settledAmount) {
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.groupId = groupId;
+        this.settledCount = settledCount;
+        this.settledAmount = settledAmount;
+    }
+
+    // Getters and Setters
+    public Long getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(Long fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+
+    public long getSettledCount() {
+        return settledCount;
+    }
+
+    public void setSettledCount(long settledCount) {
+        this.settledCount = settledCount;
+    }
+
+    public BigDecimal getSettledAmount() {
+        return settledAmount;
+    }
+
+    public void setSettledAmount(BigDecimal settledAmount) {
+        this.settledAmount = settledAmount;
+    }
+}
@@ -0,0 +1,51 @@
+package com.splitwise.dto;
+
+public class TypeaheadSuggestion {
+    private String type; // USER or GROUP
+    private Long id;
+    private String label;
+    private String detail; // Email for users, null for groups
+
+    // Constructors
+    public TypeaheadSuggestion() {}
+
+    public TypeaheadSuggestion(String type, Long id, String label, String detail) {
+        this.type = type;
+        this.id = id;
+        this.label = label;
+        this.detail = detail;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
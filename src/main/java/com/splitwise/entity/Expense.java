@@ -11,7 +11,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = @Index(name = "idx_expenses_group_date_id", columnList = "group_id, expense_date, id"))
 public class Expense {
     
     @Id
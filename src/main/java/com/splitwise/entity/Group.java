@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.SQLRestriction;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "`groups`")
+@Table(name = "`groups`", indexes = @Index(name = "idx_groups_deleted_at", columnList = "deleted_at"))
+@SQLRestriction("deleted_at IS NULL") // Groups awaiting an asynchronous purge are invisible
 public class Group {
     
     @Id
@@ -31,6 +34,30 @@ public class Group {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Column(name = "deleted_at")
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+    
+    // Bumped only by GroupVersionService with a bulk UPDATE; never written from the entity
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    @JsonIgnore
+    private long dataVersion;
+    
+    // Denormalized counters: set on insert, then only changed by GroupCounterService with bulk UPDATEs.
+    // No columnDefinition: Hibernate casts the UPDATE parameters to the column type, which must stay a plain type
+    @Column(name = "member_count", nullable = false, updatable = false)
+    private int memberCount;
+    
+    @Column(name = "expense_count", nullable = false, updatable = false)
+    private long expenseCount;
+    
+    @Column(name = "total_amount", nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    @Column(name = "last_activity_at", updatable = false)
+    private LocalDateTime lastActivityAt;
+    
     // One-to-many relationship with group members
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore // Prevent circular reference in JSON serialization
@@ -101,6 +128,50 @@ public class Group {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
+    public long getDataVersion() {
+        return dataVersion;
+    }
+    
+    public int getMemberCount() {
+        return memberCount;
+    }
+    
+    /**
+     * Set the initial member count of a group that is about to be inserted
+     * @param memberCount the number of members the group is created with
+     */
+    public void setMemberCount(int memberCount) {
+        this.memberCount = memberCount;
+    }
+    
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+    
+    /**
+     * Set the initial activity time of a group that is about to be inserted
+     * @param lastActivityAt the creation time
+     */
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+    
     public Set<GroupMember> getMembers() {
         return members;
     }
@@ -0,0 +1,142 @@
+package com.splitwise.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Incrementally maintained balance ledger row for a user in a group.
+ * Amounts follow the same rules as the aggregate queries: paid counts every expense
+ * paid by the user, owed counts only unsettled splits.
+ */
+@Entity
+@Table(name = "group_balances", indexes = @Index(name = "idx_group_balances_user", columnList = "user_id"))
+@IdClass(GroupBalance.Key.class)
+public class GroupBalance {
+    
+    @Id
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+    
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "total_paid", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+    
+    @Column(name = "total_owed", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalOwed = BigDecimal.ZERO;
+    
+    @Column(name = "net_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal netBalance = BigDecimal.ZERO;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public GroupBalance() {
+    }
+    
+    public GroupBalance(Long groupId, Long userId) {
+        this.groupId = groupId;
+        this.userId = userId;
+    }
+    
+    // Getters and Setters
+    public Long getGroupId() {
+        return groupId;
+    }
+    
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public BigDecimal getTotalPaid() {
+        return totalPaid;
+    }
+    
+    public void setTotalPaid(BigDecimal totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+    
+    public BigDecimal getTotalOwed() {
+        return totalOwed;
+    }
+    
+    public void setTotalOwed(BigDecimal totalOwed) {
+        this.totalOwed = totalOwed;
+    }
+    
+    public BigDecimal getNetBalance() {
+        return netBalance;
+    }
+    
+    public void setNetBalance(BigDecimal netBalance) {
+        this.netBalance = netBalance;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "GroupBalance{" +
+                "groupId=" + groupId +
+                ", userId=" + userId +
+                ", totalPaid=" + totalPaid +
+                ", totalOwed=" + totalOwed +
+                ", netBalance=" + netBalance +
+                '}';
+    }
+    
+    // Composite primary key (group_id, user_id)
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long groupId;
+        private Long userId;
+        
+        public Key() {
+        }
+        
+        public Key(Long groupId, Long userId) {
+            this.groupId = groupId;
+            this.userId = userId;
+        }
+        
+        public Long getGroupId() { return groupId; }
+        public void setGroupId(Long groupId) { this.groupId = groupId; }
+        
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(groupId, key.groupId) && Objects.equals(userId, key.userId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupId, userId);
+        }
+    }
+}
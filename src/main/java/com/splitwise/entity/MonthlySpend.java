@@ -0,0 +1,175 @@
+package com.splitwise.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Incrementally maintained monthly spend rollup row for a member of a group.
+ * Paid sums the expenses the member paid in the month (by expense date), owed sums the member's
+ * split shares of the month's expenses whether settled or not; settling a debt does not change spend.
+ */
+@Entity
+@Table(name = "monthly_spend")
+@IdClass(MonthlySpend.Key.class)
+public class MonthlySpend {
+    
+    @Id
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+    
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Id
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+    
+    @Column(name = "paid_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal paidAmount = BigDecimal.ZERO;
+    
+    @Column(name = "paid_count", nullable = false)
+    private long paidCount;
+    
+    @Column(name = "owed_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal owedAmount = BigDecimal.ZERO;
+    
+    @Column(name = "owed_count", nullable = false)
+    private long owedCount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public MonthlySpend() {
+    }
+    
+    public MonthlySpend(Long groupId, Long userId, LocalDate monthStart) {
+        this.groupId = groupId;
+        this.userId = userId;
+        this.monthStart = monthStart;
+    }
+    
+    // Getters and Setters
+    public Long getGroupId() {
+        return groupId;
+    }
+    
+    public void setGroupId(Long groupId) {
+        this.groupId = groupId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+    
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+    
+    public BigDecimal getPaidAmount() {
+        return paidAmount;
+    }
+    
+    public void setPaidAmount(BigDecimal paidAmount) {
+        this.paidAmount = paidAmount;
+    }
+    
+    public long getPaidCount() {
+        return paidCount;
+    }
+    
+    public void setPaidCount(long paidCount) {
+        this.paidCount = paidCount;
+    }
+    
+    public BigDecimal getOwedAmount() {
+        return owedAmount;
+    }
+    
+    public void setOwedAmount(BigDecimal owedAmount) {
+        this.owedAmount = owedAmount;
+    }
+    
+    public long getOwedCount() {
+        return owedCount;
+    }
+    
+    public void setOwedCount(long owedCount) {
+        this.owedCount = owedCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "MonthlySpend{" +
+                "groupId=" + groupId +
+                ", userId=" + userId +
+                ", monthStart=" + monthStart +
+                ", paidAmount=" + paidAmount +
+                ", paidCount=" + paidCount +
+                ", owedAmount=" + owedAmount +
+                ", owedCount=" + owedCount +
+                '}';
+    }
+    
+    // Composite primary key (group_id, user_id, month_start)
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long groupId;
+        private Long userId;
+        private LocalDate monthStart;
+        
+        public Key() {
+        }
+        
+        public Key(Long groupId, Long userId, LocalDate monthStart) {
+            this.groupId = groupId;
+            this.userId = userId;
+            this.monthStart = monthStart;
+        }
+        
+        public Long getGroupId() { return groupId; }
+        public void setGroupId(Long groupId) { this.groupId = groupId; }
+        
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        
+        public LocalDate getMonthStart() { return monthStart; }
+        public void setMonthStart(LocalDate monthStart) { this.monthStart = monthStart; }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(groupId, key.groupId) && Objects.equals(userId, key.userId)
+                    && Objects.equals(monthStart, key.monthStart);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupId, userId, monthStart);
+        }
+    }
+}
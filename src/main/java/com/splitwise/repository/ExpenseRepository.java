@@ -1,18 +1,38 @@
 package com.splitwise.repository;
 
+import com.splitwise.dto.ExpenseDTO;
 import com.splitwise.entity.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     
+    /**
+     * Select clause of the ExpenseDTO read model: scalar columns only, names via joins
+     */
+    String EXPENSE_DTO_SELECT = "SELECT new com.splitwise.dto.ExpenseDTO(e.id, e.description, e.amount, e.notes, e.expenseDate, " +
+            "e.createdAt, e.updatedAt, p.id, p.name, g.id, g.name) " +
+            "FROM Expense e JOIN e.paidBy p JOIN e.group g ";
+    
+    /**
+     * Ledger export of a group, one row per split in (expenseDate, id) order. Run as a forward-only
+     * scroll (see ExpenseExportService) rather than through a repository method, so rows can be
+     * streamed with a driver-specific fetch size instead of being collected into a list.
+     */
+    String LEDGER_EXPORT_QUERY = "SELECT new com.splitwise.dto.LedgerExportRow(e.id, e.expenseDate, e.description, e.notes, " +
+            "e.amount, p.id, p.name, es.id, o.id, o.name, es.amount, es.isSettled, es.settledAt) " +
+            "FROM Expense e JOIN e.paidBy p LEFT JOIN e.splits es LEFT JOIN es.owedBy o " +
+            "WHERE e.group.id = :groupId ORDER BY e.expenseDate, e.id, es.id";
+    
     /**
      * Find all expenses in a specific group
      * @param groupId the group ID
@@ -28,6 +48,48 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     @Query("SELECT e FROM Expense e JOIN FETCH e.paidBy JOIN FETCH e.group WHERE e.group.id = :groupId ORDER BY e.expenseDate DESC")
     List<Expense> findByGroupIdWithDetailsOrderByExpenseDateDesc(@Param("groupId") Long groupId);
     
+    /**
+     * First page of a group's expense feed, newest first (seeks on idx_expenses_group_date_id)
+     * @param groupId the group ID
+     * @param limit the maximum number of expenses to return
+     * @return list of expense DTOs
+     */
+    @Query(EXPENSE_DTO_SELECT + "WHERE g.id = :groupId ORDER BY e.expenseDate DESC, e.id DESC LIMIT :limit")
+    List<ExpenseDTO> findFeedFirstPage(@Param("groupId") Long groupId, @Param("limit") int limit);
+    
+    /**
+     * Next page of a group's expense feed: expenses strictly after the cursor position (expenseDate, id)
+     * @param groupId the group ID
+     * @param cursorDate the expense date of the last expense already returned
+     * @param cursorId the ID of the last expense already returned
+     * @param limit the maximum number of expenses to return
+     * @return list of expense DTOs
+     */
+    @Query(EXPENSE_DTO_SELECT + "WHERE g.id = :groupId " +
+           "AND (e.expenseDate < :cursorDate OR (e.expenseDate = :cursorDate AND e.id < :cursorId)) " +
+           "ORDER BY e.expenseDate DESC, e.id DESC LIMIT :limit")
+    List<ExpenseDTO> findFeedPageAfter(@Param("groupId") Long groupId,
+                                    @Param("cursorDate") LocalDateTime cursorDate,
+                                    @Param("cursorId") Long cursorId,
+                                    @Param("limit") int limit);
+    
+    /**
+     * Read model of the given expenses, used to hydrate a page of search hits
+     * @param ids the expense IDs
+     * @return list of expense DTOs in no particular order
+     */
+    @Query(EXPENSE_DTO_SELECT + "WHERE e.id IN :ids")
+    List<ExpenseDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Load the searchable columns of every expense in a group
+     * @param groupId the group ID
+     * @return list of search rows
+     */
+    @Query("SELECT e.id AS id, e.description AS description, e.notes AS notes, e.expenseDate AS expenseDate " +
+           "FROM Expense e WHERE e.group.id = :groupId")
+    List<ExpenseSearchRow> findSearchRowsByGroupId(@Param("groupId") Long groupId);
+    
     /**
      * Find all expenses paid by a specific user
      * @param userId the user ID
@@ -35,6 +97,14 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     List<Expense> findByPaidByIdOrderByExpenseDateDesc(Long userId);
     
+    /**
+     * Read model of the expenses paid by a user, newest first
+     * @param userId the user ID
+     * @return list of expense DTOs
+     */
+    @Query(EXPENSE_DTO_SELECT + "WHERE p.id = :userId AND g.deletedAt IS NULL ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseDTO> findDTOsByPaidById(@Param("userId") Long userId);
+    
     /**
      * Find expenses in a group paid by a specific user
      * @param groupId the group ID
@@ -79,6 +149,23 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
      */
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.group.id = :groupId AND e.paidBy.id = :userId")
     BigDecimal getTotalAmountPaidByUserInGroup(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    /**
+     * Calculate total amount paid by every payer in a group in a single query
+     * @param groupId the group ID
+     * @return one row per payer with the total amount paid
+     */
+    @Query("SELECT e.paidBy.id AS userId, SUM(e.amount) AS total FROM Expense e WHERE e.group.id = :groupId GROUP BY e.paidBy.id")
+    List<UserAmountTotal> getTotalAmountPaidPerUserInGroup(@Param("groupId") Long groupId);
+    
+    /**
+     * Count and sum the expenses a user paid, per group
+     * @param userId the user ID
+     * @return one row per group the user paid in
+     */
+    @Query("SELECT e.group.id AS groupId, COUNT(e) AS expenseCount, SUM(e.amount) AS totalAmount " +
+           "FROM Expense e WHERE e.paidBy.id = :userId GROUP BY e.group.id")
+    List<GroupExpenseTotal> getExpenseTotalsPaidByUser(@Param("userId") Long userId);
     
     /**
      * Count expenses in a group
@@ -104,8 +191,29 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findRecentExpensesByGroupId(@Param("groupId") Long groupId, @Param("limit") int limit);
     
     /**
-     * Delete all expenses in a group
+     * Find the IDs of the next expenses of a group to purge
+     * @param groupId the group ID
+     * @param limit the maximum number of IDs to return
+     * @return list of expense IDs
+     */
+    @Query("SELECT e.id FROM Expense e WHERE e.group.id = :groupId ORDER BY e.id LIMIT :limit")
+    List<Long> findIdsByGroupId(@Param("groupId") Long groupId, @Param("limit") int limit);
+    
+    /**
+     * Delete all expenses in a group with one bulk statement (their splits must be deleted first)
      * @param groupId the group ID
+     * @return number of deleted expenses
+     */
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete the given expenses with one bulk statement (their splits must be deleted first)
+     * @param ids the expense IDs
+     * @return number of deleted expenses
      */
-    void deleteByGroupId(Long groupId);
+    @Modifying
+    @Query("DELETE FROM Expense e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
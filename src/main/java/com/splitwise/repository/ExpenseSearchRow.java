@@ -0,0 +1,17 @@
+package com.splitwise.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the expense columns fed into the in-memory search index
+ */
+public interface ExpenseSearchRow {
+
+    Long getId();
+
+    String getDescription();
+
+    String getNotes();
+
+    LocalDateTime getExpenseDate();
+}
@@ -1,17 +1,70 @@
 package com.splitwise.repository;
 
+import com.splitwise.dto.ExpenseSplitDTO;
 import com.splitwise.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long> {
     
+    /**
+     * Select clause of the ExpenseSplitDTO read model: scalar columns only, names via joins
+     */
+    String SPLIT_DTO_SELECT = "SELECT new com.splitwise.dto.ExpenseSplitDTO(es.id, es.amount, es.isSettled, es.settledAt, es.createdAt, " +
+            "e.id, e.description, e.expenseDate, g.id, g.name, o.id, o.name, p.id, p.name) " +
+            "FROM ExpenseSplit es JOIN es.expense e JOIN e.group g JOIN es.owedBy o JOIN e.paidBy p ";
+    
+    /**
+     * Read model of the splits of an expense
+     * @param expenseId the expense ID
+     * @return list of split DTOs
+     */
+    @Query(SPLIT_DTO_SELECT + "WHERE e.id = :expenseId ORDER BY es.id")
+    List<ExpenseSplitDTO> findDTOsByExpenseId(@Param("expenseId") Long expenseId);
+    
+    /**
+     * Read model of the splits of several expenses, loaded with one IN query
+     * @param expenseIds the expense IDs
+     * @return list of split DTOs ordered by expense and split ID
+     */
+    @Query(SPLIT_DTO_SELECT + "WHERE e.id IN :expenseIds ORDER BY e.id, es.id")
+    List<ExpenseSplitDTO> findDTOsByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+    
+    /**
+     * Read model of the splits owed by a user, newest expense first
+     * @param userId the user ID
+     * @return list of split DTOs
+     */
+    @Query(SPLIT_DTO_SELECT + "WHERE o.id = :userId AND g.deletedAt IS NULL ORDER BY e.expenseDate DESC, es.id")
+    List<ExpenseSplitDTO> findDTOsByOwedById(@Param("userId") Long userId);
+    
+    /**
+     * Read model of the unsettled splits owed by a user, newest expense first
+     * @param userId the user ID
+     * @return list of split DTOs
+     */
+    @Query(SPLIT_DTO_SELECT + "WHERE o.id = :userId AND es.isSettled = false AND g.deletedAt IS NULL " +
+           "ORDER BY e.expenseDate DESC, es.id")
+    List<ExpenseSplitDTO> findUnsettledDTOsByOwedById(@Param("userId") Long userId);
+    
+    /**
+     * Read model of the unsettled splits owed by a user in a group, newest expense first
+     * @param groupId the group ID
+     * @param userId the user ID
+     * @return list of split DTOs
+     */
+    @Query(SPLIT_DTO_SELECT + "WHERE g.id = :groupId AND o.id = :userId AND es.isSettled = false ORDER BY e.expenseDate DESC, es.id")
+    List<ExpenseSplitDTO> findUnsettledDTOsByGroupIdAndOwedById(@Param("groupId") Long groupId, @Param("userId") Long userId);
+    
     /**
      * Find all splits for a specific expense
      * @param expenseId the expense ID
@@ -66,13 +119,22 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
      */
     @Query("SELECT COALESCE(SUM(es.amount), 0) FROM ExpenseSplit es WHERE es.expense.group.id = :groupId AND es.owedBy.id = :userId AND es.isSettled = false")
     BigDecimal getTotalAmountOwedByUserInGroup(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    /**
+     * Calculate total unsettled amount owed by every user in a group in a single query
+     * @param groupId the group ID
+     * @return one row per user with the total amount owed
+     */
+    @Query("SELECT es.owedBy.id AS userId, SUM(es.amount) AS total FROM ExpenseSplit es WHERE es.expense.group.id = :groupId AND es.isSettled = false GROUP BY es.owedBy.id")
+    List<UserAmountTotal> getTotalAmountOwedPerUserInGroup(@Param("groupId") Long groupId);
     
     /**
      * Calculate total amount owed by a user across all groups
      * @param userId the user ID
      * @return total amount owed
      */
-    @Query("SELECT COALESCE(SUM(es.amount), 0) FROM ExpenseSplit es WHERE es.owedBy.id = :userId AND es.isSettled = false")
+    @Query("SELECT COALESCE(SUM(es.amount), 0) FROM ExpenseSplit es " +
+           "WHERE es.owedBy.id = :userId AND es.isSettled = false AND es.expense.group.deletedAt IS NULL")
     BigDecimal getTotalAmountOwedByUser(@Param("userId") Long userId);
     
     /**
@@ -89,7 +151,9 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
      * @param userId the user ID
      * @return number of unsettled splits
      */
-    long countByOwedByIdAndIsSettledFalse(Long userId);
+    @Query("SELECT COUNT(es) FROM ExpenseSplit es " +
+           "WHERE es.owedBy.id = :userId AND es.isSettled = false AND es.expense.group.deletedAt IS NULL")
+    long countByOwedByIdAndIsSettledFalse(@Param("userId") Long userId);
     
     /**
      * Count unsettled splits in a group owed by a user
@@ -116,6 +180,66 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     @Query("SELECT es FROM ExpenseSplit es WHERE es.expense.group.id = :groupId AND es.isSettled = false")
     List<ExpenseSplit> findUnsettledByGroupId(@Param("groupId") Long groupId);
     
+    /**
+     * Count and sum, per group, the unsettled splits owed by one user on expenses paid by another
+     * @param fromUserId the user who owes
+     * @param toUserId the user who paid
+     * @return one row per group with unsettled splits between the two users
+     */
+    @Query("SELECT e.group.id AS groupId, COUNT(es) AS splitCount, SUM(es.amount) AS total " +
+           "FROM ExpenseSplit es JOIN es.expense e " +
+           "WHERE es.owedBy.id = :fromUserId AND e.paidBy.id = :toUserId AND es.isSettled = false " +
+           "AND e.group.deletedAt IS NULL GROUP BY e.group.id")
+    List<GroupSettlementTotal> getUnsettledTotalsBetweenUsers(@Param("fromUserId") Long fromUserId,
+                                                             @Param("toUserId") Long toUserId);
+    
+    /**
+     * Count and sum the unsettled splits owed by one user on expenses paid by another in a group
+     * @param groupId the group ID
+     * @param fromUserId the user who owes
+     * @param toUserId the user who paid
+     * @return at most one row, for the group
+     */
+    @Query("SELECT e.group.id AS groupId, COUNT(es) AS splitCount, SUM(es.amount) AS total " +
+           "FROM ExpenseSplit es JOIN es.expense e " +
+           "WHERE e.group.id = :groupId AND es.owedBy.id = :fromUserId AND e.paidBy.id = :toUserId AND es.isSettled = false " +
+           "GROUP BY e.group.id")
+    List<GroupSettlementTotal> getUnsettledTotalsBetweenUsersInGroup(@Param("groupId") Long groupId,
+                                                                    @Param("fromUserId") Long fromUserId,
+                                                                    @Param("toUserId") Long toUserId);
+    
+    /**
+     * Settle every unsettled split owed by one user on expenses paid by another with one bulk statement
+     * @param fromUserId the user who owes
+     * @param toUserId the user who paid
+     * @param settledAt the settlement time
+     * @return number of settled splits
+     */
+    @Modifying
+    @Query("UPDATE ExpenseSplit es SET es.isSettled = true, es.settledAt = :settledAt, es.updatedAt = :settledAt " +
+           "WHERE es.owedBy.id = :fromUserId AND es.isSettled = false " +
+           "AND es.expense.id IN (SELECT e.id FROM Expense e WHERE e.paidBy.id = :toUserId AND e.group.deletedAt IS NULL)")
+    int settleAllBetweenUsers(@Param("fromUserId") Long fromUserId,
+                              @Param("toUserId") Long toUserId,
+                              @Param("settledAt") LocalDateTime settledAt);
+    
+    /**
+     * Settle every unsettled split owed by one user on expenses paid by another in a group with one bulk statement
+     * @param groupId the group ID
+     * @param fromUserId the user who owes
+     * @param toUserId the user who paid
+     * @param settledAt the settlement time
+     * @return number of settled splits
+     */
+    @Modifying
+    @Query("UPDATE ExpenseSplit es SET es.isSettled = true, es.settledAt = :settledAt, es.updatedAt = :settledAt " +
+           "WHERE es.owedBy.id = :fromUserId AND es.isSettled = false " +
+           "AND es.expense.id IN (SELECT e.id FROM Expense e WHERE e.group.id = :groupId AND e.paidBy.id = :toUserId)")
+    int settleAllBetweenUsersInGroup(@Param("groupId") Long groupId,
+                                     @Param("fromUserId") Long fromUserId,
+                                     @Param("toUserId") Long toUserId,
+                                     @Param("settledAt") LocalDateTime settledAt);
+    
     /**
      * Delete all splits for a specific expense
      * @param expenseId the expense ID
@@ -123,11 +247,22 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long
     void deleteByExpenseId(Long expenseId);
     
     /**
-     * Delete all splits for expenses in a group
+     * Delete all splits for expenses in a group with one bulk statement
      * @param groupId the group ID
+     * @return number of deleted splits
+     */
+    @Modifying
+    @Query("DELETE FROM ExpenseSplit es WHERE es.expense.id IN (SELECT e.id FROM Expense e WHERE e.group.id = :groupId)")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete all splits of the given expenses with one bulk statement
+     * @param expenseIds the expense IDs
+     * @return number of deleted splits
      */
-    @Query("DELETE FROM ExpenseSplit es WHERE es.expense.group.id = :groupId")
-    void deleteByGroupId(@Param("groupId") Long groupId);
+    @Modifying
+    @Query("DELETE FROM ExpenseSplit es WHERE es.expense.id IN :expenseIds")
+    int deleteByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
 
     /**
      * Delete all splits owed by a specific user
@@ -0,0 +1,79 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.GroupBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, GroupBalance.Key>, GroupBalanceRepositoryCustom {
+    
+    /**
+     * Find all ledger rows of a group
+     * @param groupId the group ID
+     * @return list of ledger rows, one per user that has paid or owes in the group
+     */
+    List<GroupBalance> findByGroupId(Long groupId);
+    
+    /**
+     * Atomically add paid/owed deltas to a ledger row, creating it if missing
+     * @param groupId the group ID
+     * @param userId the user ID
+     * @param paidDelta amount to add to total paid (may be negative)
+     * @param owedDelta amount to add to total owed (may be negative)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at) " +
+                   "VALUES (:groupId, :userId, :paidDelta, :owedDelta, :paidDelta - :owedDelta, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE total_paid = total_paid + :paidDelta, " +
+                   "total_owed = total_owed + :owedDelta, " +
+                   "net_balance = net_balance + :paidDelta - :owedDelta, " +
+                   "updated_at = NOW()", nativeQuery = true)
+    void applyDelta(@Param("groupId") Long groupId, @Param("userId") Long userId,
+                    @Param("paidDelta") BigDecimal paidDelta, @Param("owedDelta") BigDecimal owedDelta);
+    
+    /**
+     * Recompute paid totals of a group from the expenses table.
+     * Must run after {@link #deleteByGroupId(Long)} and before {@link #rebuildOwedForGroup(Long)}.
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at) " +
+                   "SELECT e.group_id, e.paid_by, SUM(e.amount), 0, SUM(e.amount), NOW() " +
+                   "FROM expenses e WHERE e.group_id = :groupId GROUP BY e.group_id, e.paid_by", nativeQuery = true)
+    void rebuildPaidForGroup(@Param("groupId") Long groupId);
+    
+    /**
+     * Recompute unsettled owed totals of a group from the expense_splits table
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at) " +
+                   "SELECT e.group_id, es.owed_by, 0, SUM(es.amount), -SUM(es.amount), NOW() " +
+                   "FROM expense_splits es JOIN expenses e ON e.id = es.expense_id " +
+                   "WHERE e.group_id = :groupId AND es.is_settled = false GROUP BY e.group_id, es.owed_by " +
+                   "ON DUPLICATE KEY UPDATE total_owed = VALUES(total_owed), " +
+                   "net_balance = total_paid - VALUES(total_owed)", nativeQuery = true)
+    void rebuildOwedForGroup(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete all ledger rows of a group
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query("DELETE FROM GroupBalance gb WHERE gb.groupId = :groupId")
+    void deleteByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete all ledger rows of a user
+     * @param userId the user ID
+     */
+    @Modifying
+    @Query("DELETE FROM GroupBalance gb WHERE gb.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
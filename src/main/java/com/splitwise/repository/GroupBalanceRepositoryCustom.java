@@ -0,0 +1,19 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.GroupBalance;
+
+import java.util.Collection;
+
+/**
+ * Ledger writes that Spring Data cannot derive: many (group, user) deltas in one statement
+ */
+public interface GroupBalanceRepositoryCustom {
+
+    /**
+     * Atomically add paid/owed deltas to many ledger rows, creating missing rows, with one multi-row
+     * upsert per {@value GroupBalanceRepositoryImpl#MAX_ROWS_PER_STATEMENT} rows
+     * @param deltas one row per distinct (group, user); totalPaid and totalOwed hold the amounts to add
+     *               (may be negative), netBalance is ignored
+     */
+    void applyDeltas(Collection<GroupBalance> deltas);
+}
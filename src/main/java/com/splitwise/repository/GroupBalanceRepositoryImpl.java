@@ -0,0 +1,56 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.GroupBalance;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+class GroupBalanceRepositoryImpl implements GroupBalanceRepositoryCustom {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final int PARAMETERS_PER_ROW = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void applyDeltas(Collection<GroupBalance> deltas) {
+        List<GroupBalance> rows = new ArrayList<>(deltas);
+        // Key order keeps the row lock order stable across concurrent writers
+        rows.sort(Comparator.comparing(GroupBalance::getGroupId).thenComparing(GroupBalance::getUserId));
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<GroupBalance> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at) VALUES ");
+            for (int i = 0; i < chunk.size(); i++) {
+                int p = i * PARAMETERS_PER_ROW;
+                sql.append(i == 0 ? "(" : ", (");
+                for (int column = 1; column <= PARAMETERS_PER_ROW; column++) {
+                    sql.append('?').append(p + column).append(", ");
+                }
+                sql.append("NOW())");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE total_paid = total_paid + VALUES(total_paid), ")
+               .append("total_owed = total_owed + VALUES(total_owed), ")
+               .append("net_balance = net_balance + VALUES(net_balance), updated_at = NOW()");
+
+            Query query = entityManager.createNativeQuery(sql.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                GroupBalance row = chunk.get(i);
+                int p = i * PARAMETERS_PER_ROW;
+                query.setParameter(p + 1, row.getGroupId());
+                query.setParameter(p + 2, row.getUserId());
+                query.setParameter(p + 3, row.getTotalPaid());
+                query.setParameter(p + 4, row.getTotalOwed());
+                query.setParameter(p + 5, row.getTotalPaid().subtract(row.getTotalOwed()));
+            }
+            query.executeUpdate();
+        }
+    }
+}
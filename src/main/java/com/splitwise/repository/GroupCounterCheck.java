@@ -0,0 +1,23 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a group's stored counters next to the values recounted from its members and expenses
+ */
+public interface GroupCounterCheck {
+
+    Long getGroupId();
+
+    Integer getMemberCount();
+
+    Long getActualMemberCount();
+
+    Long getExpenseCount();
+
+    Long getActualExpenseCount();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getActualTotalAmount();
+}
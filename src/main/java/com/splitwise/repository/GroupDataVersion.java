@@ -0,0 +1,11 @@
+package com.splitwise.repository;
+
+/**
+ * Projection of a group's persisted data version
+ */
+public interface GroupDataVersion {
+
+    Long getGroupId();
+
+    Long getDataVersion();
+}
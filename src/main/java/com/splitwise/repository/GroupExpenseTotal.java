@@ -0,0 +1,15 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the number and total amount of a set of expenses in one group, produced by a GROUP BY query
+ */
+public interface GroupExpenseTotal {
+
+    Long getGroupId();
+
+    Long getExpenseCount();
+
+    BigDecimal getTotalAmount();
+}
@@ -2,6 +2,7 @@ package com.splitwise.repository;
 
 import com.splitwise.entity.GroupMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,6 +27,22 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
      */
     List<GroupMember> findByUserId(Long userId);
     
+    /**
+     * Find the IDs of all members of a group
+     * @param groupId the group ID
+     * @return list of user IDs
+     */
+    @Query("SELECT gm.user.id FROM GroupMember gm WHERE gm.group.id = :groupId")
+    List<Long> findUserIdsByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Find the IDs of all groups a user is a member of
+     * @param userId the user ID
+     * @return list of group IDs
+     */
+    @Query("SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id = :userId")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
+    
     /**
      * Find a specific group membership
      * @param userId the user ID
@@ -51,10 +68,23 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
     long countMembersByGroupId(@Param("groupId") Long groupId);
     
     /**
-     * Delete all memberships for a specific group
+     * Delete all memberships for a specific group with one bulk statement
+     * @param groupId the group ID
+     * @return number of deleted memberships
+     */
+    @Modifying
+    @Query("DELETE FROM GroupMember gm WHERE gm.group.id = :groupId")
+    int deleteByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete one membership with a single statement, without loading it
+     * @param userId the user ID
      * @param groupId the group ID
+     * @return number of deleted memberships (0 or 1)
      */
-    void deleteByGroupId(Long groupId);
+    @Modifying
+    @Query("DELETE FROM GroupMember gm WHERE gm.user.id = :userId AND gm.group.id = :groupId")
+    int deleteByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
     
     /**
      * Delete all memberships for a specific user
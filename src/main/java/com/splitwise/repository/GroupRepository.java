@@ -2,10 +2,14 @@ package com.splitwise.repository;
 
 import com.splitwise.entity.Group;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -34,10 +38,199 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
     @Query("SELECT g FROM Group g JOIN g.members gm WHERE gm.user.id = :userId")
     List<Group> findGroupsByUserId(@Param("userId") Long userId);
     
+    /**
+     * Get a user's paid and unsettled owed totals in every group they belong to, in one statement
+     * @param userId the user ID
+     * @return one row per group the user belongs to, ordered by group name
+     */
+    @Query("SELECT g.id AS groupId, g.name AS groupName, " +
+           "(SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.group.id = g.id AND e.paidBy.id = :userId) AS totalPaid, " +
+           "(SELECT COALESCE(SUM(es.amount), 0) FROM ExpenseSplit es " +
+           " WHERE es.expense.group.id = g.id AND es.owedBy.id = :userId AND es.isSettled = false) AS totalOwed " +
+           "FROM GroupMember gm JOIN gm.group g WHERE gm.user.id = :userId AND g.deletedAt IS NULL ORDER BY g.name")
+    List<UserGroupBalanceTotal> findBalanceTotalsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Same as {@link #findBalanceTotalsByUserId(Long)} but read from the group_balances ledger
+     * @param userId the user ID
+     * @return one row per group the user belongs to, ordered by group name
+     */
+    @Query("SELECT g.id AS groupId, g.name AS groupName, " +
+           "COALESCE(gb.totalPaid, 0) AS totalPaid, COALESCE(gb.totalOwed, 0) AS totalOwed " +
+           "FROM GroupMember gm JOIN gm.group g " +
+           "LEFT JOIN GroupBalance gb ON gb.groupId = g.id AND gb.userId = :userId " +
+           "WHERE gm.user.id = :userId AND g.deletedAt IS NULL ORDER BY g.name")
+    List<UserGroupBalanceTotal> findLedgerBalanceTotalsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find the IDs of all groups
+     * @return list of group IDs
+     */
+    @Query("SELECT g.id FROM Group g")
+    List<Long> findAllIds();
+    
+    /**
+     * Get the persisted data version of a group (primary-key lookup)
+     * @param groupId the group ID
+     * @return the version, or null if the group does not exist
+     */
+    @Query("SELECT g.dataVersion FROM Group g WHERE g.id = :groupId")
+    Long findDataVersionById(@Param("groupId") Long groupId);
+    
+    /**
+     * Get the persisted data versions of several groups with one statement
+     * @param groupIds the group IDs
+     * @return one row per existing group
+     */
+    @Query("SELECT g.id AS groupId, g.dataVersion AS dataVersion FROM Group g WHERE g.id IN :groupIds")
+    List<GroupDataVersion> findDataVersionsByIdIn(@Param("groupIds") Collection<Long> groupIds);
+    
+    /**
+     * Increment the data version of several groups; the row locks are held until the transaction ends
+     * @param groupIds the group IDs
+     * @return number of groups updated
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.dataVersion = g.dataVersion + 1 WHERE g.id IN :groupIds")
+    int incrementDataVersions(@Param("groupIds") Collection<Long> groupIds);
+    
+    /**
+     * Get the maintained member count of a group (primary-key lookup)
+     * @param groupId the group ID
+     * @return the member count, or null if the group does not exist
+     */
+    @Query("SELECT g.memberCount FROM Group g WHERE g.id = :groupId")
+    Integer findMemberCountById(@Param("groupId") Long groupId);
+    
+    /**
+     * Get the maintained total expense amount of a group (primary-key lookup)
+     * @param groupId the group ID
+     * @return the total amount, or null if the group does not exist
+     */
+    @Query("SELECT g.totalAmount FROM Group g WHERE g.id = :groupId")
+    BigDecimal findTotalAmountById(@Param("groupId") Long groupId);
+    
+    /**
+     * Add to the member count of a group and record the activity; the row lock is held until the transaction ends
+     * @param groupId the group ID
+     * @param delta the change in members
+     * @param activityAt the time of the change
+     * @return number of groups updated
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.memberCount = g.memberCount + :delta, g.lastActivityAt = :activityAt WHERE g.id = :groupId")
+    int adjustMemberCount(@Param("groupId") Long groupId, @Param("delta") int delta,
+                          @Param("activityAt") LocalDateTime activityAt);
+    
+    /**
+     * Decrement the member count of several groups (a member was deleted from all of them)
+     * @param groupIds the group IDs
+     * @return number of groups updated
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.memberCount = g.memberCount - 1 WHERE g.id IN :groupIds")
+    int decrementMemberCounts(@Param("groupIds") Collection<Long> groupIds);
+    
+    /**
+     * Add to the expense count and total amount of a group; the row lock is held until the transaction ends
+     * @param groupId the group ID
+     * @param countDelta the change in expenses
+     * @param amountDelta the change in total amount
+     * @param activityAt the time of the change
+     * @return number of groups updated
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.expenseCount = g.expenseCount + :countDelta, " +
+           "g.totalAmount = g.totalAmount + :amountDelta, " +
+           "g.lastActivityAt = :activityAt WHERE g.id = :groupId")
+    int adjustExpenseCounters(@Param("groupId") Long groupId, @Param("countDelta") long countDelta,
+                              @Param("amountDelta") BigDecimal amountDelta,
+                              @Param("activityAt") LocalDateTime activityAt);
+    
+    /**
+     * Get the stored counters of several groups next to their recounted values
+     * @param groupIds the group IDs
+     * @return one row per existing group
+     */
+    @Query("SELECT g.id AS groupId, " +
+           "g.memberCount AS memberCount, " +
+           "(SELECT COUNT(gm) FROM GroupMember gm WHERE gm.group.id = g.id) AS actualMemberCount, " +
+           "g.expenseCount AS expenseCount, " +
+           "(SELECT COUNT(e) FROM Expense e WHERE e.group.id = g.id) AS actualExpenseCount, " +
+           "g.totalAmount AS totalAmount, " +
+           "(SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.group.id = g.id) AS actualTotalAmount " +
+           "FROM Group g WHERE g.id IN :groupIds")
+    List<GroupCounterCheck> findCounterChecks(@Param("groupIds") Collection<Long> groupIds);
+    
+    /**
+     * Lock a group row until the transaction ends, so no counter delta can be applied meanwhile
+     * @param groupId the group ID
+     * @return the group ID, or null if the group does not exist
+     */
+    @Query(value = "SELECT id FROM `groups` WHERE id = :groupId FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("groupId") Long groupId);
+    
+    /**
+     * Recount the member count, expense count and total amount of a group from its rows
+     * @param groupId the group ID
+     * @return number of groups updated
+     */
+    @Modifying
+    @Query(value = "UPDATE `groups` g SET " +
+                   "g.member_count = (SELECT COUNT(*) FROM group_members gm WHERE gm.group_id = g.id), " +
+                   "g.expense_count = (SELECT COUNT(*) FROM expenses e WHERE e.group_id = g.id), " +
+                   "g.total_amount = (SELECT COALESCE(SUM(e.amount), 0) FROM expenses e WHERE e.group_id = g.id) " +
+                   "WHERE g.id = :groupId", nativeQuery = true)
+    int recountCounters(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete a group row with one bulk statement (its members and expenses must be deleted first)
+     * @param groupId the group ID
+     * @return number of deleted groups
+     */
+    @Modifying
+    @Query("DELETE FROM Group g WHERE g.id = :groupId")
+    int deleteGroupById(@Param("groupId") Long groupId);
+    
+    /**
+     * Soft-delete a group; it disappears from every entity query and waits for the purge job
+     * @param groupId the group ID
+     * @param deletedAt the deletion time
+     * @return number of updated groups
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.deletedAt = :deletedAt WHERE g.id = :groupId")
+    int markDeleted(@Param("groupId") Long groupId, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Find the IDs of soft-deleted groups (native, as the entity restriction hides them)
+     * @return list of group IDs
+     */
+    @Query(value = "SELECT id FROM `groups` WHERE deleted_at IS NOT NULL ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds();
+    
+    /**
+     * Remove the row of a soft-deleted group once its expenses are purged
+     * @param groupId the group ID
+     * @return number of deleted groups
+     */
+    @Modifying
+    @Query(value = "DELETE FROM `groups` WHERE id = :groupId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeletedGroup(@Param("groupId") Long groupId);
+    
     /**
      * Check if a group exists with the given name
      * @param name the group name to check
      * @return true if group exists, false otherwise
      */
     boolean existsByName(String name);
+
+    /**
+     * Get the typeahead fields of the groups a user belongs to
+     * @param userId the user ID
+     * @return one row per group, with a null email
+     */
+    @Query("SELECT g.id AS id, g.name AS name, CAST(NULL AS String) AS email FROM GroupMember gm JOIN gm.group g " +
+           "WHERE gm.user.id = :userId")
+    List<TypeaheadRow> findTypeaheadGroups(@Param("userId") Long userId);
 }
@@ -0,0 +1,15 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of the unsettled splits between two users in one group, produced by a GROUP BY query
+ */
+public interface GroupSettlementTotal {
+
+    Long getGroupId();
+
+    Long getSplitCount();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,76 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.MonthlySpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MonthlySpendRepository extends JpaRepository<MonthlySpend, MonthlySpend.Key>, MonthlySpendRepositoryCustom {
+    
+    /**
+     * Get the rollup rows of a group within a month range, with member names
+     * @param groupId the group ID
+     * @param fromMonth the first month (first day of the month), inclusive
+     * @param toMonth the last month (first day of the month), inclusive
+     * @return rows ordered by month, then member name
+     */
+    @Query("SELECT ms.monthStart AS monthStart, ms.userId AS userId, u.name AS userName, " +
+           "ms.paidAmount AS paidAmount, ms.paidCount AS paidCount, " +
+           "ms.owedAmount AS owedAmount, ms.owedCount AS owedCount " +
+           "FROM MonthlySpend ms LEFT JOIN User u ON u.id = ms.userId " +
+           "WHERE ms.groupId = :groupId AND ms.monthStart BETWEEN :fromMonth AND :toMonth " +
+           "ORDER BY ms.monthStart, u.name")
+    List<MonthlySpendRow> findByGroupIdAndMonthRange(@Param("groupId") Long groupId,
+                                                     @Param("fromMonth") LocalDate fromMonth,
+                                                     @Param("toMonth") LocalDate toMonth);
+    
+    /**
+     * Recompute the paid side of a group's rollups from the expenses table.
+     * Must run after {@link #deleteByGroupId(Long)} and before {@link #rebuildOwedForGroup(Long)}.
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_spend (group_id, user_id, month_start, paid_amount, paid_count, owed_amount, owed_count, updated_at) " +
+                   "SELECT e.group_id, e.paid_by, CAST(TIMESTAMPADD(DAY, 1 - DAYOFMONTH(e.expense_date), e.expense_date) AS DATE), " +
+                   "SUM(e.amount), COUNT(*), 0, 0, NOW() " +
+                   "FROM expenses e WHERE e.group_id = :groupId " +
+                   "GROUP BY e.group_id, e.paid_by, CAST(TIMESTAMPADD(DAY, 1 - DAYOFMONTH(e.expense_date), e.expense_date) AS DATE)",
+           nativeQuery = true)
+    void rebuildPaidForGroup(@Param("groupId") Long groupId);
+    
+    /**
+     * Recompute the owed side of a group's rollups from the expense_splits table
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_spend (group_id, user_id, month_start, paid_amount, paid_count, owed_amount, owed_count, updated_at) " +
+                   "SELECT e.group_id, es.owed_by, CAST(TIMESTAMPADD(DAY, 1 - DAYOFMONTH(e.expense_date), e.expense_date) AS DATE), " +
+                   "0, 0, SUM(es.amount), COUNT(*), NOW() " +
+                   "FROM expense_splits es JOIN expenses e ON e.id = es.expense_id WHERE e.group_id = :groupId " +
+                   "GROUP BY e.group_id, es.owed_by, CAST(TIMESTAMPADD(DAY, 1 - DAYOFMONTH(e.expense_date), e.expense_date) AS DATE) " +
+                   "ON DUPLICATE KEY UPDATE owed_amount = VALUES(owed_amount), owed_count = VALUES(owed_count)",
+           nativeQuery = true)
+    void rebuildOwedForGroup(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete all rollup rows of a group
+     * @param groupId the group ID
+     */
+    @Modifying
+    @Query("DELETE FROM MonthlySpend ms WHERE ms.groupId = :groupId")
+    void deleteByGroupId(@Param("groupId") Long groupId);
+    
+    /**
+     * Delete all rollup rows of a user
+     * @param userId the user ID
+     */
+    @Modifying
+    @Query("DELETE FROM MonthlySpend ms WHERE ms.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
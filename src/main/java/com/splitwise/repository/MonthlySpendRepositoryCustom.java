@@ -0,0 +1,19 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.MonthlySpend;
+
+import java.util.Collection;
+
+/**
+ * Rollup writes that Spring Data cannot derive: many (group, member, month) deltas in one statement
+ */
+public interface MonthlySpendRepositoryCustom {
+
+    /**
+     * Atomically add deltas to many rollup rows, creating missing rows, with one multi-row upsert per
+     * {@value MonthlySpendRepositoryImpl#MAX_ROWS_PER_STATEMENT} rows
+     * @param deltas one row per distinct (group, member, month); amounts and counts hold the values to add
+     *               (may be negative)
+     */
+    void applyDeltas(Collection<MonthlySpend> deltas);
+}
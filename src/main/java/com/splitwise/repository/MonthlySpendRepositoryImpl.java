@@ -0,0 +1,60 @@
+package com.splitwise.repository;
+
+import com.splitwise.entity.MonthlySpend;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+class MonthlySpendRepositoryImpl implements MonthlySpendRepositoryCustom {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final int PARAMETERS_PER_ROW = 7;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void applyDeltas(Collection<MonthlySpend> deltas) {
+        List<MonthlySpend> rows = new ArrayList<>(deltas);
+        // Key order keeps the row lock order stable across concurrent writers
+        rows.sort(Comparator.comparing(MonthlySpend::getGroupId).thenComparing(MonthlySpend::getUserId)
+                .thenComparing(MonthlySpend::getMonthStart));
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<MonthlySpend> chunk = rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder("INSERT INTO monthly_spend (group_id, user_id, month_start, "
+                    + "paid_amount, paid_count, owed_amount, owed_count, updated_at) VALUES ");
+            for (int i = 0; i < chunk.size(); i++) {
+                int p = i * PARAMETERS_PER_ROW;
+                sql.append(i == 0 ? "(" : ", (");
+                for (int column = 1; column <= PARAMETERS_PER_ROW; column++) {
+                    sql.append('?').append(p + column).append(", ");
+                }
+                sql.append("NOW())");
+            }
+            sql.append(" ON DUPLICATE KEY UPDATE paid_amount = paid_amount + VALUES(paid_amount), ")
+               .append("paid_count = paid_count + VALUES(paid_count), ")
+               .append("owed_amount = owed_amount + VALUES(owed_amount), ")
+               .append("owed_count = owed_count + VALUES(owed_count), updated_at = NOW()");
+
+            Query query = entityManager.createNativeQuery(sql.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                MonthlySpend row = chunk.get(i);
+                int p = i * PARAMETERS_PER_ROW;
+                query.setParameter(p + 1, row.getGroupId());
+                query.setParameter(p + 2, row.getUserId());
+                query.setParameter(p + 3, row.getMonthStart());
+                query.setParameter(p + 4, row.getPaidAmount());
+                query.setParameter(p + 5, row.getPaidCount());
+                query.setParameter(p + 6, row.getOwedAmount());
+                query.setParameter(p + 7, row.getOwedCount());
+            }
+            query.executeUpdate();
+        }
+    }
+}
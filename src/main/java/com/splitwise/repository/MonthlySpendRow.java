@@ -0,0 +1,24 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of a monthly spend rollup row with the member's name
+ */
+public interface MonthlySpendRow {
+
+    LocalDate getMonthStart();
+
+    Long getUserId();
+
+    String getUserName();
+
+    BigDecimal getPaidAmount();
+
+    Long getPaidCount();
+
+    BigDecimal getOwedAmount();
+
+    Long getOwedCount();
+}
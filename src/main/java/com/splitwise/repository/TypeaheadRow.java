@@ -0,0 +1,13 @@
+package com.splitwise.repository;
+
+/**
+ * Projection of a user or group as shown in typeahead suggestions; email is null for groups
+ */
+public interface TypeaheadRow {
+
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+}
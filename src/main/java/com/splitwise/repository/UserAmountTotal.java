@@ -0,0 +1,13 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a per-user SUM produced by a GROUP BY query
+ */
+public interface UserAmountTotal {
+
+    Long getUserId();
+
+    BigDecimal getTotal();
+}
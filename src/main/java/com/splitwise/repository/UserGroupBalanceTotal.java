@@ -0,0 +1,17 @@
+package com.splitwise.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a user's paid and unsettled owed totals in one of their groups
+ */
+public interface UserGroupBalanceTotal {
+
+    Long getGroupId();
+
+    String getGroupName();
+
+    BigDecimal getTotalPaid();
+
+    BigDecimal getTotalOwed();
+}
@@ -81,4 +81,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE u.createdBy.id = :createdById OR u.id = :createdById ORDER BY u.name")
     List<User> findByCreatedByIdIncludingSelf(@Param("createdById") Long createdById);
+
+    /**
+     * Get the typeahead fields of every user the given user may pick: users they created, users
+     * sharing a group with them, and themselves
+     * @param userId the user ID
+     * @return one row per visible user
+     */
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email FROM User u " +
+           "WHERE u.id = :userId OR u.createdBy.id = :userId " +
+           "OR u.id IN (SELECT gm1.user.id FROM GroupMember gm1 " +
+           "            WHERE gm1.group.id IN (SELECT gm2.group.id FROM GroupMember gm2 WHERE gm2.user.id = :userId))")
+    List<TypeaheadRow> findTypeaheadContacts(@Param("userId") Long userId);
 }
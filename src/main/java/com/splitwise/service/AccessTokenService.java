@@ -0,0 +1,308 @@
+package com.splitwise.service;
+
+import com.splitwise.config.AuthMode;
+import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues and verifies stateless access tokens for splitwise.auth.mode=TOKEN.
+ * A token is {@code <key id>.<payload>.<signature>}: the payload carries the user's ID, row version, email and
+ * name plus issue/expiry times and a random token ID, all base64url-encoded and signed with HMAC-SHA256.
+ * Verification needs no session or database access. Several keys can be configured for rotation:
+ * new tokens are signed with the active key and tokens signed with any configured key are accepted.
+ * Logged-out tokens go on a small in-memory revocation list until they expire; the list is per node,
+ * which the short token lifetime bounds.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int TOKEN_ID_BYTES = 12;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SigningKey> keys;
+    private final SigningKey activeKey;
+    private final long ttlSeconds;
+    private final int maxRevoked;
+    private final SecureRandom random = new SecureRandom();
+
+    // Token ID -> expiry (epoch seconds) of logged-out tokens that have not expired yet
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong revocations = new AtomicLong();
+    private final AtomicLong verifyNanos = new AtomicLong();
+
+    /**
+     * @param authMode the configured authentication mode; TOKEN requires keySpec
+     * @param keySpec comma-separated {@code keyId:base64Secret} pairs; secrets of at least 32 bytes.
+     *                Outside TOKEN mode it may be empty: a random key is generated, so tokens only verify
+     *                on this node until it restarts
+     * @param activeKeyId the key new tokens are signed with, or empty for the first configured key
+     * @param ttlSeconds token lifetime
+     * @param maxRevoked how many unexpired revoked tokens are remembered
+     */
+    @Autowired
+    public AccessTokenService(@Value("${splitwise.auth.mode:SESSION}") AuthMode authMode,
+                              @Value("${splitwise.auth.token.keys:}") String keySpec,
+                              @Value("${splitwise.auth.token.active-key-id:}") String activeKeyId,
+                              @Value("${splitwise.auth.token.ttl-seconds:900}") long ttlSeconds,
+                              @Value("${splitwise.auth.token.max-revoked:10000}") int maxRevoked) {
+        Map<String, SigningKey> parsed = new LinkedHashMap<>();
+        for (String entry : keySpec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("splitwise.auth.token.keys entries must be keyId:base64Secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            if (keyId.contains(".")) {
+                throw new IllegalArgumentException("Token key ID must not contain '.': " + keyId);
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Token key " + keyId + " must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            parsed.put(keyId, new SigningKey(keyId, secret));
+        }
+        if (parsed.isEmpty()) {
+            if (authMode == AuthMode.TOKEN) {
+                // A per-process key would make every node reject the others' tokens and log everyone out on restart
+                throw new IllegalStateException("splitwise.auth.mode=TOKEN requires splitwise.auth.token.keys");
+            }
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            random.nextBytes(secret);
+            parsed.put("local", new SigningKey("local", secret));
+            logger.info("No splitwise.auth.token.keys configured; access tokens are signed with a per-process random key");
+        }
+        this.keys = Collections.unmodifiableMap(parsed);
+        this.activeKey = activeKeyId.isBlank() ? parsed.values().iterator().next() : parsed.get(activeKeyId);
+        if (this.activeKey == null) {
+            throw new IllegalArgumentException("splitwise.auth.token.active-key-id " + activeKeyId + " is not a configured key");
+        }
+        this.ttlSeconds = ttlSeconds;
+        this.maxRevoked = Math.max(1, maxRevoked);
+    }
+
+    /**
+     * Issue an access token for a user, signed with the active key
+     * @param user the authenticated user
+     * @return the token
+     */
+    public String issue(User user) {
+        long issuedAt = System.currentTimeMillis() / 1000;
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenId);
+        // Email and name go last: an email cannot hold a newline and the name is the final field, so it may hold anything
+        String payload = user.getId() + "\n" + SessionPrincipal.versionOf(user) + "\n" + issuedAt + "\n"
+                + (issuedAt + ttlSeconds) + "\n" + ENCODER.encodeToString(tokenId) + "\n"
+                + user.getEmail() + "\n" + user.getName();
+        String signed = activeKey.id + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        issued.incrementAndGet();
+        return signed + "." + ENCODER.encodeToString(activeKey.sign(signed));
+    }
+
+    /**
+     * Verify a token's signature, expiry and revocation
+     * @param token the token
+     * @return the principal it was issued for, or null if it is invalid, expired or revoked
+     */
+    public SessionPrincipal verify(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parse(token);
+            if (claims == null || revoked.containsKey(claims.tokenId)) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            verified.incrementAndGet();
+            return claims.principal;
+        } finally {
+            verifyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Revoke a valid token until it expires (logout)
+     * @param token the token
+     * @return true if the token was valid and is now revoked
+     */
+    public boolean revoke(String token) {
+        Claims claims = parse(token);
+        if (claims == null) {
+            return false;
+        }
+        if (revoked.size() >= maxRevoked) {
+            pruneRevoked();
+        }
+        if (revoked.put(claims.tokenId, claims.expiresAt) == null) {
+            revocations.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Get token statistics
+     * @return a snapshot of the token counters
+     */
+    public Stats getStats() {
+        return new Stats(new ArrayList<>(keys.keySet()), activeKey.id, ttlSeconds, issued.get(), verified.get(),
+                rejected.get(), revocations.get(), revoked.size(), verifyNanos.get());
+    }
+
+    private Claims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            return null;
+        }
+        SigningKey key = keys.get(token.substring(0, first));
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(last + 1));
+            if (!MessageDigest.isEqual(signature, key.sign(token.substring(0, last)))) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8)
+                    .split("\n", 7);
+            if (fields.length != 7) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(fields[3]);
+            if (expiresAt <= System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            SessionPrincipal principal = new SessionPrincipal(
+                    Long.parseLong(fields[0]), fields[5], fields[6], Long.parseLong(fields[1]));
+            return new Claims(principal, fields[4], expiresAt);
+        } catch (IllegalArgumentException e) {
+            // Malformed base64 or number
+            return null;
+        }
+    }
+
+    private void pruneRevoked() {
+        long now = System.currentTimeMillis() / 1000;
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        if (revoked.size() >= maxRevoked) {
+            // Still full of live tokens: forget the ones closest to expiring
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(revoked.entrySet());
+            entries.sort(Map.Entry.comparingByValue());
+            for (int i = 0; i < entries.size() && revoked.size() >= maxRevoked; i++) {
+                revoked.remove(entries.get(i).getKey());
+            }
+        }
+    }
+
+    private static final class Claims {
+        final SessionPrincipal principal;
+        final String tokenId;
+        final long expiresAt;
+
+        Claims(SessionPrincipal principal, String tokenId, long expiresAt) {
+            this.principal = principal;
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class SigningKey {
+        final String id;
+        final SecretKeySpec secret;
+        // Mac instances are not thread-safe and costly to create; keep one per thread
+        final ThreadLocal<Mac> mac;
+
+        SigningKey(String id, byte[] secret) {
+            this.id = id;
+            this.secret = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(this::newMac);
+        }
+
+        byte[] sign(String data) {
+            return mac.get().doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private Mac newMac() {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(secret);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        }
+    }
+
+    public static class Stats {
+        private List<String> keyIds;
+        private String activeKeyId;
+        private long ttlSeconds;
+        private long issued;
+        private long verified;
+        private long rejected;
+        private long revocations;
+        private int revokedTracked;
+        private long verifyNanos;
+
+        public Stats(List<String> keyIds, String activeKeyId, long ttlSeconds, long issued, long verified,
+                     long rejected, long revocations, int revokedTracked, long verifyNanos) {
+            this.keyIds = keyIds;
+            this.activeKeyId = activeKeyId;
+            this.ttlSeconds = ttlSeconds;
+            this.issued = issued;
+            this.verified = verified;
+            this.rejected = rejected;
+            this.revocations = revocations;
+            this.revokedTracked = revokedTracked;
+            this.verifyNanos = verifyNanos;
+        }
+
+        public List<String> getKeyIds() { return keyIds; }
+        public String getActiveKeyId() { return activeKeyId; }
+        public long getTtlSeconds() { return ttlSeconds; }
+        public long getIssued() { return issued; }
+        public long getVerified() { return verified; }
+        public long getRejected() { return rejected; }
+        public long getRevocations() { return revocations; }
+        public int getRevokedTracked() { return revokedTracked; }
+
+        /** Mean time spent verifying one token, the per-request cost of token authentication */
+        public double getAverageVerifyMicros() {
+            long total = verified + rejected;
+            return total == 0 ? 0.0 : verifyNanos / 1000.0 / total;
+        }
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,7 +18,19 @@ public class AuthService implements UserDetailsService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -33,29 +44,64 @@ public class AuthService implements UserDetailsService {
                 .build();
     }
 
+    /**
+     * Register a user, or claim the placeholder another user created for this email
+     * @throws RuntimeException if a registered user already has this email
+     * @throws PasswordHashingRejectedException if the email has too many attempts or hashing is overloaded
+     */
     public User registerUser(String name, String email, String password, String phone) {
-        // Check if user already exists
-        if (userRepository.findByEmail(email).isPresent()) {
+        passwordHashingService.recordAttempt(email);
+
+        // Check if user already exists; placeholders created via /api/users have no password yet
+        Optional<User> existing = userRepository.findByEmail(email);
+        if (existing.isPresent() && existing.get().getPassword() != null) {
             throw new RuntimeException("User already exists with email: " + email);
         }
 
+        // Hash before touching the row, off the request thread
+        String encodedPassword = passwordHashingService.encode(password);
+
         // Create new user
-        User user = new User();
+        User user = existing.orElseGet(User::new);
         user.setName(name);
         user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(encodedPassword);
         user.setPhone(phone);
-        user.setCreatedAt(LocalDateTime.now());
+        if (user.getCreatedAt() == null) {
+            user.setCreatedAt(LocalDateTime.now());
+        }
         user.setUpdatedAt(LocalDateTime.now());
+        User saved = userRepository.save(user);
 
-        return userRepository.save(user);
+        if (existing.isPresent()) {
+            // A claimed placeholder may have been renamed; refresh the views it appears in
+            groupVersionService.bumpAll(groupMembershipIndex.getGroupIds(saved.getId()));
+            typeaheadService.userChangedAfterCommit(saved.getId());
+            currentUserCache.evictAfterCommit(saved.getId());
+        }
+        return saved;
     }
 
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    /**
+     * Count a login attempt for an email
+     * @throws PasswordHashingRejectedException if the email has too many recent attempts
+     */
+    public void recordLoginAttempt(String email) {
+        passwordHashingService.recordAttempt(email);
+    }
+
+    /**
+     * Check a password on the hashing pool; placeholder users without a password never match
+     * @throws PasswordHashingRejectedException if hashing is overloaded
+     */
     public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        return passwordHashingService.matches(rawPassword, encodedPassword);
     }
 }
@@ -0,0 +1,22 @@
+package com.splitwise.service;
+
+/**
+ * Strategy used by {@link BalanceService} to compute per-member paid/owed totals
+ */
+public enum BalanceComputationMode {
+
+    /**
+     * One GROUP BY query for paid totals and one for owed totals, regardless of group size
+     */
+    GROUPED,
+    
+    /**
+     * Primary-key scan of the incrementally maintained group_balances ledger
+     */
+    LEDGER,
+
+    /**
+     * Two SUM queries per member (legacy behaviour)
+     */
+    PER_MEMBER
+}
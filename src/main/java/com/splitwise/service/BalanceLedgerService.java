@@ -0,0 +1,212 @@
+package com.splitwise.service;
+
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.ExpenseSplit;
+import com.splitwise.entity.GroupBalance;
+import com.splitwise.repository.GroupBalanceRepository;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.util.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the group_balances ledger with deltas applied inside the caller's transaction
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class BalanceLedgerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BalanceLedgerService.class);
+    
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final GroupRepository groupRepository;
+    private final SecurityUtil securityUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    @Autowired
+    public BalanceLedgerService(GroupBalanceRepository groupBalanceRepository,
+                               GroupRepository groupRepository,
+                               SecurityUtil securityUtil,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${splitwise.balance.ledger.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.groupRepository = groupRepository;
+        this.securityUtil = securityUtil;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+    
+    /**
+     * Record a newly created expense: the payer's paid total and every split's owed total grow
+     * @param expense the persisted expense
+     * @param splits the persisted splits of the expense
+     */
+    public void recordExpenseCreated(Expense expense, Collection<ExpenseSplit> splits) {
+        Map<Long, BigDecimal[]> deltas = new LinkedHashMap<>();
+        addDelta(deltas, expense.getPaidBy().getId(), expense.getAmount(), BigDecimal.ZERO);
+        for (ExpenseSplit split : splits) {
+            if (!split.isSettled()) {
+                addDelta(deltas, split.getOwedBy().getId(), BigDecimal.ZERO, split.getAmount());
+            }
+        }
+        applyDeltas(expense.getGroup().getId(), deltas);
+    }
+    
+    /**
+     * Record a batch of newly created expenses with one ledger upsert per (group, user)
+     * @param expenses the persisted expenses, with their splits attached
+     */
+    public void recordExpensesCreated(Collection<Expense> expenses) {
+        Map<Long, Map<Long, BigDecimal[]>> deltasByGroup = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            Map<Long, BigDecimal[]> deltas = deltasByGroup.computeIfAbsent(expense.getGroup().getId(), id -> new LinkedHashMap<>());
+            addDelta(deltas, expense.getPaidBy().getId(), expense.getAmount(), BigDecimal.ZERO);
+            for (ExpenseSplit split : expense.getSplits()) {
+                if (!split.isSettled()) {
+                    addDelta(deltas, split.getOwedBy().getId(), BigDecimal.ZERO, split.getAmount());
+                }
+            }
+        }
+        List<GroupBalance> rows = new ArrayList<>();
+        for (Map.Entry<Long, Map<Long, BigDecimal[]>> entry : deltasByGroup.entrySet()) {
+            addRows(rows, entry.getKey(), entry.getValue());
+        }
+        groupBalanceRepository.applyDeltas(rows);
+    }
+    
+    /**
+     * Reverse an expense that is about to be deleted
+     * @param expense the expense being deleted
+     * @param splits the splits of the expense
+     */
+    public void recordExpenseDeleted(Expense expense, Collection<ExpenseSplit> splits) {
+        Map<Long, BigDecimal[]> deltas = new LinkedHashMap<>();
+        addDelta(deltas, expense.getPaidBy().getId(), expense.getAmount().negate(), BigDecimal.ZERO);
+        for (ExpenseSplit split : splits) {
+            if (!split.isSettled()) {
+                addDelta(deltas, split.getOwedBy().getId(), BigDecimal.ZERO, split.getAmount().negate());
+            }
+        }
+        applyDeltas(expense.getGroup().getId(), deltas);
+    }
+    
+    /**
+     * Record a split changing from unsettled to settled (or back)
+     * @param groupId the group of the split's expense
+     * @param split the split whose settlement state changed
+     * @param settled the new settlement state
+     */
+    public void recordSettlementChanged(Long groupId, ExpenseSplit split, boolean settled) {
+        BigDecimal owedDelta = settled ? split.getAmount().negate() : split.getAmount();
+        groupBalanceRepository.applyDelta(groupId, split.getOwedBy().getId(), BigDecimal.ZERO, owedDelta);
+    }
+    
+    /**
+     * Record a bulk settle-up: the debtor's owed total in the group shrinks by the settled amount
+     * @param groupId the group ID
+     * @param userId the user whose splits were settled
+     * @param settledAmount the total amount of the settled splits
+     */
+    public void recordSettledUp(Long groupId, Long userId, BigDecimal settledAmount) {
+        groupBalanceRepository.applyDelta(groupId, userId, BigDecimal.ZERO, settledAmount.negate());
+    }
+    
+    /**
+     * Drop the ledger of a deleted group
+     * @param groupId the group ID
+     */
+    public void removeGroup(Long groupId) {
+        groupBalanceRepository.deleteByGroupId(groupId);
+    }
+    
+    /**
+     * Drop the ledger rows of a deleted user
+     * @param userId the user ID
+     */
+    public void removeUser(Long userId) {
+        groupBalanceRepository.deleteByUserId(userId);
+    }
+    
+    /**
+     * Recompute the ledger of a group from its expenses and splits
+     * @param groupId the group ID
+     * @throws IllegalArgumentException if the group does not exist
+     * @throws AccessDeniedException if the current user is neither an administrator nor a member of the group
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void rebuildGroup(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        securityUtil.checkGroupMaintenanceAllowed(groupId);
+        rebuildGroupInternal(groupId);
+    }
+    
+    /**
+     * Recompute the ledger of every group, one transaction per group
+     * @return number of groups rebuilt
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public int rebuildAll() {
+        List<Long> groupIds = transactionTemplate.execute(status -> groupRepository.findAllIds());
+        for (Long groupId : groupIds) {
+            transactionTemplate.executeWithoutResult(status -> rebuildGroupInternal(groupId));
+        }
+        logger.info("Rebuilt balance ledger for {} groups", groupIds.size());
+        return groupIds.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NEVER)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+    }
+    
+    private void rebuildGroupInternal(Long groupId) {
+        groupBalanceRepository.deleteByGroupId(groupId);
+        groupBalanceRepository.rebuildPaidForGroup(groupId);
+        groupBalanceRepository.rebuildOwedForGroup(groupId);
+    }
+    
+    private void addDelta(Map<Long, BigDecimal[]> deltas, Long userId, BigDecimal paid, BigDecimal owed) {
+        BigDecimal[] delta = deltas.computeIfAbsent(userId, id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+        delta[0] = delta[0].add(paid);
+        delta[1] = delta[1].add(owed);
+    }
+    
+    private void applyDeltas(Long groupId, Map<Long, BigDecimal[]> deltas) {
+        List<GroupBalance> rows = new ArrayList<>(deltas.size());
+        addRows(rows, groupId, deltas);
+        // One multi-row upsert for every participant instead of a round trip each
+        groupBalanceRepository.applyDeltas(rows);
+    }
+    
+    private void addRows(List<GroupBalance> rows, Long groupId, Map<Long, BigDecimal[]> deltas) {
+        for (Map.Entry<Long, BigDecimal[]> entry : deltas.entrySet()) {
+            GroupBalance row = new GroupBalance(groupId, entry.getKey());
+            row.setTotalPaid(entry.getValue()[0]);
+            row.setTotalOwed(entry.getValue()[1]);
+            rows.add(row);
+        }
+    }
+}
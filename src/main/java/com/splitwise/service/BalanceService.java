@@ -1,19 +1,30 @@
 package com.splitwise.service;
 
 import com.splitwise.dto.BalanceResponse;
+import com.splitwise.dto.GroupBalanceSummary;
 import com.splitwise.entity.Group;
+import com.splitwise.entity.GroupBalance;
 import com.splitwise.entity.User;
 import com.splitwise.repository.ExpenseRepository;
 import com.splitwise.repository.ExpenseSplitRepository;
+import com.splitwise.repository.GroupBalanceRepository;
 import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.UserAmountTotal;
+import com.splitwise.repository.UserGroupBalanceTotal;
 import com.splitwise.repository.UserRepository;
+import com.splitwise.service.settlement.SettlementPlan;
+import com.splitwise.service.settlement.SettlementPlanner;
+import com.splitwise.util.Cents;
 import com.splitwise.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -21,23 +32,44 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class BalanceService {
     
+    private static final long MIN_SETTLEMENT_CENTS = 1;
+    
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final GroupBalanceRepository groupBalanceRepository;
     private final SecurityUtil securityUtil;
+    private final BalanceComputationMode computationMode;
+    private final GroupBalanceCache balanceCache;
+    private final GroupVersionService groupVersionService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SettlementPlanner settlementPlanner;
 
     @Autowired
     public BalanceService(ExpenseRepository expenseRepository,
                          ExpenseSplitRepository expenseSplitRepository,
                          UserRepository userRepository,
                          GroupRepository groupRepository,
-                         SecurityUtil securityUtil) {
+                         GroupBalanceRepository groupBalanceRepository,
+                         SecurityUtil securityUtil,
+                         @Value("${splitwise.balance.computation-mode:GROUPED}") BalanceComputationMode computationMode,
+                         GroupBalanceCache balanceCache,
+                         GroupVersionService groupVersionService,
+                         PlatformTransactionManager transactionManager,
+                         SettlementPlanner settlementPlanner) {
         this.expenseRepository = expenseRepository;
         this.expenseSplitRepository = expenseSplitRepository;
         this.userRepository = userRepository;
         this.groupRepository = groupRepository;
+        this.groupBalanceRepository = groupBalanceRepository;
         this.securityUtil = securityUtil;
+        this.computationMode = computationMode;
+        this.balanceCache = balanceCache;
+        this.groupVersionService = groupVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.settlementPlanner = settlementPlanner;
     }
     
     /**
@@ -46,7 +78,21 @@ public class BalanceService {
      * @return balance response with user balances and settlements
      * @throws IllegalArgumentException if group not found
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BalanceResponse calculateGroupBalances(Long groupId) {
+        // Capture the version before reading so a concurrent write can never be cached as current
+        long version = groupVersionService.currentVersion(groupId);
+        BalanceResponse cached = balanceCache.get(groupId, version);
+        if (cached != null) {
+            return cached;
+        }
+        
+        BalanceResponse balances = readOnlyTransaction.execute(status -> computeGroupBalances(groupId));
+        balanceCache.put(groupId, version, balances);
+        return balances;
+    }
+    
+    private BalanceResponse computeGroupBalances(Long groupId) {
         // Validate group exists
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
@@ -59,112 +105,91 @@ public class BalanceService {
                                      new ArrayList<>(), BigDecimal.ZERO);
         }
         
-        // Calculate user balances
-        List<BalanceResponse.UserBalance> userBalances = new ArrayList<>();
-        Map<Long, BigDecimal> netBalances = new HashMap<>();
-        
-        for (User user : groupUsers) {
-            BigDecimal totalPaid = expenseRepository.getTotalAmountPaidByUserInGroup(groupId, user.getId());
-            BigDecimal totalOwed = expenseSplitRepository.getTotalAmountOwedByUserInGroup(groupId, user.getId());
-            BigDecimal netBalance = totalPaid.subtract(totalOwed);
-            
-            userBalances.add(new BalanceResponse.UserBalance(
-                    user.getId(), user.getName(), totalPaid, totalOwed, netBalance));
-            
-            netBalances.put(user.getId(), netBalance);
+        if (computationMode == BalanceComputationMode.PER_MEMBER) {
+            return calculateGroupBalancesPerMember(group, groupUsers);
         }
         
-        // Calculate settlements (who owes whom)
-        List<BalanceResponse.Settlement> settlements = calculateOptimalSettlements(groupUsers, netBalances);
-        
-        // Get total group expenses
-        BigDecimal totalGroupExpenses = expenseRepository.getTotalAmountByGroupId(groupId);
+        BalanceSheet sheet = new BalanceSheet(groupUsers);
+        if (computationMode == BalanceComputationMode.LEDGER) {
+            // Read the maintained ledger rows instead of aggregating the expense history
+            for (GroupBalance row : groupBalanceRepository.findByGroupId(groupId)) {
+                sheet.addPaid(row.getUserId(), row.getTotalPaid());
+                sheet.addOwed(row.getUserId(), row.getTotalOwed());
+            }
+        } else {
+            // Fetch paid and owed totals for every member with one GROUP BY query each
+            for (UserAmountTotal paid : expenseRepository.getTotalAmountPaidPerUserInGroup(groupId)) {
+                sheet.addPaid(paid.getUserId(), paid.getTotal());
+            }
+            for (UserAmountTotal owed : expenseSplitRepository.getTotalAmountOwedPerUserInGroup(groupId)) {
+                sheet.addOwed(owed.getUserId(), owed.getTotal());
+            }
+        }
         
-        return new BalanceResponse(groupId, group.getName(), userBalances, settlements, totalGroupExpenses);
+        // Total group expenses is the sum over all payers, including former members
+        return buildResponse(group, sheet, Cents.toAmount(sheet.totalPaidCents()));
     }
     
     /**
-     * Calculate optimal settlements to minimize the number of transactions
-     * This uses a greedy algorithm to settle debts efficiently
+     * Legacy balance calculation issuing two SUM queries per member
      */
-    private List<BalanceResponse.Settlement> calculateOptimalSettlements(List<User> users, Map<Long, BigDecimal> netBalances) {
-        List<BalanceResponse.Settlement> settlements = new ArrayList<>();
+    private BalanceResponse calculateGroupBalancesPerMember(Group group, List<User> groupUsers) {
+        Long groupId = group.getId();
+        BalanceSheet sheet = new BalanceSheet(groupUsers);
         
-        // Create lists of creditors (positive balance) and debtors (negative balance)
-        List<UserBalance> creditors = new ArrayList<>();
-        List<UserBalance> debtors = new ArrayList<>();
-        
-        for (User user : users) {
-            BigDecimal balance = netBalances.get(user.getId());
-            if (balance.compareTo(BigDecimal.ZERO) > 0) {
-                creditors.add(new UserBalance(user, balance));
-            } else if (balance.compareTo(BigDecimal.ZERO) < 0) {
-                debtors.add(new UserBalance(user, balance.abs())); // Store as positive amount
-            }
+        for (User user : groupUsers) {
+            sheet.addPaid(user.getId(), expenseRepository.getTotalAmountPaidByUserInGroup(groupId, user.getId()));
+            sheet.addOwed(user.getId(), expenseSplitRepository.getTotalAmountOwedByUserInGroup(groupId, user.getId()));
         }
         
-        // Sort creditors by amount descending, debtors by amount descending
-        creditors.sort((a, b) -> b.amount.compareTo(a.amount));
-        debtors.sort((a, b) -> b.amount.compareTo(a.amount));
-        
-        // Use two pointers to settle debts
-        int creditorIndex = 0;
-        int debtorIndex = 0;
-        
-        while (creditorIndex < creditors.size() && debtorIndex < debtors.size()) {
-            UserBalance creditor = creditors.get(creditorIndex);
-            UserBalance debtor = debtors.get(debtorIndex);
-            
-            // Calculate settlement amount (minimum of what creditor is owed and what debtor owes)
-            BigDecimal settlementAmount = creditor.amount.min(debtor.amount);
-            
+        return buildResponse(group, sheet, expenseRepository.getTotalAmountByGroupId(groupId));
+    }
+    
+    /**
+     * Calculate settlements (who owes whom) with as few transfers as the settlement planner can find
+     */
+    private BalanceResponse buildResponse(Group group, BalanceSheet sheet, BigDecimal totalGroupExpenses) {
+        SettlementPlan plan = settlementPlanner.plan(sheet.netBalances());
+        List<BalanceResponse.Settlement> settlements = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
             // Only create settlement if amount is significant (> 0.01)
-            if (settlementAmount.compareTo(new BigDecimal("0.01")) > 0) {
+            if (plan.amountCents(i) > MIN_SETTLEMENT_CENTS) {
+                User debtor = sheet.member(plan.fromIndex(i));
+                User creditor = sheet.member(plan.toIndex(i));
                 settlements.add(new BalanceResponse.Settlement(
-                        debtor.user.getId(), debtor.user.getName(),
-                        creditor.user.getId(), creditor.user.getName(),
-                        settlementAmount.setScale(2, RoundingMode.HALF_UP)
+                        debtor.getId(), debtor.getName(),
+                        creditor.getId(), creditor.getName(),
+                        Cents.toAmount(plan.amountCents(i))
                 ));
             }
-            
-            // Update balances
-            creditor.amount = creditor.amount.subtract(settlementAmount);
-            debtor.amount = debtor.amount.subtract(settlementAmount);
-            
-            // Move to next creditor or debtor if current one is settled
-            if (creditor.amount.compareTo(BigDecimal.ZERO) == 0) {
-                creditorIndex++;
-            }
-            if (debtor.amount.compareTo(BigDecimal.ZERO) == 0) {
-                debtorIndex++;
-            }
         }
         
-        return settlements;
+        BalanceResponse response = new BalanceResponse(group.getId(), group.getName(), sheet.toUserBalances(),
+                settlements, totalGroupExpenses);
+        response.setSettlementAlgorithm(plan.getAlgorithm().name());
+        return response;
     }
     
     /**
      * Get balance summary for a specific user across all groups
      * @param userId the user ID
-     * @return map of group ID to user's net balance in that group
+     * @return one entry per group the user belongs to, with the group name and the user's totals
+     * @throws IllegalArgumentException if user not found
      */
-    public Map<Long, BigDecimal> getUserBalanceSummary(Long userId) {
-        // Validate user exists
-        if (!userRepository.existsById(userId)) {
+    public List<GroupBalanceSummary> getUserBalanceSummary(Long userId) {
+        List<UserGroupBalanceTotal> totals = computationMode == BalanceComputationMode.LEDGER
+                ? groupRepository.findLedgerBalanceTotalsByUserId(userId)
+                : groupRepository.findBalanceTotalsByUserId(userId);
+        
+        // Only an empty result needs to tell an unknown user from a user without groups
+        if (totals.isEmpty() && !userRepository.existsById(userId)) {
             throw new IllegalArgumentException("User not found with id: " + userId);
         }
         
-        // Get all groups the user is a member of
-        List<Group> userGroups = groupRepository.findGroupsByUserId(userId);
-        
-        Map<Long, BigDecimal> balanceSummary = new HashMap<>();
-        
-        for (Group group : userGroups) {
-            BigDecimal totalPaid = expenseRepository.getTotalAmountPaidByUserInGroup(group.getId(), userId);
-            BigDecimal totalOwed = expenseSplitRepository.getTotalAmountOwedByUserInGroup(group.getId(), userId);
-            BigDecimal netBalance = totalPaid.subtract(totalOwed);
-            
-            balanceSummary.put(group.getId(), netBalance);
+        List<GroupBalanceSummary> balanceSummary = new ArrayList<>(totals.size());
+        for (UserGroupBalanceTotal total : totals) {
+            balanceSummary.add(new GroupBalanceSummary(total.getGroupId(), total.getGroupName(),
+                    total.getTotalPaid(), total.getTotalOwed()));
         }
         
         return balanceSummary;
@@ -184,19 +209,9 @@ public class BalanceService {
      * @param groupId the group ID
      * @return true if all expenses are settled, false otherwise
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean isGroupFullySettled(Long groupId) {
         List<BalanceResponse.Settlement> settlements = calculateGroupBalances(groupId).getSettlements();
         return settlements.isEmpty();
     }
-    
-    // Helper class for internal calculations
-    private static class UserBalance {
-        User user;
-        BigDecimal amount;
-        
-        UserBalance(User user, BigDecimal amount) {
-            this.user = user;
-            this.amount = amount;
-        }
-    }
 }
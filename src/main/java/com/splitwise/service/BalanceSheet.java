@@ -0,0 +1,92 @@
+package com.splitwise.service;
+
+import com.splitwise.dto.BalanceResponse;
+import com.splitwise.entity.User;
+import com.splitwise.util.Cents;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paid/owed totals of a group's members in cents, held in primitive arrays indexed by member position
+ */
+public final class BalanceSheet {
+    
+    private final List<User> members;
+    private final Map<Long, Integer> positions;
+    private final long[] paid;
+    private final long[] owed;
+    private long totalPaid;
+    
+    public BalanceSheet(List<User> members) {
+        int size = members.size();
+        this.members = members;
+        this.positions = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            positions.put(members.get(i).getId(), i);
+        }
+        this.paid = new long[size];
+        this.owed = new long[size];
+    }
+    
+    /**
+     * Add an amount paid by a user; payers that are no longer members only count towards the group total
+     */
+    public void addPaid(Long userId, BigDecimal amount) {
+        long cents = Cents.fromAmount(amount);
+        totalPaid += cents;
+        Integer position = positions.get(userId);
+        if (position != null) {
+            paid[position] += cents;
+        }
+    }
+    
+    /**
+     * Add an amount owed by a user; non-members are ignored
+     */
+    public void addOwed(Long userId, BigDecimal amount) {
+        Integer position = positions.get(userId);
+        if (position != null) {
+            owed[position] += Cents.fromAmount(amount);
+        }
+    }
+    
+    public int size() {
+        return paid.length;
+    }
+    
+    public User member(int position) {
+        return members.get(position);
+    }
+    
+    public long totalPaidCents() {
+        return totalPaid;
+    }
+    
+    /**
+     * @return net balance per member position in cents; positive means the member is owed money
+     */
+    public long[] netBalances() {
+        long[] net = new long[paid.length];
+        for (int i = 0; i < net.length; i++) {
+            net[i] = paid[i] - owed[i];
+        }
+        return net;
+    }
+    
+    /**
+     * Convert the sheet to response rows; this is the only place amounts become BigDecimal again
+     */
+    public List<BalanceResponse.UserBalance> toUserBalances() {
+        List<BalanceResponse.UserBalance> userBalances = new ArrayList<>(paid.length);
+        for (int i = 0; i < paid.length; i++) {
+            User user = members.get(i);
+            userBalances.add(new BalanceResponse.UserBalance(user.getId(), user.getName(),
+                    Cents.toAmount(paid[i]), Cents.toAmount(owed[i]), Cents.toAmount(paid[i] - owed[i])));
+        }
+        return userBalances;
+    }
+}
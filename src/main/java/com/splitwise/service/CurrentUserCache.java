@@ -0,0 +1,191 @@
+package com.splitwise.service;
+
+import com.splitwise.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of logged-in users behind {@link com.splitwise.util.SecurityUtil#getCurrentUser()}.
+ * Cached users are detached entities shared between requests: read their columns, not their lazy associations.
+ * Entries are dropped when {@link UserService} updates or deletes the user, and expire after a few seconds
+ * so changes made by another application node are picked up quickly.
+ * Also counts current-user lookups answered from the request memo, so the avoided DB reads can be reported.
+ */
+@Component
+public class CurrentUserCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Incremented on every invalidation; a user loaded across an invalidation is returned but not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+    private final AtomicLong requestHits = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong databaseLookups = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public CurrentUserCache(@Value("${splitwise.security.current-user-cache.enabled:true}") boolean enabled,
+                            @Value("${splitwise.security.current-user-cache.max-size:10000}") int maxSize,
+                            @Value("${splitwise.security.current-user-cache.ttl-seconds:5}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Get a user from the cache, loading it from the database on a miss
+     * @param userId the user ID
+     * @param loader loads the user, returning null if it no longer exists
+     * @return the user or null if it does not exist
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        if (enabled) {
+            synchronized (entries) {
+                Entry entry = entries.get(userId);
+                if (entry != null) {
+                    if (entry.expiresAt > System.currentTimeMillis()) {
+                        cacheHits.incrementAndGet();
+                        return entry.user;
+                    }
+                    entries.remove(userId);
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+
+        long epoch = invalidationEpoch.get();
+        databaseLookups.incrementAndGet();
+        User user = loader.apply(userId);
+        if (enabled && user != null) {
+            synchronized (entries) {
+                if (epoch == invalidationEpoch.get()) {
+                    entries.put(userId, new Entry(user, System.currentTimeMillis() + ttlMillis));
+                    evictIfNeeded();
+                }
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Record a current-user lookup answered from the request memo without touching this cache
+     */
+    public void recordRequestHit() {
+        requestHits.incrementAndGet();
+    }
+
+    /**
+     * Drop a user now and again once the current transaction commits (user updated or deleted),
+     * so a concurrent request cannot re-cache the pre-commit row
+     * @param userId the user ID
+     */
+    public void evictAfterCommit(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get cache statistics
+     * @return a snapshot of the cache counters
+     */
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(enabled, size, maxSize, requestHits.get(), cacheHits.get(), databaseLookups.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    private void evict(Long userId) {
+        synchronized (entries) {
+            invalidationEpoch.incrementAndGet();
+            if (entries.remove(userId) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class Stats {
+        private boolean enabled;
+        private int size;
+        private int maxSize;
+        private long requestHits;
+        private long cacheHits;
+        private long databaseLookups;
+        private long evictions;
+        private long expirations;
+        private long invalidations;
+
+        public Stats(boolean enabled, int size, int maxSize, long requestHits, long cacheHits, long databaseLookups,
+                     long evictions, long expirations, long invalidations) {
+            this.enabled = enabled;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.requestHits = requestHits;
+            this.cacheHits = cacheHits;
+            this.databaseLookups = databaseLookups;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getRequestHits() { return requestHits; }
+        public long getCacheHits() { return cacheHits; }
+        public long getDatabaseLookups() { return databaseLookups; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        /** Current-user lookups that would each have been a findById before memoization */
+        public long getLookupsAvoided() { return requestHits + cacheHits; }
+
+        public double getHitRatio() {
+            long total = requestHits + cacheHits + databaseLookups;
+            return total == 0 ? 0.0 : (double) (requestHits + cacheHits) / total;
+        }
+    }
+}
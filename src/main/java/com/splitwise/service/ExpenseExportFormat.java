@@ -0,0 +1,17 @@
+package com.splitwise.service;
+
+/**
+ * Body formats produced by the group ledger export; one row per expense split
+ */
+public enum ExpenseExportFormat {
+
+    /**
+     * Header row followed by one record per split, with the columns of {@link com.splitwise.dto.LedgerExportRow}
+     */
+    CSV,
+
+    /**
+     * One JSON object per line, in the shape of {@link com.splitwise.dto.LedgerExportRow}
+     */
+    NDJSON
+}
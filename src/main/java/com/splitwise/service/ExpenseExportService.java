@@ -0,0 +1,157 @@
+package com.splitwise.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.dto.LedgerExportRow;
+import com.splitwise.repository.ExpenseRepository;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.util.CsvRecordWriter;
+import com.splitwise.util.SecurityUtil;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams a group's ledger (one row per expense split) from a forward-only database cursor straight
+ * to an output stream. Rows are read as DTOs, so nothing accumulates in the persistence context and
+ * memory use does not depend on the size of the group.
+ */
+@Service
+public class ExpenseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final GroupRepository groupRepository;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final SecurityUtil securityUtil;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    @Autowired
+    public ExpenseExportService(GroupRepository groupRepository,
+                                GroupMembershipIndex groupMembershipIndex,
+                                SecurityUtil securityUtil,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${splitwise.export.fetch-size:-2147483648}") int fetchSize) {
+        this.groupRepository = groupRepository;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.securityUtil = securityUtil;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Check that the current user may export a group's ledger; call on the request thread before streaming
+     * @param groupId the group ID
+     * @throws IllegalArgumentException if the group does not exist or the current user is not a member
+     */
+    @Transactional(readOnly = true)
+    public void checkExportAllowed(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        Long currentUserId = securityUtil.getCurrentUserId();
+        if (currentUserId == null || !groupMembershipIndex.isMember(currentUserId, groupId)) {
+            throw new IllegalArgumentException("You are not a member of this group");
+        }
+    }
+
+    /**
+     * Write a group's ledger to the output stream, reading it through a forward-only scroll cursor
+     * in its own read-only transaction. The stream is flushed but not closed.
+     * @param groupId the group ID
+     * @param format the output format
+     * @param out the target stream
+     * @return number of rows written
+     * @throws IOException if writing fails
+     */
+    public long exportLedger(Long groupId, ExpenseExportFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> {
+                Query<LedgerExportRow> query = entityManager.unwrap(Session.class)
+                        .createQuery(ExpenseRepository.LEDGER_EXPORT_QUERY, LedgerExportRow.class)
+                        .setParameter("groupId", groupId);
+                query.setFetchSize(fetchSize);
+                query.setReadOnly(true);
+                try (ScrollableResults<LedgerExportRow> cursor = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    return format == ExpenseExportFormat.CSV ? writeCsv(cursor, writer) : writeNdjson(cursor, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} ledger rows of group {} as {} in {} ms",
+                rows, groupId, format, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private long writeCsv(ScrollableResults<LedgerExportRow> cursor, Writer writer) throws IOException {
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        csv.writeRecord("expenseId", "expenseDate", "description", "notes", "expenseAmount", "paidById", "paidByName",
+                "splitId", "owedById", "owedByName", "splitAmount", "settled", "settledAt");
+        long rows = 0;
+        while (cursor.next()) {
+            LedgerExportRow row = cursor.get();
+            csv.writeRecord(row.getExpenseId(), row.getExpenseDate(), row.getDescription(), row.getNotes(),
+                    plain(row.getExpenseAmount()), row.getPaidById(), row.getPaidByName(),
+                    row.getSplitId(), row.getOwedById(), row.getOwedByName(), plain(row.getSplitAmount()),
+                    row.isSettled(), row.getSettledAt());
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeNdjson(ScrollableResults<LedgerExportRow> cursor, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // writeValue flushes the generator after every row; keep those flushes out of the buffered writer
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.setRootValueSeparator(null); // Rows are separated by newlines only
+        long rows = 0;
+        while (cursor.next()) {
+            objectMapper.writeValue(generator, cursor.get());
+            generator.writeRaw('\n');
+            rows++;
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private static String plain(BigDecimal amount) {
+        return amount != null ? amount.toPlainString() : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.splitwise.service;
+
+/**
+ * Body formats accepted by the bulk expense import
+ */
+public enum ExpenseImportFormat {
+
+    /**
+     * Header row followed by one expense per record. Columns: description, amount, paidById, groupId,
+     * notes, expenseDate (ISO-8601, optional) and splits as "userId:amount;userId:amount"
+     */
+    CSV,
+
+    /**
+     * One JSON object per line, in the same shape as the body of POST /api/expenses
+     */
+    NDJSON
+}
@@ -0,0 +1,369 @@
+package com.splitwise.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.dto.ExpenseImportResult;
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.ExpenseSplit;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.UserRepository;
+import com.splitwise.util.CsvRecordReader;
+import com.splitwise.util.SecurityUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk expense import: parses a CSV or NDJSON body one record at a time and persists valid rows in
+ * chunks, one transaction per chunk, so memory use does not grow with the size of the upload
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("description", "amount", "paidbyid", "groupid", "splits");
+
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final ExpenseRequestValidator expenseRequestValidator;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseSearchIndex expenseSearchIndex;
+    private final MonthlySpendService monthlySpendService;
+    private final GroupCounterService groupCounterService;
+    private final SecurityUtil securityUtil;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public ExpenseImportService(UserRepository userRepository,
+                               GroupRepository groupRepository,
+                               GroupMembershipIndex groupMembershipIndex,
+                               ExpenseRequestValidator expenseRequestValidator,
+                               BalanceLedgerService balanceLedgerService,
+                               GroupVersionService groupVersionService,
+                               ExpenseSearchIndex expenseSearchIndex,
+                               MonthlySpendService monthlySpendService,
+                               GroupCounterService groupCounterService,
+                               SecurityUtil securityUtil,
+                               EntityManager entityManager,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${splitwise.import.chunk-size:500}") int chunkSize,
+                               @Value("${splitwise.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.expenseRequestValidator = expenseRequestValidator;
+        this.balanceLedgerService = balanceLedgerService;
+        this.groupVersionService = groupVersionService;
+        this.expenseSearchIndex = expenseSearchIndex;
+        this.monthlySpendService = monthlySpendService;
+        this.groupCounterService = groupCounterService;
+        this.securityUtil = securityUtil;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Import expenses from a streamed body. Rows failing validation, or for a group the current user
+     * is not a member of, are reported and skipped; a chunk that fails to persist is rolled back and all
+     * of its rows are reported.
+     * @param body the request body
+     * @param format the body format
+     * @return counts, the (capped) row errors and the overall throughput
+     * @throws IOException if reading the body fails
+     * @throws IllegalArgumentException if the CSV header lacks a required column
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public ExpenseImportResult importExpenses(Reader body, ExpenseImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        Long currentUserId = securityUtil.getCurrentUserId();
+        ExpenseImportResult result = new ExpenseImportResult(format.name());
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(body);
+
+        if (format == ExpenseImportFormat.CSV) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            Map<String, Integer> columns = readCsvHeader(csv.readRecord());
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                long line = csv.getRecordLineNumber();
+                CreateExpenseRequest request;
+                try {
+                    request = parseCsvRecord(record, columns);
+                } catch (NumberFormatException e) {
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    reportError(result, line, "Malformed row: invalid number");
+                    continue;
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    reportError(result, line, "Malformed row: " + e.getMessage());
+                    continue;
+                }
+                acceptRow(result, chunk, line, request, currentUserId);
+            }
+        } else {
+            String text;
+            long line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                CreateExpenseRequest request;
+                try {
+                    request = objectMapper.readValue(text, CreateExpenseRequest.class);
+                } catch (JsonProcessingException e) {
+                    result.setRowsRead(result.getRowsRead() + 1);
+                    reportError(result, line, "Malformed JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                acceptRow(result, chunk, line, request, currentUserId);
+            }
+        }
+        importChunk(chunk, result, currentUserId);
+        // Business rule failures are only known once their chunk is processed
+        result.getErrors().sort(Comparator.comparingLong(ExpenseImportResult.RowError::getLine));
+
+        long elapsedNanos = System.nanoTime() - start;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? result.getRowsRead() * 1_000_000_000.0 / elapsedNanos : 0);
+        logger.info("Imported {} of {} expense rows ({} failed) in {} ms, {} rows/s",
+                result.getImported(), result.getRowsRead(), result.getFailed(),
+                result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void acceptRow(ExpenseImportResult result, List<ImportRow> chunk, long line, CreateExpenseRequest request,
+                           Long currentUserId) {
+        result.setRowsRead(result.getRowsRead() + 1);
+        Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            reportError(result, line, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return;
+        }
+        chunk.add(new ImportRow(line, request));
+        if (chunk.size() >= chunkSize) {
+            importChunk(chunk, result, currentUserId);
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, ExpenseImportResult result, Long currentUserId) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<ImportRow> rejected = new ArrayList<>();
+        List<String> rejections = new ArrayList<>();
+        Set<Long> touchedGroupIds = new HashSet<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                rejected.clear();
+                rejections.clear();
+                touchedGroupIds.clear();
+
+                // Resolve every group, participant and membership list of the chunk up front
+                Set<Long> groupIds = new HashSet<>();
+                Set<Long> userIds = new HashSet<>();
+                for (ImportRow row : chunk) {
+                    groupIds.add(row.request.getGroupId());
+                    userIds.add(row.request.getPaidById());
+                    for (CreateExpenseRequest.SplitRequest splitRequest : row.request.getSplits()) {
+                        userIds.add(splitRequest.getUserId());
+                    }
+                }
+                Map<Long, Group> groupsById = new HashMap<>();
+                for (Group group : groupRepository.findAllById(groupIds)) {
+                    groupsById.put(group.getId(), group);
+                }
+                Map<Long, User> usersById = new HashMap<>();
+                for (User user : userRepository.findAllById(userIds)) {
+                    usersById.put(user.getId(), user);
+                }
+                // Writes decide from the database, not the membership cache: the caller once per group,
+                // then the group's members for the participants. Groups the caller is not in stay unmapped.
+                Map<Long, LongPredicate> memberChecksByGroup = new HashMap<>();
+                for (Long groupId : groupsById.keySet()) {
+                    if (groupMembershipIndex.confirmMember(currentUserId, groupId)) {
+                        memberChecksByGroup.put(groupId, groupMembershipIndex.confirmedMemberCheck(groupId));
+                    }
+                }
+
+                List<Expense> expenses = new ArrayList<>(chunk.size());
+                for (ImportRow row : chunk) {
+                    CreateExpenseRequest request = row.request;
+                    Group group = groupsById.get(request.getGroupId());
+                    User paidBy;
+                    try {
+                        if (group == null) {
+                            throw new IllegalArgumentException("Group not found with id: " + request.getGroupId());
+                        }
+                        LongPredicate memberCheck = memberChecksByGroup.get(group.getId());
+                        if (memberCheck == null) {
+                            throw new IllegalArgumentException("You are not a member of this group");
+                        }
+                        paidBy = expenseRequestValidator.validate(request, usersById, memberCheck);
+                    } catch (IllegalArgumentException e) {
+                        rejected.add(row);
+                        rejections.add(e.getMessage());
+                        continue;
+                    }
+
+                    Expense expense = new Expense(request.getDescription(), request.getAmount(), paidBy, group, request.getNotes());
+                    if (request.getExpenseDate() != null) {
+                        expense.setExpenseDate(request.getExpenseDate());
+                    }
+                    for (CreateExpenseRequest.SplitRequest splitRequest : request.getSplits()) {
+                        expense.addSplit(new ExpenseSplit(expense, usersById.get(splitRequest.getUserId()), splitRequest.getAmount()));
+                    }
+                    entityManager.persist(expense); // Splits are persisted by cascade
+                    expenses.add(expense);
+                    touchedGroupIds.add(group.getId());
+                }
+
+                entityManager.flush();
+                balanceLedgerService.recordExpensesCreated(expenses);
+                monthlySpendService.recordExpensesCreated(expenses);
+                groupCounterService.expensesCreated(expenses);
+                expenseSearchIndex.indexAfterCommit(expenses);
+                entityManager.clear();
+                return expenses.size();
+            });
+            result.setImported(result.getImported() + imported);
+            for (int i = 0; i < rejected.size(); i++) {
+                reportError(result, rejected.get(i).line, rejections.get(i));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Expense import chunk of {} rows rolled back", chunk.size(), e);
+            for (ImportRow row : chunk) {
+                reportError(result, row.line, "Chunk rolled back: " + e.getMessage());
+            }
+            touchedGroupIds.clear();
+        }
+        groupVersionService.bumpAll(touchedGroupIds);
+        chunk.clear();
+    }
+
+    private void reportError(ExpenseImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ExpenseImportResult.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body is empty, expected a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+        return columns;
+    }
+
+    private CreateExpenseRequest parseCsvRecord(List<String> record, Map<String, Integer> columns) {
+        CreateExpenseRequest request = new CreateExpenseRequest();
+        request.setDescription(csvField(record, columns, "description"));
+        String amount = csvField(record, columns, "amount");
+        request.setAmount(amount != null ? new BigDecimal(amount) : null);
+        String paidById = csvField(record, columns, "paidbyid");
+        request.setPaidById(paidById != null ? Long.valueOf(paidById) : null);
+        String groupId = csvField(record, columns, "groupid");
+        request.setGroupId(groupId != null ? Long.valueOf(groupId) : null);
+        request.setNotes(csvField(record, columns, "notes"));
+        String expenseDate = csvField(record, columns, "expensedate");
+        request.setExpenseDate(expenseDate != null ? LocalDateTime.parse(expenseDate) : null);
+
+        List<CreateExpenseRequest.SplitRequest> splits = new ArrayList<>();
+        String splitsField = csvField(record, columns, "splits");
+        if (splitsField != null) {
+            for (String part : splitsField.split(";")) {
+                if (part.isBlank()) {
+                    continue;
+                }
+                int separator = part.indexOf(':');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("split '" + part.trim() + "' must be userId:amount");
+                }
+                splits.add(new CreateExpenseRequest.SplitRequest(
+                        Long.valueOf(part.substring(0, separator).trim()),
+                        new BigDecimal(part.substring(separator + 1).trim())));
+            }
+        }
+        request.setSplits(splits);
+        return request;
+    }
+
+    private String csvField(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static class ImportRow {
+        private final long line;
+        private final CreateExpenseRequest request;
+
+        ImportRow(long line, CreateExpenseRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.splitwise.service;
+
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Business rules of an expense creation request, checked against preloaded participants and
+ * a group membership test. Not transactional, so a rejected request never marks the caller's transaction
+ * rollback-only.
+ */
+@Component
+public class ExpenseRequestValidator {
+
+    /**
+     * Validate the payer, the split participants and the split total of a request
+     * @param request the expense creation request
+     * @param usersById the payer and split participants loaded by ID
+     * @param memberCheck membership test for the request's group (see {@link GroupMembershipIndex#memberCheck})
+     * @return the payer
+     * @throws IllegalArgumentException if validation fails
+     */
+    public User validate(CreateExpenseRequest request, Map<Long, User> usersById, LongPredicate memberCheck) {
+        // Validate that the payer exists
+        User paidBy = usersById.get(request.getPaidById());
+        if (paidBy == null) {
+            throw new IllegalArgumentException("User not found with id: " + request.getPaidById());
+        }
+
+        // Validate that all users in splits exist and are members of the group
+        BigDecimal totalSplitAmount = BigDecimal.ZERO;
+        for (CreateExpenseRequest.SplitRequest splitRequest : request.getSplits()) {
+            User user = usersById.get(splitRequest.getUserId());
+            if (user == null) {
+                throw new IllegalArgumentException("User not found with id: " + splitRequest.getUserId());
+            }
+
+            if (!memberCheck.test(user.getId())) {
+                throw new IllegalArgumentException("User " + user.getName() + " is not a member of the group");
+            }
+
+            totalSplitAmount = totalSplitAmount.add(splitRequest.getAmount());
+        }
+
+        // Validate that split amounts equal the total expense amount
+        if (totalSplitAmount.compareTo(request.getAmount()) != 0) {
+            throw new IllegalArgumentException("Split amounts (" + totalSplitAmount + ") do not equal expense amount (" + request.getAmount() + ")");
+        }
+        return paidBy;
+    }
+}
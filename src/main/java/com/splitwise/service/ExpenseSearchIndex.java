@@ -0,0 +1,489 @@
+package com.splitwise.service;
+
+import com.splitwise.entity.Expense;
+import com.splitwise.repository.ExpenseRepository;
+import com.splitwise.repository.ExpenseSearchRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over expense descriptions and notes, partitioned by group.
+ * Each partition keeps trigram postings (substring queries) and a sorted token map (prefix
+ * queries). A partition is loaded from the database on first search and labelled with the group's
+ * data version read before loading; a search that finds the stored version newer (a write on any node
+ * bumps it) reloads the partition. Local writes are applied after their transaction commits so this node
+ * sees them even before that reload. The least recently searched partitions are evicted beyond the size cap.
+ */
+@Service
+public class ExpenseSearchIndex {
+
+    // Per query token: exact / prefix / substring match of a description token, then of a notes token
+    private static final int[] DESCRIPTION_SCORES = {10, 6, 3};
+    private static final int[] NOTES_SCORES = {4, 2, 1};
+    private static final int PHRASE_BONUS = 5;
+
+    private final ExpenseRepository expenseRepository;
+    private final GroupVersionService groupVersionService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxCachedGroups;
+
+    // Access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<Long, Partition> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ExpenseSearchIndex(ExpenseRepository expenseRepository,
+                             GroupVersionService groupVersionService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${splitwise.search.max-cached-groups:10000}") int maxCachedGroups) {
+        this.expenseRepository = expenseRepository;
+        this.groupVersionService = groupVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxCachedGroups = Math.max(1, maxCachedGroups);
+    }
+
+    /**
+     * Index new expenses once the current transaction commits (immediately outside a transaction).
+     * Groups without a cached partition are skipped; their first search loads them.
+     * @param expenses the persisted expenses
+     */
+    public void indexAfterCommit(Collection<Expense> expenses) {
+        List<Document> documents = new ArrayList<>(expenses.size());
+        List<Long> groupIds = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            documents.add(new Document(expense.getId(), expense.getDescription(), expense.getNotes(), expense.getExpenseDate()));
+            groupIds.add(expense.getGroup().getId());
+        }
+        afterCommit(() -> {
+            for (int i = 0; i < documents.size(); i++) {
+                Partition partition = cachedPartition(groupIds.get(i));
+                if (partition != null) {
+                    partition.add(documents.get(i));
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a deleted expense once the current transaction commits
+     * @param groupId the group of the expense
+     * @param expenseId the expense ID
+     */
+    public void removeAfterCommit(Long groupId, Long expenseId) {
+        afterCommit(() -> {
+            Partition partition = cachedPartition(groupId);
+            if (partition != null) {
+                partition.remove(expenseId);
+            }
+        });
+    }
+
+    /**
+     * Drop the partition of a deleted group once the current transaction commits
+     * @param groupId the group ID
+     */
+    public void dropGroupAfterCommit(Long groupId) {
+        afterCommit(() -> {
+            synchronized (partitions) {
+                partitions.remove(groupId);
+            }
+        });
+    }
+
+    /**
+     * Find expenses in the given groups whose description or notes match every query token.
+     * Tokens of three or more characters match anywhere inside a word, shorter ones match word prefixes.
+     * @param groupIds the groups to search
+     * @param query the free-text query
+     * @return matching expense IDs, best match first (ties: newest first)
+     */
+    public List<Long> search(Collection<Long> groupIds, String query) {
+        String normalized = normalize(query);
+        List<String> queryTokens = tokenize(normalized);
+        if (queryTokens.isEmpty() || groupIds.isEmpty()) {
+            return List.of();
+        }
+        // Versions are read before any partition loads, so a partition is never labelled newer than its rows
+        Map<Long, Long> versions = groupVersionService.findVersions(groupIds);
+        List<Hit> hits = new ArrayList<>();
+        for (Long groupId : groupIds) {
+            Long version = versions.get(groupId);
+            if (version == null) {
+                synchronized (partitions) {
+                    partitions.remove(groupId);
+                }
+                continue;
+            }
+            partition(groupId, version).search(normalized, queryTokens, hits);
+        }
+        hits.sort(Comparator.comparingInt((Hit hit) -> hit.score).reversed()
+                .thenComparing((Hit hit) -> hit.expenseDate, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing((Hit hit) -> hit.expenseId, Comparator.reverseOrder()));
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.expenseId);
+        }
+        return ids;
+    }
+
+    /**
+     * Get partition counters for monitoring
+     * @return current statistics
+     */
+    public Stats getStats() {
+        int cachedGroups;
+        synchronized (partitions) {
+            cachedGroups = partitions.size();
+        }
+        return new Stats(cachedGroups, maxCachedGroups, hits.get(), loads.get(), reloads.get(), evictions.get());
+    }
+
+    private Partition partition(Long groupId, long version) {
+        synchronized (partitions) {
+            Partition partition = partitions.get(groupId);
+            if (partition != null && partition.version >= version) {
+                hits.incrementAndGet();
+                return partition;
+            }
+            (partition == null ? loads : reloads).incrementAndGet();
+            partition = new Partition(groupId, version);
+            partitions.put(groupId, partition);
+            Iterator<Partition> eldest = partitions.values().iterator();
+            while (partitions.size() > maxCachedGroups) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+            return partition;
+        }
+    }
+
+    private Partition cachedPartition(Long groupId) {
+        synchronized (partitions) {
+            return partitions.get(groupId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTrigrams(String token, Set<String> trigrams) {
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigrams.add(token.substring(i, i + 3));
+        }
+    }
+
+    /**
+     * Best match class of a query token against a field's tokens: 0 exact, 1 prefix, 2 substring, -1 none
+     */
+    private static int matchClass(String queryToken, List<String> fieldTokens) {
+        int best = -1;
+        for (String token : fieldTokens) {
+            if (token.equals(queryToken)) {
+                return 0;
+            } else if (token.startsWith(queryToken)) {
+                best = 1;
+            } else if (best < 0 && queryToken.length() >= 3 && token.contains(queryToken)) {
+                best = 2;
+            }
+        }
+        return best;
+    }
+
+    private final class Partition {
+
+        private final Long groupId;
+        private final long version;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+        private final TreeMap<String, Set<Long>> tokenPostings = new TreeMap<>();
+        // Expenses removed while the partition was still loading; the load must not resurrect them
+        private final Set<Long> removedBeforeLoad = new HashSet<>();
+        private volatile boolean loaded;
+
+        Partition(Long groupId, long version) {
+            this.groupId = groupId;
+            this.version = version;
+        }
+
+        void ensureLoaded() {
+            if (loaded) {
+                return;
+            }
+            synchronized (this) {
+                if (loaded) {
+                    return;
+                }
+                List<ExpenseSearchRow> rows = readOnlyTransaction.execute(
+                        status -> expenseRepository.findSearchRowsByGroupId(groupId));
+                lock.writeLock().lock();
+                try {
+                    for (ExpenseSearchRow row : rows) {
+                        // Rows indexed by a concurrent write are at least as fresh as the loaded ones
+                        if (!documents.containsKey(row.getId()) && !removedBeforeLoad.contains(row.getId())) {
+                            addLocked(new Document(row.getId(), row.getDescription(), row.getNotes(), row.getExpenseDate()));
+                        }
+                    }
+                    removedBeforeLoad.clear();
+                    loaded = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        void add(Document document) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(document.expenseId);
+                addLocked(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long expenseId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(expenseId);
+                if (!loaded) {
+                    removedBeforeLoad.add(expenseId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void search(String normalizedQuery, List<String> queryTokens, List<Hit> hits) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                Set<Long> candidates = null;
+                for (String queryToken : queryTokens) {
+                    Set<Long> matches = queryToken.length() >= 3 ? trigramCandidates(queryToken) : prefixCandidates(queryToken);
+                    if (candidates == null) {
+                        candidates = matches;
+                    } else {
+                        candidates.retainAll(matches);
+                    }
+                    if (candidates.isEmpty()) {
+                        return;
+                    }
+                }
+                for (Long expenseId : candidates) {
+                    Document document = documents.get(expenseId);
+                    int score = document.score(normalizedQuery, queryTokens);
+                    if (score > 0) {
+                        hits.add(new Hit(expenseId, score, document.expenseDate));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Set<Long> trigramCandidates(String queryToken) {
+            Set<String> trigrams = new HashSet<>();
+            addTrigrams(queryToken, trigrams);
+            // Intersect the rarest postings first
+            List<Set<Long>> postings = new ArrayList<>(trigrams.size());
+            for (String trigram : trigrams) {
+                Set<Long> posting = trigramPostings.get(trigram);
+                if (posting == null) {
+                    return new HashSet<>();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<Long> candidates = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+                candidates.retainAll(postings.get(i));
+            }
+            return candidates;
+        }
+
+        private Set<Long> prefixCandidates(String queryToken) {
+            Set<Long> candidates = new HashSet<>();
+            for (Set<Long> posting : tokenPostings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).values()) {
+                candidates.addAll(posting);
+            }
+            return candidates;
+        }
+
+        private void addLocked(Document document) {
+            documents.put(document.expenseId, document);
+            for (String token : document.allTokens()) {
+                tokenPostings.computeIfAbsent(token, t -> new HashSet<>()).add(document.expenseId);
+            }
+            for (String trigram : document.trigrams()) {
+                trigramPostings.computeIfAbsent(trigram, t -> new HashSet<>()).add(document.expenseId);
+            }
+        }
+
+        private void removeLocked(Long expenseId) {
+            Document document = documents.remove(expenseId);
+            if (document == null) {
+                return;
+            }
+            for (String token : document.allTokens()) {
+                removePosting(tokenPostings, token, expenseId);
+            }
+            for (String trigram : document.trigrams()) {
+                removePosting(trigramPostings, trigram, expenseId);
+            }
+        }
+
+        private void removePosting(Map<String, Set<Long>> postings, String key, Long expenseId) {
+            Set<Long> posting = postings.get(key);
+            if (posting != null && posting.remove(expenseId) && posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static final class Document {
+
+        private final Long expenseId;
+        private final String description;
+        private final List<String> descriptionTokens;
+        private final List<String> notesTokens;
+        private final LocalDateTime expenseDate;
+
+        Document(Long expenseId, String description, String notes, LocalDateTime expenseDate) {
+            this.expenseId = expenseId;
+            this.description = normalize(description);
+            this.descriptionTokens = tokenize(this.description);
+            this.notesTokens = tokenize(normalize(notes));
+            this.expenseDate = expenseDate;
+        }
+
+        Set<String> allTokens() {
+            Set<String> tokens = new HashSet<>(descriptionTokens);
+            tokens.addAll(notesTokens);
+            return tokens;
+        }
+
+        Set<String> trigrams() {
+            Set<String> trigrams = new HashSet<>();
+            for (String token : allTokens()) {
+                addTrigrams(token, trigrams);
+            }
+            return trigrams;
+        }
+
+        int score(String normalizedQuery, List<String> queryTokens) {
+            int score = 0;
+            for (String queryToken : queryTokens) {
+                int descriptionMatch = matchClass(queryToken, descriptionTokens);
+                int notesMatch = matchClass(queryToken, notesTokens);
+                if (descriptionMatch < 0 && notesMatch < 0) {
+                    return 0;
+                }
+                score += (descriptionMatch >= 0 ? DESCRIPTION_SCORES[descriptionMatch] : 0)
+                        + (notesMatch >= 0 ? NOTES_SCORES[notesMatch] : 0);
+            }
+            if (queryTokens.size() > 1 && description.contains(normalizedQuery.trim())) {
+                score += PHRASE_BONUS;
+            }
+            return score;
+        }
+    }
+
+    public static class Stats {
+        private int cachedGroups;
+        private int maxCachedGroups;
+        private long hits;
+        private long loads;
+        private long reloads;
+        private long evictions;
+
+        public Stats(int cachedGroups, int maxCachedGroups, long hits, long loads, long reloads, long evictions) {
+            this.cachedGroups = cachedGroups;
+            this.maxCachedGroups = maxCachedGroups;
+            this.hits = hits;
+            this.loads = loads;
+            this.reloads = reloads;
+            this.evictions = evictions;
+        }
+
+        public int getCachedGroups() { return cachedGroups; }
+        public int getMaxCachedGroups() { return maxCachedGroups; }
+        public long getHits() { return hits; }
+        public long getLoads() { return loads; }
+        public long getReloads() { return reloads; }
+        public long getEvictions() { return evictions; }
+
+        public double getHitRatio() {
+            long total = hits + loads + reloads;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private static final class Hit {
+
+        private final Long expenseId;
+        private final int score;
+        private final LocalDateTime expenseDate;
+
+        Hit(Long expenseId, int score, LocalDateTime expenseDate) {
+            this.expenseId = expenseId;
+            this.score = score;
+            this.expenseDate = expenseDate;
+        }
+    }
+}
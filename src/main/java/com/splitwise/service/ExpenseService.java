@@ -1,6 +1,11 @@
 package com.splitwise.service;
 
 import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.dto.ExpenseDTO;
+import com.splitwise.dto.ExpenseFeedPage;
+import com.splitwise.dto.ExpenseSearchResult;
+import com.splitwise.dto.ExpenseSplitDTO;
+import com.splitwise.dto.SettleUpResult;
 import com.splitwise.entity.Expense;
 import com.splitwise.entity.ExpenseSplit;
 import com.splitwise.entity.Group;
@@ -8,16 +13,25 @@ import com.splitwise.entity.User;
 import com.splitwise.repository.ExpenseRepository;
 import com.splitwise.repository.ExpenseSplitRepository;
 import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.GroupSettlementTotal;
 import com.splitwise.repository.UserRepository;
+import com.splitwise.util.FeedCursor;
 import com.splitwise.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -27,19 +41,49 @@ public class ExpenseService {
     private final ExpenseSplitRepository expenseSplitRepository;
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
+    private final GroupMembershipIndex groupMembershipIndex;
     private final SecurityUtil securityUtil;
+    private final ExpenseRequestValidator expenseRequestValidator;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseSearchIndex expenseSearchIndex;
+    private final MonthlySpendService monthlySpendService;
+    private final GroupCounterService groupCounterService;
+    private final int feedDefaultPageSize;
+    private final int feedMaxPageSize;
+    private final int searchMaxPageSize;
 
     @Autowired
     public ExpenseService(ExpenseRepository expenseRepository,
                          ExpenseSplitRepository expenseSplitRepository,
                          UserRepository userRepository,
                          GroupRepository groupRepository,
-                         SecurityUtil securityUtil) {
+                         GroupMembershipIndex groupMembershipIndex,
+                         SecurityUtil securityUtil,
+                         ExpenseRequestValidator expenseRequestValidator,
+                         BalanceLedgerService balanceLedgerService,
+                         GroupVersionService groupVersionService,
+                         ExpenseSearchIndex expenseSearchIndex,
+                         MonthlySpendService monthlySpendService,
+                         GroupCounterService groupCounterService,
+                         @Value("${splitwise.feed.default-page-size:20}") int feedDefaultPageSize,
+                         @Value("${splitwise.feed.max-page-size:100}") int feedMaxPageSize,
+                         @Value("${splitwise.search.max-page-size:100}") int searchMaxPageSize) {
         this.expenseRepository = expenseRepository;
         this.expenseSplitRepository = expenseSplitRepository;
         this.userRepository = userRepository;
         this.groupRepository = groupRepository;
+        this.groupMembershipIndex = groupMembershipIndex;
         this.securityUtil = securityUtil;
+        this.expenseRequestValidator = expenseRequestValidator;
+        this.balanceLedgerService = balanceLedgerService;
+        this.groupVersionService = groupVersionService;
+        this.expenseSearchIndex = expenseSearchIndex;
+        this.monthlySpendService = monthlySpendService;
+        this.groupCounterService = groupCounterService;
+        this.feedMaxPageSize = Math.max(1, feedMaxPageSize);
+        this.feedDefaultPageSize = Math.max(1, Math.min(feedDefaultPageSize, this.feedMaxPageSize));
+        this.searchMaxPageSize = Math.max(1, searchMaxPageSize);
     }
     
     /**
@@ -47,43 +91,33 @@ public class ExpenseService {
      * @param request the expense creation request
      * @return the created expense
      * @throws IllegalArgumentException if validation fails
+     * @throws AccessDeniedException if the current user is not a member of the group
      */
     public Expense createExpense(CreateExpenseRequest request) {
-        // TODO: Add proper authorization check later
-        // For now, allow expense creation to test balance functionality
-
-        // Validate that the payer exists
-        User paidBy = userRepository.findById(request.getPaidById())
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + request.getPaidById()));
-
         // Validate that the group exists
         Group group = groupRepository.findById(request.getGroupId())
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + request.getGroupId()));
         
-        // Validate that all users in splits exist and are members of the group
-        BigDecimal totalSplitAmount = BigDecimal.ZERO;
-        List<User> groupUsers = userRepository.findUsersByGroupId(request.getGroupId());
-
-        for (CreateExpenseRequest.SplitRequest splitRequest : request.getSplits()) {
-            User user = userRepository.findById(splitRequest.getUserId())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + splitRequest.getUserId()));
-
-            // Check if user is a member of the group using ID comparison
-            boolean isUserInGroup = groupUsers.stream()
-                    .anyMatch(groupUser -> groupUser.getId().equals(user.getId()));
-
-            if (!isUserInGroup) {
-                throw new IllegalArgumentException("User " + user.getName() + " is not a member of the group");
-            }
-
-            totalSplitAmount = totalSplitAmount.add(splitRequest.getAmount());
+        // A write decides from the database, not the membership cache
+        if (!groupMembershipIndex.confirmMember(securityUtil.getCurrentUserId(), group.getId())) {
+            throw new AccessDeniedException("You are not a member of this group");
         }
         
-        // Validate that split amounts equal the total expense amount
-        if (totalSplitAmount.compareTo(request.getAmount()) != 0) {
-            throw new IllegalArgumentException("Split amounts (" + totalSplitAmount + ") do not equal expense amount (" + request.getAmount() + ")");
+        // Load the payer and every split participant with a single query
+        Set<Long> participantIds = new HashSet<>();
+        participantIds.add(request.getPaidById());
+        for (CreateExpenseRequest.SplitRequest splitRequest : request.getSplits()) {
+            participantIds.add(splitRequest.getUserId());
+        }
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(participantIds)) {
+            usersById.put(user.getId(), user);
         }
         
+        // Validate the payer, the split participants and the split total
+        User paidBy = expenseRequestValidator.validate(request, usersById,
+                groupMembershipIndex.confirmedMemberCheck(group.getId()));
+        
         // Create the expense
         Expense expense = new Expense(request.getDescription(), request.getAmount(), paidBy, group, request.getNotes());
         if (request.getExpenseDate() != null) {
@@ -92,13 +126,20 @@ public class ExpenseService {
         
         expense = expenseRepository.save(expense);
         
-        // Create the splits
+        // Create the splits; saveAll lets Hibernate send them as one JDBC batch
+        List<ExpenseSplit> splits = new ArrayList<>(request.getSplits().size());
         for (CreateExpenseRequest.SplitRequest splitRequest : request.getSplits()) {
-            User owedBy = userRepository.findById(splitRequest.getUserId()).get(); // Already validated above
-            ExpenseSplit split = new ExpenseSplit(expense, owedBy, splitRequest.getAmount());
-            expenseSplitRepository.save(split);
+            ExpenseSplit split = new ExpenseSplit(expense, usersById.get(splitRequest.getUserId()), splitRequest.getAmount());
+            splits.add(split);
             expense.addSplit(split);
         }
+        expenseSplitRepository.saveAll(splits);
+        
+        balanceLedgerService.recordExpenseCreated(expense, expense.getSplits());
+        monthlySpendService.recordExpenseCreated(expense, expense.getSplits());
+        groupCounterService.expenseCreated(expense);
+        groupVersionService.bump(group.getId());
+        expenseSearchIndex.indexAfterCommit(List.of(expense));
         
         return expense;
     }
@@ -113,6 +154,99 @@ public class ExpenseService {
         return expenseRepository.findByGroupIdWithDetailsOrderByExpenseDateDesc(groupId);
     }
     
+    /**
+     * Get one page of a group's expenses, newest first, using keyset pagination on (expenseDate, id)
+     * @param groupId the group ID
+     * @param size the requested page size, or null for the default
+     * @param cursor the continuation token of the previous page, or null for the first page
+     * @param includeSplits whether to embed each expense's splits (one extra IN query per page)
+     * @return the page and the token of the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public ExpenseFeedPage getExpenseFeed(Long groupId, Integer size, String cursor, boolean includeSplits) {
+        int pageSize = size == null ? feedDefaultPageSize : Math.max(1, Math.min(size, feedMaxPageSize));
+        
+        // Fetch one extra row to learn whether another page exists
+        List<ExpenseDTO> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = expenseRepository.findFeedFirstPage(groupId, pageSize + 1);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            items = expenseRepository.findFeedPageAfter(groupId, after.getDate(), after.getId(), pageSize + 1);
+        }
+        
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+            ExpenseDTO last = items.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getExpenseDate(), last.getId()).encode();
+        }
+        if (includeSplits && !items.isEmpty()) {
+            attachSplits(items);
+        }
+        return new ExpenseFeedPage(items, nextCursor);
+    }
+    
+    private void attachSplits(List<ExpenseDTO> items) {
+        Map<Long, ExpenseDTO> itemsById = new HashMap<>();
+        for (ExpenseDTO item : items) {
+            item.setSplits(new ArrayList<>());
+            itemsById.put(item.getId(), item);
+        }
+        for (ExpenseSplitDTO split : expenseSplitRepository.findDTOsByExpenseIdIn(itemsById.keySet())) {
+            itemsById.get(split.getExpenseId()).getSplits().add(split);
+        }
+    }
+    
+    /**
+     * Search the descriptions and notes of the expenses in the current user's groups
+     * @param query the free-text query; every word must match the start or, from three characters, any part of a word
+     * @param groupId restrict the search to this group, or null for all of the user's groups
+     * @param page the zero-based page number
+     * @param size the page size (capped at splitwise.search.max-page-size)
+     * @return the requested page of matches, best match first
+     * @throws IllegalArgumentException if the current user is not a member of the given group
+     */
+    @Transactional(readOnly = true)
+    public ExpenseSearchResult searchExpenses(String query, Long groupId, int page, int size) {
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, searchMaxPageSize));
+        Long currentUserId = securityUtil.getCurrentUserId();
+        if (currentUserId == null) {
+            return new ExpenseSearchResult(query, 0, pageNumber, pageSize, List.of());
+        }
+
+        List<Long> scope = groupMembershipIndex.getGroupIds(currentUserId);
+        if (groupId != null) {
+            if (!scope.contains(groupId)) {
+                throw new IllegalArgumentException("You are not a member of this group");
+            }
+            scope = List.of(groupId);
+        }
+
+        List<Long> rankedIds = expenseSearchIndex.search(scope, query);
+        long from = (long) pageNumber * pageSize;
+        if (from >= rankedIds.size()) {
+            return new ExpenseSearchResult(query, rankedIds.size(), pageNumber, pageSize, List.of());
+        }
+        List<Long> pageIds = rankedIds.subList((int) from, (int) Math.min(from + pageSize, rankedIds.size()));
+
+        // Hydrate the page with one query and put the rows back in rank order
+        Map<Long, ExpenseDTO> itemsById = new HashMap<>();
+        for (ExpenseDTO item : expenseRepository.findDTOsByIdIn(pageIds)) {
+            itemsById.put(item.getId(), item);
+        }
+        List<ExpenseDTO> items = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            ExpenseDTO item = itemsById.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return new ExpenseSearchResult(query, rankedIds.size(), pageNumber, pageSize, items);
+    }
+    
     /**
      * Get expense by ID
      * @param id the expense ID
@@ -129,8 +263,8 @@ public class ExpenseService {
      * @return list of expenses paid by the user
      */
     @Transactional(readOnly = true)
-    public List<Expense> getExpensesPaidByUser(Long userId) {
-        return expenseRepository.findByPaidByIdOrderByExpenseDateDesc(userId);
+    public List<ExpenseDTO> getExpensesPaidByUser(Long userId) {
+        return expenseRepository.findDTOsByPaidById(userId);
     }
     
     /**
@@ -139,8 +273,8 @@ public class ExpenseService {
      * @return list of expense splits
      */
     @Transactional(readOnly = true)
-    public List<ExpenseSplit> getExpenseSplits(Long expenseId) {
-        return expenseSplitRepository.findByExpenseId(expenseId);
+    public List<ExpenseSplitDTO> getExpenseSplits(Long expenseId) {
+        return expenseSplitRepository.findDTOsByExpenseId(expenseId);
     }
     
     /**
@@ -149,8 +283,8 @@ public class ExpenseService {
      * @return list of expense splits owed by the user
      */
     @Transactional(readOnly = true)
-    public List<ExpenseSplit> getSplitsOwedByUser(Long userId) {
-        return expenseSplitRepository.findByOwedById(userId);
+    public List<ExpenseSplitDTO> getSplitsOwedByUser(Long userId) {
+        return expenseSplitRepository.findDTOsByOwedById(userId);
     }
     
     /**
@@ -159,8 +293,8 @@ public class ExpenseService {
      * @return list of unsettled expense splits
      */
     @Transactional(readOnly = true)
-    public List<ExpenseSplit> getUnsettledSplitsOwedByUser(Long userId) {
-        return expenseSplitRepository.findByOwedByIdAndIsSettledFalse(userId);
+    public List<ExpenseSplitDTO> getUnsettledSplitsOwedByUser(Long userId) {
+        return expenseSplitRepository.findUnsettledDTOsByOwedById(userId);
     }
     
     /**
@@ -170,8 +304,8 @@ public class ExpenseService {
      * @return list of unsettled expense splits
      */
     @Transactional(readOnly = true)
-    public List<ExpenseSplit> getUnsettledSplitsByGroupAndUser(Long groupId, Long userId) {
-        return expenseSplitRepository.findUnsettledByGroupIdAndOwedById(groupId, userId);
+    public List<ExpenseSplitDTO> getUnsettledSplitsByGroupAndUser(Long groupId, Long userId) {
+        return expenseSplitRepository.findUnsettledDTOsByGroupIdAndOwedById(groupId, userId);
     }
     
     /**
@@ -183,6 +317,11 @@ public class ExpenseService {
         ExpenseSplit split = expenseSplitRepository.findById(splitId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense split not found with id: " + splitId));
         
+        Long groupId = split.getExpense().getGroup().getId();
+        if (!split.isSettled()) {
+            balanceLedgerService.recordSettlementChanged(groupId, split, true);
+            groupVersionService.bump(groupId);
+        }
         split.markAsSettled();
         expenseSplitRepository.save(split);
     }
@@ -196,19 +335,93 @@ public class ExpenseService {
         ExpenseSplit split = expenseSplitRepository.findById(splitId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense split not found with id: " + splitId));
         
+        Long groupId = split.getExpense().getGroup().getId();
+        if (split.isSettled()) {
+            balanceLedgerService.recordSettlementChanged(groupId, split, false);
+            groupVersionService.bump(groupId);
+        }
         split.markAsUnsettled();
         expenseSplitRepository.save(split);
     }
     
+    /**
+     * Settle every unsettled split owed by one user on expenses the other user paid, with one bulk update.
+     * Only the user who is owed can confirm a settle-up, and only in groups they belong to.
+     * @param groupId the group ID, or null to settle across all groups
+     * @param fromUserId the user who owes
+     * @param toUserId the user who paid
+     * @return the number and total amount of settled splits
+     * @throws IllegalArgumentException if a user or the group is not found, or both users are the same
+     * @throws AccessDeniedException if the current user is not toUserId, or not a member of the group
+     * @throws IllegalStateException if the splits changed concurrently (the transaction is rolled back)
+     */
+    public SettleUpResult settleUp(Long groupId, Long fromUserId, Long toUserId) {
+        if (fromUserId.equals(toUserId)) {
+            throw new IllegalArgumentException("A user cannot settle up with themselves");
+        }
+        Long currentUserId = securityUtil.getCurrentUserId();
+        if (currentUserId == null || !currentUserId.equals(toUserId)) {
+            throw new AccessDeniedException("Only the user who is owed can settle up");
+        }
+        if (!userRepository.existsById(fromUserId)) {
+            throw new IllegalArgumentException("User not found with id: " + fromUserId);
+        }
+        if (!userRepository.existsById(toUserId)) {
+            throw new IllegalArgumentException("User not found with id: " + toUserId);
+        }
+        if (groupId != null && !groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found with id: " + groupId);
+        }
+        if (groupId != null && !groupMembershipIndex.confirmMember(currentUserId, groupId)) {
+            throw new AccessDeniedException("You are not a member of this group");
+        }
+        
+        // Per-group totals first: they drive the ledger deltas and the response
+        List<GroupSettlementTotal> totals = groupId != null
+                ? expenseSplitRepository.getUnsettledTotalsBetweenUsersInGroup(groupId, fromUserId, toUserId)
+                : expenseSplitRepository.getUnsettledTotalsBetweenUsers(fromUserId, toUserId);
+        if (totals.isEmpty()) {
+            return new SettleUpResult(fromUserId, toUserId, groupId, 0, BigDecimal.ZERO);
+        }
+        
+        LocalDateTime settledAt = LocalDateTime.now();
+        int settledCount = groupId != null
+                ? expenseSplitRepository.settleAllBetweenUsersInGroup(groupId, fromUserId, toUserId, settledAt)
+                : expenseSplitRepository.settleAllBetweenUsers(fromUserId, toUserId, settledAt);
+        
+        long expectedCount = 0;
+        BigDecimal settledAmount = BigDecimal.ZERO;
+        for (GroupSettlementTotal total : totals) {
+            expectedCount += total.getSplitCount();
+            settledAmount = settledAmount.add(total.getTotal());
+        }
+        if (settledCount != expectedCount) {
+            throw new IllegalStateException("Splits between the users changed while settling up, please retry");
+        }
+        
+        for (GroupSettlementTotal total : totals) {
+            balanceLedgerService.recordSettledUp(total.getGroupId(), fromUserId, total.getTotal());
+            groupVersionService.bump(total.getGroupId());
+        }
+        return new SettleUpResult(fromUserId, toUserId, groupId, settledCount, settledAmount);
+    }
+    
     /**
      * Delete an expense and all its splits
      * @param id the expense ID
      * @throws IllegalArgumentException if expense not found
      */
     public void deleteExpense(Long id) {
-        if (!expenseRepository.existsById(id)) {
-            throw new IllegalArgumentException("Expense not found with id: " + id);
-        }
+        Expense expense = expenseRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found with id: " + id));
+        
+        // Reverse the expense in the balance ledger, the monthly rollups and the group counters before its splits disappear
+        List<ExpenseSplit> splits = expenseSplitRepository.findByExpenseId(id);
+        balanceLedgerService.recordExpenseDeleted(expense, splits);
+        monthlySpendService.recordExpenseDeleted(expense, splits);
+        groupCounterService.expenseDeleted(expense);
+        groupVersionService.bump(expense.getGroup().getId());
+        expenseSearchIndex.removeAfterCommit(expense.getGroup().getId(), id);
         
         // Delete splits first
         expenseSplitRepository.deleteByExpenseId(id);
@@ -240,12 +453,13 @@ public class ExpenseService {
     }
     
     /**
-     * Get total amount spent in a group
+     * Get total amount spent in a group from its maintained counter
      * @param groupId the group ID
      * @return total amount spent
      */
     @Transactional(readOnly = true)
     public BigDecimal getTotalAmountByGroupId(Long groupId) {
-        return expenseRepository.getTotalAmountByGroupId(groupId);
+        BigDecimal totalAmount = groupRepository.findTotalAmountById(groupId);
+        return totalAmount != null ? totalAmount : BigDecimal.ZERO;
     }
 }
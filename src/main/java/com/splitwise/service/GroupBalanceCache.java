@@ -0,0 +1,160 @@
+package com.splitwise.service;
+
+import com.splitwise.dto.BalanceResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of group balances with a time-to-live.
+ * Entries are tagged with the group version they were computed at and are only served
+ * while that version is still current (see {@link GroupVersionService}).
+ */
+@Component
+public class GroupBalanceCache {
+    
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public GroupBalanceCache(@Value("${splitwise.balance.cache.enabled:true}") boolean enabled,
+                            @Value("${splitwise.balance.cache.max-size:1000}") int maxSize,
+                            @Value("${splitwise.balance.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+    
+    /**
+     * Get a cached balance if it was computed at the given version and has not expired
+     * @param groupId the group ID
+     * @param version the current group version
+     * @return the cached balance or null
+     */
+    public BalanceResponse get(Long groupId, long version) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(groupId);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.version != version) {
+                entries.remove(groupId);
+                invalidations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(groupId);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.balance;
+        }
+    }
+    
+    /**
+     * Cache a balance computed at the given version
+     * @param groupId the group ID
+     * @param version the group version observed before the balance was computed
+     * @param balance the computed balance
+     */
+    public void put(Long groupId, long version, BalanceResponse balance) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(groupId, new Entry(balance, version, System.currentTimeMillis() + ttlMillis));
+            evictIfNeeded();
+        }
+    }
+    
+    /**
+     * Get cache statistics
+     * @return a snapshot of the cache counters
+     */
+    public Stats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(enabled, size, maxSize, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+    
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+    
+    private static class Entry {
+        final BalanceResponse balance;
+        final long version;
+        final long expiresAt;
+        
+        Entry(BalanceResponse balance, long version, long expiresAt) {
+            this.balance = balance;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    public static class Stats {
+        private boolean enabled;
+        private int size;
+        private int maxSize;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long expirations;
+        private long invalidations;
+        
+        public Stats(boolean enabled, int size, int maxSize, long hits, long misses,
+                     long evictions, long expirations, long invalidations) {
+            this.enabled = enabled;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+        
+        public boolean isEnabled() { return enabled; }
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+        
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.splitwise.service;
+
+import com.splitwise.entity.Expense;
+import com.splitwise.repository.ExpenseRepository;
+import com.splitwise.repository.GroupCounterCheck;
+import com.splitwise.repository.GroupExpenseTotal;
+import com.splitwise.repository.GroupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the denormalized member count, expense count, total amount and last activity time of groups.
+ * Every membership or expense write applies its delta with one bulk UPDATE in the writer's transaction,
+ * so group pages read the counters from the group row instead of counting members and summing expenses.
+ * A scheduled reconciliation recounts the groups whose counters drifted from their rows and repairs them.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class GroupCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCounterService.class);
+
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileChunkSize;
+
+    private final AtomicLong reconcileRuns = new AtomicLong();
+    private final AtomicLong groupsChecked = new AtomicLong();
+    private final AtomicLong groupsDrifted = new AtomicLong();
+    private final AtomicLong groupsRepaired = new AtomicLong();
+
+    @Autowired
+    public GroupCounterService(GroupRepository groupRepository,
+                              ExpenseRepository expenseRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${splitwise.group.counters.reconcile-chunk-size:500}") int reconcileChunkSize) {
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileChunkSize = Math.max(1, reconcileChunkSize);
+    }
+
+    /**
+     * Count a new member of a group
+     * @param groupId the group ID
+     */
+    public void memberAdded(Long groupId) {
+        groupRepository.adjustMemberCount(groupId, 1, LocalDateTime.now());
+    }
+
+    /**
+     * Uncount a member removed from a group
+     * @param groupId the group ID
+     */
+    public void memberRemoved(Long groupId) {
+        groupRepository.adjustMemberCount(groupId, -1, LocalDateTime.now());
+    }
+
+    /**
+     * Count a newly created expense in its group
+     * @param expense the persisted expense
+     */
+    public void expenseCreated(Expense expense) {
+        groupRepository.adjustExpenseCounters(expense.getGroup().getId(), 1, expense.getAmount(), LocalDateTime.now());
+    }
+
+    /**
+     * Count a batch of newly created expenses with one UPDATE per group
+     * @param expenses the persisted expenses
+     */
+    public void expensesCreated(Collection<Expense> expenses) {
+        Map<Long, long[]> counts = new LinkedHashMap<>();
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            Long groupId = expense.getGroup().getId();
+            counts.computeIfAbsent(groupId, id -> new long[1])[0]++;
+            amounts.merge(groupId, expense.getAmount(), BigDecimal::add);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, long[]> entry : counts.entrySet()) {
+            groupRepository.adjustExpenseCounters(entry.getKey(), entry.getValue()[0], amounts.get(entry.getKey()), now);
+        }
+    }
+
+    /**
+     * Uncount an expense that is being deleted
+     * @param expense the expense being deleted
+     */
+    public void expenseDeleted(Expense expense) {
+        groupRepository.adjustExpenseCounters(expense.getGroup().getId(), -1, expense.getAmount().negate(),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Uncount a user that is about to be deleted: their memberships and the expenses they paid,
+     * which the database removes with the user. Must run before the user row is deleted.
+     * @param userId the user ID
+     * @param groupIds the IDs of the groups the user belongs to
+     */
+    public void userRemoved(Long userId, Collection<Long> groupIds) {
+        if (!groupIds.isEmpty()) {
+            groupRepository.decrementMemberCounts(groupIds);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (GroupExpenseTotal total : expenseRepository.getExpenseTotalsPaidByUser(userId)) {
+            groupRepository.adjustExpenseCounters(total.getGroupId(), -total.getExpenseCount(),
+                    total.getTotalAmount().negate(), now);
+        }
+    }
+
+    /**
+     * Compare every group's counters with its rows and recount the groups that drifted.
+     * Groups are checked in chunks without locks; each repair locks the group row first, so a write
+     * that lands between the check and the repair is included in the recount instead of lost.
+     * @return the outcome of the run
+     */
+    @Scheduled(fixedDelayString = "${splitwise.group.counters.reconcile-interval-ms:3600000}",
+               initialDelayString = "${splitwise.group.counters.reconcile-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NEVER)
+    public ReconcileResult reconcileAll() {
+        long start = System.currentTimeMillis();
+        List<Long> groupIds = transactionTemplate.execute(status -> groupRepository.findAllIds());
+        int checked = 0;
+        int repaired = 0;
+        List<Long> driftedIds = new ArrayList<>();
+        for (int from = 0; from < groupIds.size(); from += reconcileChunkSize) {
+            List<Long> chunk = groupIds.subList(from, Math.min(groupIds.size(), from + reconcileChunkSize));
+            List<GroupCounterCheck> checks = transactionTemplate.execute(status -> groupRepository.findCounterChecks(chunk));
+            checked += checks.size();
+            for (GroupCounterCheck check : checks) {
+                if (!hasDrifted(check)) {
+                    continue;
+                }
+                driftedIds.add(check.getGroupId());
+                logger.warn("Counters of group {} drifted (members {}/{}, expenses {}/{}, total {}/{}), recounting",
+                        check.getGroupId(), check.getMemberCount(), check.getActualMemberCount(),
+                        check.getExpenseCount(), check.getActualExpenseCount(),
+                        check.getTotalAmount(), check.getActualTotalAmount());
+                try {
+                    Integer updated = transactionTemplate.execute(status ->
+                            groupRepository.lockById(check.getGroupId()) == null
+                                    ? 0 : groupRepository.recountCounters(check.getGroupId()));
+                    repaired += updated;
+                } catch (RuntimeException e) {
+                    logger.warn("Recount of group {} counters failed, will retry", check.getGroupId(), e);
+                }
+            }
+        }
+        reconcileRuns.incrementAndGet();
+        groupsChecked.addAndGet(checked);
+        groupsDrifted.addAndGet(driftedIds.size());
+        groupsRepaired.addAndGet(repaired);
+        long elapsed = System.currentTimeMillis() - start;
+        if (!driftedIds.isEmpty()) {
+            logger.info("Reconciled group counters: {} checked, {} drifted, {} repaired in {} ms",
+                    checked, driftedIds.size(), repaired, elapsed);
+        }
+        return new ReconcileResult(checked, driftedIds, repaired, elapsed);
+    }
+
+    /**
+     * Get counter maintenance statistics
+     * @return a snapshot of the reconciliation counters
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Stats getStats() {
+        return new Stats(reconcileRuns.get(), groupsChecked.get(), groupsDrifted.get(), groupsRepaired.get());
+    }
+
+    private static boolean hasDrifted(GroupCounterCheck check) {
+        return check.getMemberCount().longValue() != check.getActualMemberCount()
+                || check.getExpenseCount().longValue() != check.getActualExpenseCount()
+                || check.getTotalAmount().compareTo(check.getActualTotalAmount()) != 0;
+    }
+
+    public static class ReconcileResult {
+        private int checked;
+        private List<Long> driftedGroupIds;
+        private int repaired;
+        private long elapsedMillis;
+
+        public ReconcileResult(int checked, List<Long> driftedGroupIds, int repaired, long elapsedMillis) {
+            this.checked = checked;
+            this.driftedGroupIds = driftedGroupIds;
+            this.repaired = repaired;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getChecked() { return checked; }
+        public List<Long> getDriftedGroupIds() { return driftedGroupIds; }
+        public int getRepaired() { return repaired; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    public static class Stats {
+        private long reconcileRuns;
+        private long groupsChecked;
+        private long groupsDrifted;
+        private long groupsRepaired;
+
+        public Stats(long reconcileRuns, long groupsChecked, long groupsDrifted, long groupsRepaired) {
+            this.reconcileRuns = reconcileRuns;
+            this.groupsChecked = groupsChecked;
+            this.groupsDrifted = groupsDrifted;
+            this.groupsRepaired = groupsRepaired;
+        }
+
+        public long getReconcileRuns() { return reconcileRuns; }
+        public long getGroupsChecked() { return groupsChecked; }
+        public long getGroupsDrifted() { return groupsDrifted; }
+        public long getGroupsRepaired() { return groupsRepaired; }
+    }
+}
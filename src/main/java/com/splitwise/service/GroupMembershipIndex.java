@@ -0,0 +1,361 @@
+package com.splitwise.service;
+
+import com.splitwise.repository.GroupMemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory membership index for authorization and membership checks.
+ * Holds each user's group IDs and each group's member IDs as immutable sorted long arrays (binary-searched,
+ * replaced on change). Entries are loaded lazily with one ID query, and {@link GroupService} and
+ * {@link UserService} apply their membership changes once the writing transaction commits;
+ * a cached answer costs no database round trip. Entries expire after a few seconds so changes made by
+ * another application node are picked up, and the least recently used entries are evicted beyond the size cap.
+ * Writes that must not act on a stale answer use {@link #confirmMember(Long, Long)}, which asks the database.
+ */
+@Component
+public class GroupMembershipIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final int maxCachedEntries;
+    private final long ttlMillis;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Long, Entry> groupIdsByUser = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Entry> memberIdsByGroup = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Incremented on every applied change; an entry loaded across a change is returned but not cached
+    private final AtomicLong changeEpoch = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+
+    @Autowired
+    public GroupMembershipIndex(GroupMemberRepository groupMemberRepository,
+                                @Value("${splitwise.membership.max-cached-entries:100000}") int maxCachedEntries,
+                                @Value("${splitwise.membership.ttl-seconds:10}") long ttlSeconds) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.maxCachedEntries = Math.max(1, maxCachedEntries);
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Check whether a user is a member of a group
+     * @param userId the user ID
+     * @param groupId the group ID
+     * @return true if the user is a member
+     */
+    public boolean isMember(Long userId, Long groupId) {
+        if (userId == null || groupId == null) {
+            return false;
+        }
+        long[] groupIds = cached(groupIdsByUser, userId);
+        if (groupIds != null) {
+            return contains(groupIds, groupId);
+        }
+        long[] memberIds = cached(memberIdsByGroup, groupId);
+        if (memberIds != null) {
+            return contains(memberIds, userId);
+        }
+        // Authorization checks come from the current user, whose groups are worth keeping
+        return contains(userGroupIds(userId), groupId);
+    }
+
+    /**
+     * Check whether a user is a member of a group against the database, bypassing the cache
+     * @param userId the user ID
+     * @param groupId the group ID
+     * @return true if the user is a member
+     */
+    public boolean confirmMember(Long userId, Long groupId) {
+        if (userId == null || groupId == null) {
+            return false;
+        }
+        return groupMemberRepository.existsByUserIdAndGroupId(userId, groupId);
+    }
+
+    /**
+     * Get the IDs of the groups a user belongs to
+     * @param userId the user ID
+     * @return group IDs in ascending order
+     */
+    public List<Long> getGroupIds(Long userId) {
+        long[] groupIds = userGroupIds(userId);
+        List<Long> result = new ArrayList<>(groupIds.length);
+        for (long groupId : groupIds) {
+            result.add(groupId);
+        }
+        return result;
+    }
+
+    /**
+     * Get a membership test over a group's current members, for checking many users against one group
+     * @param groupId the group ID
+     * @return a predicate that is true for user IDs of members
+     */
+    public LongPredicate memberCheck(Long groupId) {
+        long[] memberIds = groupMemberIds(groupId);
+        return userId -> Arrays.binarySearch(memberIds, userId) >= 0;
+    }
+
+    /**
+     * Get a membership test over a group's members as the database has them now, bypassing the cache,
+     * for writes that must not act on a stale member list
+     * @param groupId the group ID
+     * @return a predicate that is true for user IDs of members
+     */
+    public LongPredicate confirmedMemberCheck(Long groupId) {
+        long[] memberIds = toSortedArray(groupMemberRepository.findUserIdsByGroupId(groupId));
+        return userId -> Arrays.binarySearch(memberIds, userId) >= 0;
+    }
+
+    /**
+     * Record a new membership once the current transaction commits
+     * @param userId the user ID
+     * @param groupId the group ID
+     */
+    public void memberAddedAfterCommit(Long userId, Long groupId) {
+        afterCommit(() -> {
+            groupIdsByUser.computeIfPresent(userId, (id, entry) -> entry.withIds(insert(entry.ids, groupId)));
+            memberIdsByGroup.computeIfPresent(groupId, (id, entry) -> entry.withIds(insert(entry.ids, userId)));
+        });
+    }
+
+    /**
+     * Record a removed membership once the current transaction commits
+     * @param userId the user ID
+     * @param groupId the group ID
+     */
+    public void memberRemovedAfterCommit(Long userId, Long groupId) {
+        afterCommit(() -> {
+            groupIdsByUser.computeIfPresent(userId, (id, entry) -> entry.withIds(remove(entry.ids, groupId)));
+            memberIdsByGroup.computeIfPresent(groupId, (id, entry) -> entry.withIds(remove(entry.ids, userId)));
+        });
+    }
+
+    /**
+     * Drop a group and all its memberships once the current transaction commits (group deleted)
+     * @param groupId the group ID
+     */
+    public void groupRemovedAfterCommit(Long groupId) {
+        afterCommit(() -> {
+            memberIdsByGroup.remove(groupId);
+            // Members may be cached without the group, so every cached user is checked
+            groupIdsByUser.replaceAll((id, entry) -> entry.withIds(remove(entry.ids, groupId)));
+        });
+    }
+
+    /**
+     * Drop a user and all their memberships once the current transaction commits (user deleted)
+     * @param userId the user ID
+     */
+    public void userRemovedAfterCommit(Long userId) {
+        afterCommit(() -> {
+            groupIdsByUser.remove(userId);
+            memberIdsByGroup.replaceAll((id, entry) -> entry.withIds(remove(entry.ids, userId)));
+        });
+    }
+
+    /**
+     * Get index statistics
+     * @return a snapshot of the index counters
+     */
+    public Stats getStats() {
+        int cachedUsers;
+        int cachedGroups;
+        synchronized (this) {
+            cachedUsers = groupIdsByUser.size();
+            cachedGroups = memberIdsByGroup.size();
+        }
+        return new Stats(cachedUsers, cachedGroups, maxCachedEntries, ttlMillis / 1000,
+                hits.get(), loads.get(), evictions.get(), expirations.get(), changes.get());
+    }
+
+    private long[] userGroupIds(Long userId) {
+        long[] groupIds = cached(groupIdsByUser, userId);
+        if (groupIds != null) {
+            return groupIds;
+        }
+        long epoch = changeEpoch.get();
+        loads.incrementAndGet();
+        groupIds = toSortedArray(groupMemberRepository.findGroupIdsByUserId(userId));
+        cache(groupIdsByUser, userId, groupIds, epoch);
+        return groupIds;
+    }
+
+    private long[] groupMemberIds(Long groupId) {
+        long[] memberIds = cached(memberIdsByGroup, groupId);
+        if (memberIds != null) {
+            return memberIds;
+        }
+        long epoch = changeEpoch.get();
+        loads.incrementAndGet();
+        memberIds = toSortedArray(groupMemberRepository.findUserIdsByGroupId(groupId));
+        cache(memberIdsByGroup, groupId, memberIds, epoch);
+        return memberIds;
+    }
+
+    private synchronized long[] cached(Map<Long, Entry> entries, Long key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.ids;
+    }
+
+    private synchronized void cache(Map<Long, Entry> entries, Long key, long[] ids, long epoch) {
+        if (epoch != changeEpoch.get()) {
+            return;
+        }
+        entries.put(key, new Entry(ids, System.currentTimeMillis() + ttlMillis));
+        // The new entry is the most recently used, so it is the last one the iterator reaches
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxCachedEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                changeEpoch.incrementAndGet();
+                changes.incrementAndGet();
+                change.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private static boolean contains(long[] sorted, long id) {
+        return Arrays.binarySearch(sorted, id) >= 0;
+    }
+
+    private static long[] insert(long[] sorted, long id) {
+        int index = Arrays.binarySearch(sorted, id);
+        if (index >= 0) {
+            return sorted;
+        }
+        index = -index - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        result[index] = id;
+        System.arraycopy(sorted, index, result, index + 1, sorted.length - index);
+        return result;
+    }
+
+    private static long[] remove(long[] sorted, long id) {
+        int index = Arrays.binarySearch(sorted, id);
+        if (index < 0) {
+            return sorted;
+        }
+        if (sorted.length == 1) {
+            return EMPTY;
+        }
+        long[] result = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        long[] result = new long[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            result[i++] = id;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static class Entry {
+        final long[] ids;
+        final long expiresAt;
+
+        Entry(long[] ids, long expiresAt) {
+            this.ids = ids;
+            this.expiresAt = expiresAt;
+        }
+
+        // A change applied on this node keeps the entry's expiry, so it is still reloaded on time
+        Entry withIds(long[] newIds) {
+            return newIds == ids ? this : new Entry(newIds, expiresAt);
+        }
+    }
+
+    public static class Stats {
+        private int cachedUsers;
+        private int cachedGroups;
+        private int maxCachedEntries;
+        private long ttlSeconds;
+        private long hits;
+        private long loads;
+        private long evictions;
+        private long expirations;
+        private long changes;
+
+        public Stats(int cachedUsers, int cachedGroups, int maxCachedEntries, long ttlSeconds,
+                     long hits, long loads, long evictions, long expirations, long changes) {
+            this.cachedUsers = cachedUsers;
+            this.cachedGroups = cachedGroups;
+            this.maxCachedEntries = maxCachedEntries;
+            this.ttlSeconds = ttlSeconds;
+            this.hits = hits;
+            this.loads = loads;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.changes = changes;
+        }
+
+        public int getCachedUsers() { return cachedUsers; }
+        public int getCachedGroups() { return cachedGroups; }
+        public int getMaxCachedEntries() { return maxCachedEntries; }
+        public long getTtlSeconds() { return ttlSeconds; }
+        public long getHits() { return hits; }
+        public long getLoads() { return loads; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getChanges() { return changes; }
+
+        public double getHitRatio() {
+            long total = hits + loads;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.splitwise.service;
+
+/**
+ * Thrown when a request names a group that does not exist. Controllers answer it with 404 Not Found;
+ * it stays an IllegalArgumentException so callers that treat every bad argument alike keep working.
+ */
+public class GroupNotFoundException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public GroupNotFoundException(Long groupId) {
+        super("Group not found with id: " + groupId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.splitwise.service;
+
+import com.splitwise.repository.ExpenseRepository;
+import com.splitwise.repository.ExpenseSplitRepository;
+import com.splitwise.repository.GroupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Background purge of soft-deleted groups: expenses and their splits are removed in small
+ * transactions so no single statement holds locks on a large group for long
+ */
+@Service
+public class GroupPurgeService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GroupPurgeService.class);
+    
+    private final GroupRepository groupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public GroupPurgeService(GroupRepository groupRepository,
+                            ExpenseRepository expenseRepository,
+                            ExpenseSplitRepository expenseSplitRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${splitwise.group.purge.chunk-size:500}") int chunkSize) {
+        this.groupRepository = groupRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseSplitRepository = expenseSplitRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+    
+    /**
+     * Purge every soft-deleted group
+     * @return number of groups purged
+     */
+    @Scheduled(fixedDelayString = "${splitwise.group.purge.interval-ms:30000}")
+    @Transactional(propagation = Propagation.NEVER)
+    public int purgeDeletedGroups() {
+        List<Long> groupIds = transactionTemplate.execute(status -> groupRepository.findDeletedIds());
+        int purged = 0;
+        for (Long groupId : groupIds) {
+            try {
+                purgeGroup(groupId);
+                purged++;
+            } catch (RuntimeException e) {
+                logger.warn("Purge of deleted group {} failed, will retry", groupId, e);
+            }
+        }
+        return purged;
+    }
+    
+    private void purgeGroup(Long groupId) {
+        int expenses = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> expenseIds = expenseRepository.findIdsByGroupId(groupId, chunkSize);
+                if (expenseIds.isEmpty()) {
+                    return 0;
+                }
+                expenseSplitRepository.deleteByExpenseIdIn(expenseIds);
+                return expenseRepository.deleteByIdIn(expenseIds);
+            });
+            if (deleted == 0) {
+                break;
+            }
+            expenses += deleted;
+        }
+        transactionTemplate.executeWithoutResult(status -> groupRepository.purgeDeletedGroup(groupId));
+        logger.info("Purged deleted group {} ({} expenses)", groupId, expenses);
+    }
+}
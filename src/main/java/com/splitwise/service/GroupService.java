@@ -1,6 +1,5 @@
 package com.splitwise.service;
 
-import com.splitwise.entity.Expense;
 import com.splitwise.entity.Group;
 import com.splitwise.entity.GroupMember;
 import com.splitwise.entity.User;
@@ -29,6 +28,13 @@ public class GroupService {
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final SecurityUtil securityUtil;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+    private final ExpenseSearchIndex expenseSearchIndex;
+    private final TypeaheadService typeaheadService;
+    private final MonthlySpendService monthlySpendService;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final GroupCounterService groupCounterService;
 
     @Autowired
     public GroupService(GroupRepository groupRepository,
@@ -36,13 +42,27 @@ public class GroupService {
                        UserRepository userRepository,
                        ExpenseRepository expenseRepository,
                        ExpenseSplitRepository expenseSplitRepository,
-                       SecurityUtil securityUtil) {
+                       SecurityUtil securityUtil,
+                       BalanceLedgerService balanceLedgerService,
+                       GroupVersionService groupVersionService,
+                       ExpenseSearchIndex expenseSearchIndex,
+                       TypeaheadService typeaheadService,
+                       MonthlySpendService monthlySpendService,
+                       GroupMembershipIndex groupMembershipIndex,
+                       GroupCounterService groupCounterService) {
         this.groupRepository = groupRepository;
         this.groupMemberRepository = groupMemberRepository;
         this.userRepository = userRepository;
         this.expenseRepository = expenseRepository;
         this.expenseSplitRepository = expenseSplitRepository;
         this.securityUtil = securityUtil;
+        this.balanceLedgerService = balanceLedgerService;
+        this.groupVersionService = groupVersionService;
+        this.expenseSearchIndex = expenseSearchIndex;
+        this.typeaheadService = typeaheadService;
+        this.monthlySpendService = monthlySpendService;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.groupCounterService = groupCounterService;
     }
     
     /**
@@ -52,12 +72,16 @@ public class GroupService {
      */
     @Transactional
     public Group createGroup(Group group) {
-        group.setCreatedAt(LocalDateTime.now());
-        group.setUpdatedAt(LocalDateTime.now());
-        Group savedGroup = groupRepository.save(group);
+        LocalDateTime now = LocalDateTime.now();
+        group.setCreatedAt(now);
+        group.setUpdatedAt(now);
 
-        // Automatically add the current user as a member of the group
+        // Automatically add the current user as a member of the group, counted in the inserted row
         User currentUser = securityUtil.getCurrentUser();
+        group.setMemberCount(currentUser != null ? 1 : 0);
+        group.setLastActivityAt(now);
+        Group savedGroup = groupRepository.save(group);
+
         if (currentUser != null) {
             addUserToGroupInternal(savedGroup, currentUser);
         }
@@ -66,7 +90,7 @@ public class GroupService {
     }
 
     /**
-     * Internal method to add user to group without authorization checks
+     * Internal method to add user to group without authorization checks; the caller counts the member
      * @param group the group
      * @param user the user
      * @return the created group membership
@@ -77,6 +101,10 @@ public class GroupService {
         }
 
         GroupMember groupMember = new GroupMember(user, group);
+        groupVersionService.bump(group.getId());
+        typeaheadService.groupChangedAfterCommit(group.getId());
+        typeaheadService.callerChangedAfterCommit(user.getId());
+        groupMembershipIndex.memberAddedAfterCommit(user.getId(), group.getId());
         return groupMemberRepository.save(groupMember);
     }
     
@@ -116,6 +144,8 @@ public class GroupService {
         
         existingGroup.setName(updatedGroup.getName());
         existingGroup.setDescription(updatedGroup.getDescription());
+        groupVersionService.bump(id);
+        typeaheadService.groupChangedAfterCommit(id);
         
         return groupRepository.save(existingGroup);
     }
@@ -131,18 +161,40 @@ public class GroupService {
             throw new IllegalArgumentException("Group not found with id: " + id);
         }
 
-        // Delete all expenses and their splits first
-        List<Expense> expenses = expenseRepository.findByGroupIdOrderByExpenseDateDesc(id);
-        for (Expense expense : expenses) {
-            expenseSplitRepository.deleteByExpenseId(expense.getId());
-        }
+        // Set-based deletes, children first: splits, expenses, memberships, ledger and rollups, then the group
+        expenseSplitRepository.deleteByGroupId(id);
         expenseRepository.deleteByGroupId(id);
-
-        // Delete all group memberships
         groupMemberRepository.deleteByGroupId(id);
+        balanceLedgerService.removeGroup(id);
+        monthlySpendService.removeGroup(id);
+        groupRepository.deleteGroupById(id);
+        groupVersionService.bump(id);
+        expenseSearchIndex.dropGroupAfterCommit(id);
+        typeaheadService.groupChangedAfterCommit(id);
+        groupMembershipIndex.groupRemovedAfterCommit(id);
+    }
+    
+    /**
+     * Delete a group asynchronously: the group is soft-deleted and loses its members, ledger and rollups
+     * right away, while its expenses and splits are purged in chunks by {@link GroupPurgeService}.
+     * Until then cross-group totals, listings and settle-ups skip the group's splits (deleted_at IS NULL filters).
+     * @param id the group ID
+     * @throws IllegalArgumentException if group not found
+     */
+    @Transactional
+    public void scheduleGroupDeletion(Long id) {
+        if (!groupRepository.existsById(id)) {
+            throw new IllegalArgumentException("Group not found with id: " + id);
+        }
 
-        // Then delete the group
-        groupRepository.deleteById(id);
+        groupRepository.markDeleted(id, LocalDateTime.now());
+        groupMemberRepository.deleteByGroupId(id);
+        balanceLedgerService.removeGroup(id);
+        monthlySpendService.removeGroup(id);
+        groupVersionService.bump(id);
+        expenseSearchIndex.dropGroupAfterCommit(id);
+        typeaheadService.groupChangedAfterCommit(id);
+        groupMembershipIndex.groupRemovedAfterCommit(id);
     }
     
     /**
@@ -156,7 +208,7 @@ public class GroupService {
     public GroupMember addUserToGroup(Long groupId, Long userId) {
         // Check if current user is a member of the group (authorization)
         User currentUser = securityUtil.getCurrentUser();
-        if (currentUser != null && !groupMemberRepository.existsByUserIdAndGroupId(currentUser.getId(), groupId)) {
+        if (currentUser != null && !groupMembershipIndex.confirmMember(currentUser.getId(), groupId)) {
             throw new IllegalArgumentException("You are not authorized to add users to this group");
         }
 
@@ -166,11 +218,17 @@ public class GroupService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
 
+        // Decided from the row, not the index, which may not have seen another node's change yet
         if (groupMemberRepository.existsByUserIdAndGroupId(userId, groupId)) {
             throw new IllegalArgumentException("User is already a member of this group");
         }
 
         GroupMember groupMember = new GroupMember(user, group);
+        groupVersionService.bump(groupId);
+        typeaheadService.groupChangedAfterCommit(groupId);
+        typeaheadService.callerChangedAfterCommit(userId);
+        groupMembershipIndex.memberAddedAfterCommit(userId, groupId);
+        groupCounterService.memberAdded(groupId);
         return groupMemberRepository.save(groupMember);
     }
     
@@ -181,10 +239,15 @@ public class GroupService {
      * @throws IllegalArgumentException if group membership not found
      */
     public void removeUserFromGroup(Long groupId, Long userId) {
-        GroupMember groupMember = groupMemberRepository.findByUserIdAndGroupId(userId, groupId)
-                .orElseThrow(() -> new IllegalArgumentException("User is not a member of this group"));
+        if (groupMemberRepository.deleteByUserIdAndGroupId(userId, groupId) == 0) {
+            throw new IllegalArgumentException("User is not a member of this group");
+        }
         
-        groupMemberRepository.delete(groupMember);
+        groupVersionService.bump(groupId);
+        typeaheadService.groupChangedAfterCommit(groupId);
+        typeaheadService.callerChangedAfterCommit(userId);
+        groupMembershipIndex.memberRemovedAfterCommit(userId, groupId);
+        groupCounterService.memberRemoved(groupId);
     }
     
     /**
@@ -235,16 +298,17 @@ public class GroupService {
      */
     @Transactional(readOnly = true)
     public boolean isUserMemberOfGroup(Long userId, Long groupId) {
-        return groupMemberRepository.existsByUserIdAndGroupId(userId, groupId);
+        return groupMembershipIndex.isMember(userId, groupId);
     }
     
     /**
-     * Get the number of members in a group
+     * Get the number of members in a group from its maintained counter
      * @param groupId the group ID
      * @return number of members
      */
     @Transactional(readOnly = true)
     public long getGroupMemberCount(Long groupId) {
-        return groupMemberRepository.countMembersByGroupId(groupId);
+        Integer memberCount = groupRepository.findMemberCountById(groupId);
+        return memberCount != null ? memberCount : 0;
     }
 }
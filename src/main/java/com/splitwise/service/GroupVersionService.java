@@ -0,0 +1,102 @@
+package com.splitwise.service;
+
+import com.splitwise.repository.GroupDataVersion;
+import com.splitwise.repository.GroupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Tracks a monotonically increasing data version per group.
+ * Any write that changes what a group's expense or balance views show must bump the version;
+ * readers capture the version before loading data and may only reuse results produced at the
+ * same version. The version is persisted in groups.data_version, so it survives restarts and can
+ * be handed to clients as an ETag. Every read is a primary-key lookup of that column rather than
+ * a node-local copy, so a bump committed on any node is seen by all of them at once.
+ */
+@Service
+public class GroupVersionService {
+
+    private final GroupRepository groupRepository;
+
+    @Autowired
+    public GroupVersionService(GroupRepository groupRepository) {
+        this.groupRepository = groupRepository;
+    }
+
+    /**
+     * Get the current data version of a group
+     * @param groupId the group ID
+     * @return the current version, or 0 if the group does not exist
+     */
+    public long currentVersion(Long groupId) {
+        Long version = findVersion(groupId);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Get the current data version of a group, distinguishing missing groups
+     * @param groupId the group ID
+     * @return the current version, or null if the group does not exist
+     */
+    public Long findVersion(Long groupId) {
+        return groupRepository.findDataVersionById(groupId);
+    }
+
+    /**
+     * Get the current data versions of several groups with one query
+     * @param groupIds the group IDs
+     * @return versions by group ID; missing groups have no entry
+     */
+    public Map<Long, Long> findVersions(Collection<Long> groupIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (groupIds.isEmpty()) {
+            return versions;
+        }
+        for (GroupDataVersion row : groupRepository.findDataVersionsByIdIn(groupIds)) {
+            versions.put(row.getGroupId(), row.getDataVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * Get a strong ETag for the current data version of a group. Capture it before loading the
+     * data it labels: the body can then only be newer than the tag, never older.
+     * @param groupId the group ID
+     * @return the quoted ETag, or null if the group does not exist
+     */
+    public String currentETag(Long groupId) {
+        Long version = findVersion(groupId);
+        return version != null ? "\"g" + groupId + "-v" + version + "\"" : null;
+    }
+
+    /**
+     * Bump the version of a group inside the current transaction (or a new one). Other
+     * transactions only see the new version after commit, so a reader can never cache data
+     * that is older than the version it observed.
+     * @param groupId the group ID
+     */
+    @Transactional
+    public void bump(Long groupId) {
+        bumpAll(List.of(groupId));
+    }
+
+    /**
+     * Bump the versions of several groups with one statement
+     * @param groupIds the group IDs
+     */
+    @Transactional
+    public void bumpAll(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return;
+        }
+        // Sorted IDs keep the row lock order stable across concurrent writers
+        groupRepository.incrementDataVersions(new TreeSet<>(groupIds));
+    }
+}
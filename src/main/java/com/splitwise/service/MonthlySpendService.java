@@ -0,0 +1,289 @@
+package com.splitwise.service;
+
+import com.splitwise.dto.MonthlySpendReport;
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.ExpenseSplit;
+import com.splitwise.entity.MonthlySpend;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.MonthlySpendRepository;
+import com.splitwise.repository.MonthlySpendRow;
+import com.splitwise.util.SecurityUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintains the monthly_spend rollups of (group, member, month) with deltas applied inside the
+ * caller's transaction, and serves the group spend-over-time series from them
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class MonthlySpendService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonthlySpendService.class);
+
+    private final MonthlySpendRepository monthlySpendRepository;
+    private final GroupRepository groupRepository;
+    private final SecurityUtil securityUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillThreads;
+    private final boolean backfillOnStartup;
+    private final int maxMonths;
+
+    @Autowired
+    public MonthlySpendService(MonthlySpendRepository monthlySpendRepository,
+                              GroupRepository groupRepository,
+                              SecurityUtil securityUtil,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${splitwise.analytics.backfill-threads:4}") int backfillThreads,
+                              @Value("${splitwise.analytics.backfill-on-startup:false}") boolean backfillOnStartup,
+                              @Value("${splitwise.analytics.max-months:120}") int maxMonths) {
+        this.monthlySpendRepository = monthlySpendRepository;
+        this.groupRepository = groupRepository;
+        this.securityUtil = securityUtil;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillThreads = Math.max(1, backfillThreads);
+        this.backfillOnStartup = backfillOnStartup;
+        this.maxMonths = Math.max(1, maxMonths);
+    }
+
+    /**
+     * Record a newly created expense in its month: the payer's paid side and every split's owed side grow
+     * @param expense the persisted expense
+     * @param splits the persisted splits of the expense
+     */
+    public void recordExpenseCreated(Expense expense, Collection<ExpenseSplit> splits) {
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+        addExpense(deltas, expense, splits, 1);
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Record a batch of newly created expenses with one rollup upsert per (group, member, month)
+     * @param expenses the persisted expenses, with their splits attached
+     */
+    public void recordExpensesCreated(Collection<Expense> expenses) {
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            addExpense(deltas, expense, expense.getSplits(), 1);
+        }
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Reverse an expense that is about to be deleted
+     * @param expense the expense being deleted
+     * @param splits the splits of the expense
+     */
+    public void recordExpenseDeleted(Expense expense, Collection<ExpenseSplit> splits) {
+        Map<RollupKey, Delta> deltas = new LinkedHashMap<>();
+        addExpense(deltas, expense, splits, -1);
+        applyDeltas(deltas);
+    }
+
+    /**
+     * Drop the rollups of a deleted group
+     * @param groupId the group ID
+     */
+    public void removeGroup(Long groupId) {
+        monthlySpendRepository.deleteByGroupId(groupId);
+    }
+
+    /**
+     * Drop the rollup rows of a deleted user
+     * @param userId the user ID
+     */
+    public void removeUser(Long userId) {
+        monthlySpendRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Get a group's spend per month and per member from the rollups
+     * @param groupId the group ID
+     * @param from the first month as yyyy-MM, or null for eleven months before {@code to}
+     * @param to the last month as yyyy-MM, or null for the current month
+     * @return one entry per month of the range, oldest first, empty months included
+     * @throws GroupNotFoundException if the group does not exist
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public MonthlySpendReport getMonthlySpend(Long groupId, String from, String to) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new GroupNotFoundException(groupId);
+        }
+        YearMonth toMonth = to == null || to.isBlank() ? YearMonth.now() : parseMonth(to);
+        YearMonth fromMonth = from == null || from.isBlank() ? toMonth.minusMonths(11) : parseMonth(from);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (fromMonth.plusMonths(maxMonths).isBefore(toMonth.plusMonths(1))) {
+            throw new IllegalArgumentException("Range cannot exceed " + maxMonths + " months");
+        }
+
+        MonthlySpendReport report = new MonthlySpendReport(groupId, fromMonth, toMonth);
+        Map<YearMonth, MonthlySpendReport.Month> months = new LinkedHashMap<>();
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            MonthlySpendReport.Month point = new MonthlySpendReport.Month(month);
+            months.put(month, point);
+            report.getMonths().add(point);
+        }
+        for (MonthlySpendRow row : monthlySpendRepository.findByGroupIdAndMonthRange(
+                groupId, fromMonth.atDay(1), toMonth.atDay(1))) {
+            MonthlySpendReport.Month point = months.get(YearMonth.from(row.getMonthStart()));
+            // Rows zeroed out by deletions are kept in the table but left out of the series
+            if (point == null || (row.getPaidCount() == 0 && row.getOwedCount() == 0)) {
+                continue;
+            }
+            point.setTotalSpend(point.getTotalSpend().add(row.getPaidAmount()));
+            point.setExpenseCount(point.getExpenseCount() + row.getPaidCount());
+            point.getMembers().add(new MonthlySpendReport.MemberSpend(row.getUserId(), row.getUserName(),
+                    row.getPaidAmount(), row.getPaidCount(), row.getOwedAmount(), row.getOwedCount()));
+        }
+        return report;
+    }
+
+    /**
+     * Recompute the rollups of a group from its expenses and splits (administrators and group members only)
+     * @param groupId the group ID
+     * @throws GroupNotFoundException if the group does not exist
+     * @throws org.springframework.security.access.AccessDeniedException if the caller may not maintain the group
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void rebuildGroup(Long groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new GroupNotFoundException(groupId);
+        }
+        securityUtil.checkGroupMaintenanceAllowed(groupId);
+        rebuildGroupInternal(groupId);
+    }
+
+    /**
+     * Recompute the rollups of every group, one transaction per group, spread over
+     * splitwise.analytics.backfill-threads worker threads
+     * @return number of groups rebuilt
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public int backfillAll() {
+        long start = System.nanoTime();
+        List<Long> groupIds = transactionTemplate.execute(status -> groupRepository.findAllIds());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(backfillThreads, Math.max(1, groupIds.size())));
+        try {
+            List<CompletableFuture<Void>> rebuilds = new ArrayList<>(groupIds.size());
+            for (Long groupId : groupIds) {
+                rebuilds.add(CompletableFuture.runAsync(
+                        () -> transactionTemplate.executeWithoutResult(status -> rebuildGroupInternal(groupId)), pool));
+            }
+            CompletableFuture.allOf(rebuilds.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+        logger.info("Backfilled monthly spend rollups for {} groups in {} ms",
+                groupIds.size(), (System.nanoTime() - start) / 1_000_000);
+        return groupIds.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NEVER)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    private void rebuildGroupInternal(Long groupId) {
+        monthlySpendRepository.deleteByGroupId(groupId);
+        monthlySpendRepository.rebuildPaidForGroup(groupId);
+        monthlySpendRepository.rebuildOwedForGroup(groupId);
+    }
+
+    private YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month '" + month + "', expected yyyy-MM");
+        }
+    }
+
+    private void addExpense(Map<RollupKey, Delta> deltas, Expense expense, Collection<ExpenseSplit> splits, int sign) {
+        Long groupId = expense.getGroup().getId();
+        LocalDate monthStart = expense.getExpenseDate().toLocalDate().withDayOfMonth(1);
+        Delta paid = deltas.computeIfAbsent(new RollupKey(groupId, expense.getPaidBy().getId(), monthStart), key -> new Delta());
+        paid.paid = sign > 0 ? paid.paid.add(expense.getAmount()) : paid.paid.subtract(expense.getAmount());
+        paid.paidCount += sign;
+        for (ExpenseSplit split : splits) {
+            Delta owed = deltas.computeIfAbsent(new RollupKey(groupId, split.getOwedBy().getId(), monthStart), key -> new Delta());
+            owed.owed = sign > 0 ? owed.owed.add(split.getAmount()) : owed.owed.subtract(split.getAmount());
+            owed.owedCount += sign;
+        }
+    }
+
+    private void applyDeltas(Map<RollupKey, Delta> deltas) {
+        List<MonthlySpend> rows = new ArrayList<>(deltas.size());
+        for (Map.Entry<RollupKey, Delta> entry : deltas.entrySet()) {
+            RollupKey key = entry.getKey();
+            Delta delta = entry.getValue();
+            MonthlySpend row = new MonthlySpend(key.groupId, key.userId, key.monthStart);
+            row.setPaidAmount(delta.paid);
+            row.setPaidCount(delta.paidCount);
+            row.setOwedAmount(delta.owed);
+            row.setOwedCount(delta.owedCount);
+            rows.add(row);
+        }
+        // One multi-row upsert for every (member, month) touched instead of a round trip each
+        monthlySpendRepository.applyDeltas(rows);
+    }
+
+    private static final class RollupKey {
+        final Long groupId;
+        final Long userId;
+        final LocalDate monthStart;
+
+        RollupKey(Long groupId, Long userId, LocalDate monthStart) {
+            this.groupId = groupId;
+            this.userId = userId;
+            this.monthStart = monthStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey key = (RollupKey) o;
+            return groupId.equals(key.groupId) && userId.equals(key.userId) && monthStart.equals(key.monthStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupId, userId, monthStart);
+        }
+    }
+
+    private static final class Delta {
+        BigDecimal paid = BigDecimal.ZERO;
+        long paidCount;
+        BigDecimal owed = BigDecimal.ZERO;
+        long owedCount;
+    }
+}
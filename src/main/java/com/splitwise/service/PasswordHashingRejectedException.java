@@ -0,0 +1,24 @@
+package com.splitwise.service;
+
+/**
+ * Thrown when a password cannot be hashed or checked right now: the hashing executor's queue is full,
+ * or the email has had too many sign-in attempts. Controllers answer it with 429 Too Many Requests.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return seconds the client should wait before retrying (the Retry-After header)
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
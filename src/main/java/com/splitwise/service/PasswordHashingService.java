@@ -0,0 +1,250 @@
+package com.splitwise.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt hashing and verification on a small dedicated thread pool with a bounded queue.
+ * A request thread waits for its own hash, but once the queue is full further sign-ins are refused
+ * immediately with {@link PasswordHashingRejectedException} (429) instead of piling up, so a login storm
+ * occupies at most threads + queue-capacity request threads and other traffic keeps flowing.
+ * Sign-in attempts are also limited per email within a fixed time window.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final int maxAttemptsPerEmail;
+    private final long attemptWindowMillis;
+    private final int maxTrackedEmails;
+
+    // Normalized email -> attempts in its current window
+    private final ConcurrentHashMap<String, AttemptWindow> attempts = new ConcurrentHashMap<>();
+
+    private final AtomicLong hashes = new AtomicLong();
+    private final AtomicLong hashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong verifyNanos = new AtomicLong();
+    private final AtomicLong maxVerifyNanos = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    @Autowired
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${splitwise.auth.hashing.threads:2}") int threads,
+                                  @Value("${splitwise.auth.hashing.queue-capacity:50}") int queueCapacity,
+                                  @Value("${splitwise.auth.hashing.max-wait-ms:5000}") long maxWaitMillis,
+                                  @Value("${splitwise.auth.throttle.max-attempts:10}") int maxAttemptsPerEmail,
+                                  @Value("${splitwise.auth.throttle.window-seconds:60}") long attemptWindowSeconds,
+                                  @Value("${splitwise.auth.throttle.max-tracked-emails:100000}") int maxTrackedEmails) {
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxAttemptsPerEmail = Math.max(1, maxAttemptsPerEmail);
+        this.attemptWindowMillis = attemptWindowSeconds * 1000;
+        this.maxTrackedEmails = Math.max(1, maxTrackedEmails);
+    }
+
+    /**
+     * Hash a raw password on the hashing pool
+     * @param rawPassword the password
+     * @return the encoded password
+     * @throws PasswordHashingRejectedException if the hashing queue is full or the hash took too long
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), hashes, hashNanos, maxHashNanos);
+    }
+
+    /**
+     * Check a raw password against an encoded one on the hashing pool
+     * @param rawPassword the password
+     * @param encodedPassword the stored hash
+     * @return true if they match
+     * @throws PasswordHashingRejectedException if the hashing queue is full or the check took too long
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), verifications, verifyNanos, maxVerifyNanos);
+    }
+
+    /**
+     * Count a sign-in attempt for an email, refusing it once the email has used up its attempts for the window
+     * @param email the email being signed in or registered
+     * @throws PasswordHashingRejectedException if the email has too many recent attempts
+     */
+    public void recordAttempt(String email) {
+        long now = System.currentTimeMillis();
+        if (attempts.size() >= maxTrackedEmails) {
+            attempts.values().removeIf(window -> window.startedAt + attemptWindowMillis <= now);
+        }
+        String key = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        AttemptWindow window = attempts.compute(key, (k, current) ->
+                current == null || current.startedAt + attemptWindowMillis <= now
+                        ? new AttemptWindow(now, 1)
+                        : new AttemptWindow(current.startedAt, current.count + 1));
+        if (window.count > maxAttemptsPerEmail) {
+            throttled.incrementAndGet();
+            long retryAfter = Math.max(1, (window.startedAt + attemptWindowMillis - now + 999) / 1000);
+            throw new PasswordHashingRejectedException("Too many sign-in attempts for this email, please retry later", retryAfter);
+        }
+    }
+
+    /**
+     * Get hashing statistics
+     * @return a snapshot of the hashing counters
+     */
+    public Stats getStats() {
+        return new Stats(executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(), peakQueueDepth.get(),
+                hashes.get(), hashNanos.get(), maxHashNanos.get(), verifications.get(), verifyNanos.get(),
+                maxVerifyNanos.get(), shed.get(), timeouts.get(), throttled.get(), attempts.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task, AtomicLong count, AtomicLong totalNanos, AtomicLong maxNanos) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    count.incrementAndGet();
+                    totalNanos.addAndGet(elapsed);
+                    maxNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shed.incrementAndGet();
+            throw new PasswordHashingRejectedException("Too many sign-ins in progress, please retry shortly", 1);
+        }
+        peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.incrementAndGet();
+            throw new PasswordHashingRejectedException("Sign-in is taking too long, please retry shortly", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static final class AttemptWindow {
+        final long startedAt;
+        final int count;
+
+        AttemptWindow(long startedAt, int count) {
+            this.startedAt = startedAt;
+            this.count = count;
+        }
+    }
+
+    public static class Stats {
+        private int threads;
+        private int activeThreads;
+        private int queueDepth;
+        private int queueCapacity;
+        private int peakQueueDepth;
+        private long hashes;
+        private long hashNanos;
+        private long maxHashNanos;
+        private long verifications;
+        private long verifyNanos;
+        private long maxVerifyNanos;
+        private long shed;
+        private long timeouts;
+        private long throttled;
+        private int trackedEmails;
+
+        public Stats(int threads, int activeThreads, int queueDepth, int queueCapacity, int peakQueueDepth,
+                     long hashes, long hashNanos, long maxHashNanos, long verifications, long verifyNanos,
+                     long maxVerifyNanos, long shed, long timeouts, long throttled, int trackedEmails) {
+            this.threads = threads;
+            this.activeThreads = activeThreads;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.peakQueueDepth = peakQueueDepth;
+            this.hashes = hashes;
+            this.hashNanos = hashNanos;
+            this.maxHashNanos = maxHashNanos;
+            this.verifications = verifications;
+            this.verifyNanos = verifyNanos;
+            this.maxVerifyNanos = maxVerifyNanos;
+            this.shed = shed;
+            this.timeouts = timeouts;
+            this.throttled = throttled;
+            this.trackedEmails = trackedEmails;
+        }
+
+        public int getThreads() { return threads; }
+        public int getActiveThreads() { return activeThreads; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public int getPeakQueueDepth() { return peakQueueDepth; }
+        public long getHashes() { return hashes; }
+        public long getVerifications() { return verifications; }
+        public long getShed() { return shed; }
+        public long getTimeouts() { return timeouts; }
+        public long getThrottled() { return throttled; }
+        public int getTrackedEmails() { return trackedEmails; }
+
+        public double getAverageHashMillis() {
+            return hashes == 0 ? 0.0 : hashNanos / 1_000_000.0 / hashes;
+        }
+
+        public double getMaxHashMillis() {
+            return maxHashNanos / 1_000_000.0;
+        }
+
+        public double getAverageVerifyMillis() {
+            return verifications == 0 ? 0.0 : verifyNanos / 1_000_000.0 / verifications;
+        }
+
+        public double getMaxVerifyMillis() {
+            return maxVerifyNanos / 1_000_000.0;
+        }
+    }
+}
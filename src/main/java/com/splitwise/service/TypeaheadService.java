@@ -0,0 +1,327 @@
+package com.splitwise.service;
+
+import com.splitwise.dto.TypeaheadSuggestion;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.TypeaheadRow;
+import com.splitwise.repository.UserRepository;
+import com.splitwise.util.SecurityUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Keystroke typeahead over the users and groups a caller may pick.
+ * Each caller's contacts (users they created, users sharing a group with them, themselves) and groups
+ * are loaded once into an immutable sorted array of search terms, so a lookup is a binary search plus
+ * a scan of the matching range. These per-caller indexes sit in a bounded LRU cache and are dropped
+ * after commit whenever a user or group they contain changes.
+ */
+@Service
+public class TypeaheadService {
+
+    private static final String USER = "USER";
+    private static final String GROUP = "GROUP";
+
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final SecurityUtil securityUtil;
+    private final int maxCachedScopes;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final LinkedHashMap<Long, ScopeIndex> scopes = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Incremented on every invalidation; an index loaded across an invalidation is served but not cached
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public TypeaheadService(UserRepository userRepository,
+                            GroupRepository groupRepository,
+                            SecurityUtil securityUtil,
+                            @Value("${splitwise.typeahead.max-cached-scopes:1000}") int maxCachedScopes,
+                            @Value("${splitwise.typeahead.default-limit:10}") int defaultLimit,
+                            @Value("${splitwise.typeahead.max-limit:50}") int maxLimit) {
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.securityUtil = securityUtil;
+        this.maxCachedScopes = Math.max(1, maxCachedScopes);
+        this.maxLimit = Math.max(1, maxLimit);
+        this.defaultLimit = Math.max(1, Math.min(defaultLimit, this.maxLimit));
+    }
+
+    /**
+     * Suggest users and groups of the current user whose name (or any word of it) or email starts with the query
+     * @param query the typed prefix
+     * @param limit the maximum number of suggestions, or null for the default
+     * @return suggestions, names matching from their first character first, then alphabetically
+     */
+    public List<TypeaheadSuggestion> suggest(String query, Integer limit) {
+        String prefix = normalize(query);
+        Long currentUserId = securityUtil.getCurrentUserId();
+        if (prefix.isEmpty() || currentUserId == null) {
+            return List.of();
+        }
+        int maxResults = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        return scopeOf(currentUserId).suggest(prefix, maxResults);
+    }
+
+    /**
+     * Drop every cached index containing the user, once the current transaction commits (user renamed or deleted)
+     * @param userId the user ID
+     */
+    public void userChangedAfterCommit(Long userId) {
+        afterCommit(() -> invalidate(scope -> scope.userIds.contains(userId)));
+    }
+
+    /**
+     * Drop every cached index containing the group, once the current transaction commits
+     * (group renamed or deleted, or its member list changed)
+     * @param groupId the group ID
+     */
+    public void groupChangedAfterCommit(Long groupId) {
+        afterCommit(() -> invalidate(scope -> scope.groupIds.contains(groupId)));
+    }
+
+    /**
+     * Drop the cached index of one caller, once the current transaction commits
+     * (the caller created a user, or joined or left a group)
+     * @param userId the caller's user ID
+     */
+    public void callerChangedAfterCommit(Long userId) {
+        afterCommit(() -> invalidate(scope -> scope.ownerId.equals(userId)));
+    }
+
+    /**
+     * Get cache statistics
+     * @return a snapshot of the cache counters
+     */
+    public Stats getStats() {
+        int size;
+        synchronized (scopes) {
+            size = scopes.size();
+        }
+        return new Stats(size, maxCachedScopes, hits.get(), misses.get(), evictions.get(), invalidations.get());
+    }
+
+    private ScopeIndex scopeOf(Long userId) {
+        synchronized (scopes) {
+            ScopeIndex cached = scopes.get(userId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+        // Each query reads in its own transaction started after the epoch is taken, so a write that
+        // commits before the queries see it always moves the epoch and keeps this index out of the cache
+        long epoch = invalidationEpoch.get();
+        ScopeIndex loaded = new ScopeIndex(userId,
+                userRepository.findTypeaheadContacts(userId), groupRepository.findTypeaheadGroups(userId));
+        synchronized (scopes) {
+            if (invalidationEpoch.get() == epoch) {
+                scopes.put(userId, loaded);
+                Iterator<Map.Entry<Long, ScopeIndex>> iterator = scopes.entrySet().iterator();
+                while (scopes.size() > maxCachedScopes && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void invalidate(Predicate<ScopeIndex> affected) {
+        synchronized (scopes) {
+            invalidationEpoch.incrementAndGet();
+            Iterator<ScopeIndex> iterator = scopes.values().iterator();
+            while (iterator.hasNext()) {
+                if (affected.test(iterator.next())) {
+                    iterator.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable prefix index of one caller: search terms sorted for binary search, each pointing at its target.
+     * A target is reachable through its full name, every later word of its name, and its email.
+     */
+    private static final class ScopeIndex {
+
+        // Leading matches first, then alphabetical; type and ID keep the order total
+        private static final Comparator<Map.Entry<Target, Boolean>> RANKING =
+                Comparator.comparing((Map.Entry<Target, Boolean> match) -> !match.getValue())
+                        .thenComparing(match -> match.getKey().sortKey)
+                        .thenComparing(match -> match.getKey().type)
+                        .thenComparing(match -> match.getKey().id);
+
+        private final Long ownerId;
+        private final Set<Long> userIds = new HashSet<>();
+        private final Set<Long> groupIds = new HashSet<>();
+        private final String[] terms;
+        private final Target[] targets;
+        private final boolean[] leading; // Term starts at the first character of the name or email
+
+        ScopeIndex(Long ownerId, List<TypeaheadRow> users, List<TypeaheadRow> groups) {
+            this.ownerId = ownerId;
+            List<Term> entries = new ArrayList<>();
+            for (TypeaheadRow row : users) {
+                if (userIds.add(row.getId())) {
+                    addTerms(entries, new Target(USER, row.getId(), row.getName(), row.getEmail()));
+                }
+            }
+            for (TypeaheadRow row : groups) {
+                if (groupIds.add(row.getId())) {
+                    addTerms(entries, new Target(GROUP, row.getId(), row.getName(), null));
+                }
+            }
+            entries.sort(Comparator.comparing((Term term) -> term.text));
+            terms = new String[entries.size()];
+            targets = new Target[entries.size()];
+            leading = new boolean[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                terms[i] = entries.get(i).text;
+                targets[i] = entries.get(i).target;
+                leading[i] = entries.get(i).leading;
+            }
+        }
+
+        List<TypeaheadSuggestion> suggest(String prefix, int limit) {
+            int from = Arrays.binarySearch(terms, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+            // A target can match through several terms; keep its best (leading) match
+            Map<Target, Boolean> matches = new HashMap<>();
+            for (int i = from; i < terms.length && terms[i].startsWith(prefix); i++) {
+                matches.merge(targets[i], leading[i], Boolean::logicalOr);
+            }
+            // Short prefixes match most of the scope: keep only the best `limit` matches instead of sorting them all
+            PriorityQueue<Map.Entry<Target, Boolean>> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (Map.Entry<Target, Boolean> match : matches.entrySet()) {
+                best.add(match);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Map.Entry<Target, Boolean>> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<TypeaheadSuggestion> suggestions = new ArrayList<>(ranked.size());
+            for (Map.Entry<Target, Boolean> match : ranked) {
+                Target target = match.getKey();
+                suggestions.add(new TypeaheadSuggestion(target.type, target.id, target.label, target.detail));
+            }
+            return suggestions;
+        }
+
+        private static void addTerms(List<Term> entries, Target target) {
+            String name = normalize(target.label);
+            if (!name.isEmpty()) {
+                entries.add(new Term(name, target, true));
+                for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                    entries.add(new Term(name.substring(i + 1), target, false));
+                }
+            }
+            if (target.detail != null) {
+                entries.add(new Term(normalize(target.detail), target, true));
+            }
+        }
+    }
+
+    private static final class Term {
+        final String text;
+        final Target target;
+        final boolean leading;
+
+        Term(String text, Target target, boolean leading) {
+            this.text = text;
+            this.target = target;
+            this.leading = leading;
+        }
+    }
+
+    private static final class Target {
+        final String type;
+        final Long id;
+        final String label;
+        final String detail;
+        final String sortKey;
+
+        Target(String type, Long id, String label, String detail) {
+            this.type = type;
+            this.id = id;
+            this.label = label;
+            this.detail = detail;
+            this.sortKey = normalize(label);
+        }
+    }
+
+    public static class Stats {
+        private int size;
+        private int maxSize;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long invalidations;
+
+        public Stats(int size, int maxSize, long hits, long misses, long evictions, long invalidations) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
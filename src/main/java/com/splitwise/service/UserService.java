@@ -4,7 +4,6 @@ import com.splitwise.entity.User;
 import com.splitwise.repository.ExpenseSplitRepository;
 import com.splitwise.repository.UserRepository;
 import com.splitwise.util.SecurityUtil;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,18 +20,35 @@ public class UserService {
     private final UserRepository userRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final SecurityUtil securityUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final BalanceLedgerService balanceLedgerService;
+    private final GroupVersionService groupVersionService;
+    private final TypeaheadService typeaheadService;
+    private final MonthlySpendService monthlySpendService;
+    private final CurrentUserCache currentUserCache;
+    private final GroupMembershipIndex groupMembershipIndex;
+    private final GroupCounterService groupCounterService;
 
     @Autowired
-    public UserService(UserRepository userRepository, ExpenseSplitRepository expenseSplitRepository, SecurityUtil securityUtil) {
+    public UserService(UserRepository userRepository, ExpenseSplitRepository expenseSplitRepository, SecurityUtil securityUtil,
+                       BalanceLedgerService balanceLedgerService,
+                       GroupVersionService groupVersionService, TypeaheadService typeaheadService,
+                       MonthlySpendService monthlySpendService, CurrentUserCache currentUserCache,
+                       GroupMembershipIndex groupMembershipIndex, GroupCounterService groupCounterService) {
         this.userRepository = userRepository;
         this.expenseSplitRepository = expenseSplitRepository;
         this.securityUtil = securityUtil;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.balanceLedgerService = balanceLedgerService;
+        this.groupVersionService = groupVersionService;
+        this.typeaheadService = typeaheadService;
+        this.monthlySpendService = monthlySpendService;
+        this.currentUserCache = currentUserCache;
+        this.groupMembershipIndex = groupMembershipIndex;
+        this.groupCounterService = groupCounterService;
     }
     
     /**
-     * Create a new user
+     * Create a new user. Users created through the API are placeholders without a password:
+     * nothing is hashed, and they cannot log in until they register with the same email.
      * @param user the user to create
      * @return the created user
      * @throws IllegalArgumentException if email already exists
@@ -43,16 +59,14 @@ public class UserService {
             throw new IllegalArgumentException("User with email " + user.getEmail() + " already exists");
         }
 
-        // Set default password if not provided (for users created via API)
-        if (user.getPassword() == null || user.getPassword().isEmpty() || user.getPassword().trim().isEmpty()) {
-            String defaultPassword = passwordEncoder.encode("defaultpassword123");
-            user.setPassword(defaultPassword);
-        }
+        // Placeholder users carry no password (the field is never bound from JSON)
+        user.setPassword(null);
 
         // Set the creator of this user (for user isolation)
         User currentUser = securityUtil.getCurrentUser();
         if (currentUser != null) {
             user.setCreatedBy(currentUser);
+            typeaheadService.callerChangedAfterCommit(currentUser.getId());
         }
 
         user.setCreatedAt(LocalDateTime.now());
@@ -130,6 +144,12 @@ public class UserService {
         existingUser.setEmail(updatedUser.getEmail());
         existingUser.setPhone(updatedUser.getPhone());
         
+        // Member names are part of every group view the user appears in
+        groupVersionService.bumpAll(groupMembershipIndex.getGroupIds(id));
+        typeaheadService.userChangedAfterCommit(id);
+        currentUserCache.evictAfterCommit(id);
+        securityUtil.forgetCurrentUser(id);
+        
         return userRepository.save(existingUser);
     }
     
@@ -144,8 +164,19 @@ public class UserService {
             throw new IllegalArgumentException("User not found with id: " + id);
         }
 
-        // Delete all expense splits for this user first
+        List<Long> groupIds = groupMembershipIndex.getGroupIds(id);
+        groupVersionService.bumpAll(groupIds);
+        typeaheadService.userChangedAfterCommit(id);
+        currentUserCache.evictAfterCommit(id);
+        securityUtil.forgetCurrentUser(id);
+        groupMembershipIndex.userRemovedAfterCommit(id);
+
+        // Delete all expense splits for this user first; their owed totals only affect the user's own ledger rows
         expenseSplitRepository.deleteByOwedById(id);
+        balanceLedgerService.removeUser(id);
+        monthlySpendService.removeUser(id);
+        // Uncount the user's memberships and paid expenses while they can still be found
+        groupCounterService.userRemoved(id, groupIds);
 
         // Delete all expenses paid by this user (this will cascade to splits)
         // Note: This is handled by the database cascade settings
@@ -0,0 +1,20 @@
+package com.splitwise.service.settlement;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Current-thread CPU time, falling back to wall-clock time when the JVM does not support it
+ */
+final class CpuClock {
+    
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+    
+    private CpuClock() {
+    }
+    
+    static long now() {
+        return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
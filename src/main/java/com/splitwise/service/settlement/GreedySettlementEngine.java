@@ -0,0 +1,110 @@
+package com.splitwise.service.settlement;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Repeatedly matches the largest debtor with the largest creditor; equal amounts keep the participants'
+ * order, so plans are reproducible. Runs in O(n log n) and never gives up, but may use more transfers than necessary.
+ */
+@Component
+public class GreedySettlementEngine implements SettlementEngine {
+    
+    @Override
+    public SettlementPlan settle(long[] balances, long deadlineCpuNanos) {
+        int n = balances.length;
+        int[] participants = new int[n];
+        for (int i = 0; i < n; i++) {
+            participants[i] = i;
+        }
+        SettlementPlan plan = new SettlementPlan(n);
+        settle(participants, n, balances, plan);
+        plan.setAlgorithm(SettlementAlgorithm.GREEDY);
+        return plan;
+    }
+    
+    /**
+     * Settle a subset of participants greedily, appending the transfers to a plan
+     * @param participants indices into balances
+     * @param count number of valid entries in participants
+     * @param balances net balances in cents
+     * @param plan the plan to append to
+     */
+    static void settle(int[] participants, int count, long[] balances, SettlementPlan plan) {
+        int[] creditors = new int[count];
+        int[] debtors = new int[count];
+        long[] remaining = new long[balances.length];
+        int creditorCount = 0;
+        int debtorCount = 0;
+        
+        for (int k = 0; k < count; k++) {
+            int i = participants[k];
+            long balance = balances[i];
+            if (balance > 0) {
+                creditors[creditorCount++] = i;
+                remaining[i] = balance;
+            } else if (balance < 0) {
+                debtors[debtorCount++] = i;
+                remaining[i] = -balance; // Store as positive amount
+            }
+        }
+        
+        // Sort creditors and debtors by amount descending, ties in participant order
+        int[] buffer = new int[Math.max(creditorCount, debtorCount)];
+        sortByAmountDescending(creditors, creditorCount, remaining, buffer);
+        sortByAmountDescending(debtors, debtorCount, remaining, buffer);
+        
+        // Use two pointers to settle debts
+        int creditorIndex = 0;
+        int debtorIndex = 0;
+        while (creditorIndex < creditorCount && debtorIndex < debtorCount) {
+            int creditor = creditors[creditorIndex];
+            int debtor = debtors[debtorIndex];
+            long amount = Math.min(remaining[creditor], remaining[debtor]);
+            
+            plan.add(debtor, creditor, amount);
+            remaining[creditor] -= amount;
+            remaining[debtor] -= amount;
+            
+            if (remaining[creditor] == 0) {
+                creditorIndex++;
+            }
+            if (remaining[debtor] == 0) {
+                debtorIndex++;
+            }
+        }
+    }
+    
+    /**
+     * Stable bottom-up merge sort of participant indices by amount, largest first
+     * (the same order as the List.sort the engine replaced)
+     */
+    private static void sortByAmountDescending(int[] indices, int count, long[] amounts, int[] buffer) {
+        int[] source = indices;
+        int[] target = buffer;
+        for (int width = 1; width < count; width *= 2) {
+            for (int left = 0; left < count; left += 2 * width) {
+                int middle = Math.min(left + width, count);
+                int right = Math.min(left + 2 * width, count);
+                int i = left;
+                int j = middle;
+                int k = left;
+                while (i < middle && j < right) {
+                    // Take from the left run on ties to keep the earlier participant first
+                    target[k++] = amounts[source[j]] > amounts[source[i]] ? source[j++] : source[i++];
+                }
+                while (i < middle) {
+                    target[k++] = source[i++];
+                }
+                while (j < right) {
+                    target[k++] = source[j++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != indices) {
+            System.arraycopy(source, 0, indices, 0, count);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.splitwise.service.settlement;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the minimum number of transfers by partitioning the non-zero balances into as many
+ * zero-sum subsets as possible: a subset of k participants can always be settled with k - 1
+ * transfers, so n participants split into m zero-sum subsets need n - m transfers.
+ * <p>
+ * The partition is found with a DP over bitmasks in O(n * 2^n) time and O(2^n) memory
+ * (9 bytes per mask, allocated per call), so it is capped at {@link #MAX_PARTICIPANTS}.
+ * <p>
+ * The result is exact when the balances sum to zero. Otherwise a balancing participant absorbs the
+ * residue and the result is a good plan but not necessarily the minimum.
+ */
+@Component
+public class MinimumTransferSettlementEngine implements SettlementEngine {
+    
+    // Largest participant count the DP tables are ever allocated for (including the balancing participant):
+    // 2^18 masks take about 2.3 MB per call; every extra participant would double that
+    static final int MAX_PARTICIPANTS = 18;
+    
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 14;
+    
+    @Override
+    public SettlementPlan settle(long[] balances, long deadlineCpuNanos) {
+        // Collect non-zero balances; if they do not sum to zero (settled splits only reduce the
+        // debtor's side), add a balancing participant whose transfers are dropped from the plan
+        int nonZero = 0;
+        long total = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                nonZero++;
+                total += balance;
+            }
+        }
+        int n = total != 0 ? nonZero + 1 : nonZero;
+        if (n > MAX_PARTICIPANTS) {
+            throw new IllegalArgumentException("Too many participants for exact settlement: " + n);
+        }
+        
+        long[] amounts = new long[n];
+        int[] participants = new int[n];
+        int k = 0;
+        for (int i = 0; i < balances.length; i++) {
+            if (balances[i] != 0) {
+                participants[k] = i;
+                amounts[k] = balances[i];
+                k++;
+            }
+        }
+        int balancing = -1;
+        if (total != 0) {
+            balancing = k;
+            participants[k] = balances.length;
+            amounts[k] = -total;
+        }
+        
+        int full = (1 << n) - 1;
+        long[] sums = new long[full + 1];
+        byte[] zeroSumGroups = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & (DEADLINE_CHECK_INTERVAL - 1)) == 0 && CpuClock.now() > deadlineCpuNanos) {
+                return null;
+            }
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            sums[mask] = sums[mask & (mask - 1)] + amounts[lowest];
+            
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int without = mask & ~(rest & -rest);
+                if (zeroSumGroups[without] > best) {
+                    best = zeroSumGroups[without];
+                }
+            }
+            zeroSumGroups[mask] = (byte) (sums[mask] == 0 ? best + 1 : best);
+        }
+        
+        // Walk back from the full set; every zero-sum mask on the path closes one group
+        int[] order = new int[n];
+        int[] groupEnds = new int[n + 1];
+        int groupCount = 0;
+        int position = n;
+        int mask = full;
+        while (mask != 0) {
+            if (sums[mask] == 0) {
+                groupEnds[groupCount++] = position;
+            }
+            int target = zeroSumGroups[mask] - (sums[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (zeroSumGroups[mask & ~bit] == target) {
+                    order[--position] = Integer.numberOfTrailingZeros(bit);
+                    mask &= ~bit;
+                    break;
+                }
+            }
+        }
+        
+        // Settle each zero-sum group greedily (k members -> at most k - 1 transfers). The group holding
+        // the balancing participant is settled without it, leaving the unmatched residue in place.
+        SettlementPlan local = new SettlementPlan(n);
+        int[] members = new int[n];
+        int start = 0;
+        for (int g = groupCount - 1; g >= 0; g--) {
+            int end = groupEnds[g];
+            int count = 0;
+            for (int p = start; p < end; p++) {
+                if (order[p] != balancing) {
+                    members[count++] = order[p];
+                }
+            }
+            GreedySettlementEngine.settle(members, count, amounts, local);
+            start = end;
+        }
+        
+        // Map back to the caller's indices
+        SettlementPlan plan = new SettlementPlan(local.size());
+        for (int i = 0; i < local.size(); i++) {
+            plan.add(participants[local.fromIndex(i)], participants[local.toIndex(i)], local.amountCents(i));
+        }
+        plan.setAlgorithm(SettlementAlgorithm.MINIMUM_TRANSFERS);
+        return plan;
+    }
+}
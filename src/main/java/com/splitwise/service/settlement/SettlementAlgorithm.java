@@ -0,0 +1,22 @@
+package com.splitwise.service.settlement;
+
+/**
+ * Algorithm that produced a settlement plan
+ */
+public enum SettlementAlgorithm {
+
+    /**
+     * Exact minimum number of transfers (zero-sum subset partitioning)
+     */
+    MINIMUM_TRANSFERS,
+
+    /**
+     * Greedy largest-debtor/largest-creditor matching
+     */
+    GREEDY,
+
+    /**
+     * Greedy matching used because the exact solver ran out of its CPU-time budget
+     */
+    GREEDY_AFTER_TIMEOUT
+}
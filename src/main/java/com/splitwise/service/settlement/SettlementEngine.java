@@ -0,0 +1,15 @@
+package com.splitwise.service.settlement;
+
+/**
+ * Turns net balances into a list of transfers that settles them
+ */
+public interface SettlementEngine {
+
+    /**
+     * Compute a settlement plan
+     * @param balances net balance per participant in cents; positive means the participant is owed money
+     * @param deadlineCpuNanos thread CPU time (see {@link CpuClock}) after which the engine should give up
+     * @return the plan, or null if the engine gave up before the deadline
+     */
+    SettlementPlan settle(long[] balances, long deadlineCpuNanos);
+}
@@ -0,0 +1,51 @@
+package com.splitwise.service.settlement;
+
+import java.util.Arrays;
+
+/**
+ * A list of transfers between participants, stored as parallel primitive arrays.
+ * Participants are identified by their index in the balance array given to the engine,
+ * amounts are in cents.
+ */
+public class SettlementPlan {
+    
+    private SettlementAlgorithm algorithm;
+    private int size;
+    private int[] from;
+    private int[] to;
+    private long[] amounts;
+    
+    public SettlementPlan(int expectedTransfers) {
+        int capacity = Math.max(expectedTransfers, 4);
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.amounts = new long[capacity];
+    }
+    
+    /**
+     * Append a transfer
+     * @param fromIndex the paying participant
+     * @param toIndex the receiving participant
+     * @param amountCents the amount in cents
+     */
+    public void add(int fromIndex, int toIndex, long amountCents) {
+        if (size == from.length) {
+            int capacity = size * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        from[size] = fromIndex;
+        to[size] = toIndex;
+        amounts[size] = amountCents;
+        size++;
+    }
+    
+    public SettlementAlgorithm getAlgorithm() { return algorithm; }
+    public void setAlgorithm(SettlementAlgorithm algorithm) { this.algorithm = algorithm; }
+    
+    public int size() { return size; }
+    public int fromIndex(int i) { return from[i]; }
+    public int toIndex(int i) { return to[i]; }
+    public long amountCents(int i) { return amounts[i]; }
+}
@@ -0,0 +1,58 @@
+package com.splitwise.service.settlement;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses a settlement engine: the exact minimum-transfer solver for small groups, bounded by a
+ * CPU-time budget, and the greedy engine for larger groups or when the budget runs out.
+ */
+@Component
+public class SettlementPlanner {
+    
+    private final MinimumTransferSettlementEngine minimumTransferEngine;
+    private final GreedySettlementEngine greedyEngine;
+    private final int optimalMaxParticipants;
+    private final long timeBudgetNanos;
+
+    @Autowired
+    public SettlementPlanner(MinimumTransferSettlementEngine minimumTransferEngine,
+                             GreedySettlementEngine greedyEngine,
+                             @Value("${splitwise.settlement.optimal-max-participants:16}") int optimalMaxParticipants,
+                             @Value("${splitwise.settlement.time-budget-ms:100}") long timeBudgetMillis) {
+        this.minimumTransferEngine = minimumTransferEngine;
+        this.greedyEngine = greedyEngine;
+        // The balancing participant may add one slot to the exact solver's table
+        this.optimalMaxParticipants = Math.min(optimalMaxParticipants, MinimumTransferSettlementEngine.MAX_PARTICIPANTS - 1);
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    }
+    
+    /**
+     * Compute a settlement plan for net balances
+     * @param balances net balance per participant in cents; positive means the participant is owed money
+     * @return the plan, tagged with the algorithm that produced it
+     */
+    public SettlementPlan plan(long[] balances) {
+        int nonZero = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                nonZero++;
+            }
+        }
+        
+        SettlementPlan greedy = greedyEngine.settle(balances, Long.MAX_VALUE);
+        if (nonZero > optimalMaxParticipants) {
+            return greedy;
+        }
+        
+        SettlementPlan optimal = minimumTransferEngine.settle(balances, CpuClock.now() + timeBudgetNanos);
+        if (optimal == null) {
+            greedy.setAlgorithm(SettlementAlgorithm.GREEDY_AFTER_TIMEOUT);
+            return greedy;
+        }
+        // The exact solver is only guaranteed minimal when balances sum to zero; with a residue
+        // (settled splits reduce only the debtor's side) greedy can occasionally do better
+        return optimal.size() <= greedy.size() ? optimal : greedy;
+    }
+}
@@ -0,0 +1,35 @@
+package com.splitwise.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal money amounts (scale 2) and long cents.
+ * Balance and settlement math runs on cents; BigDecimal is only used at the DB and API boundaries.
+ */
+public final class Cents {
+    
+    private Cents() {
+    }
+    
+    /**
+     * Convert an amount to cents, rounding half up beyond two decimals
+     * @param amount the amount, may be null
+     * @return the amount in cents (0 for null)
+     */
+    public static long fromAmount(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    /**
+     * Convert cents to an amount with scale 2
+     * @param cents the amount in cents
+     * @return the amount
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,55 @@
+package com.splitwise.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 style CSV writer, the counterpart of {@link CsvRecordReader}: quotes fields containing
+ * commas, quotes or line breaks and doubles embedded quotes. Records end with CRLF.
+ */
+public class CsvRecordWriter {
+
+    private final Writer writer;
+
+    public CsvRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write one record; null fields are written as empty fields
+     * @param fields the field values
+     * @throws IOException if writing fails
+     */
+    public void writeRecord(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
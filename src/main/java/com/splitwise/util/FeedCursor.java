@@ -0,0 +1,58 @@
+package com.splitwise.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token of a keyset-paginated feed ordered by (date DESC, id DESC):
+ * the position of the last row returned, Base64url-encoded so clients treat it as a black box.
+ */
+public final class FeedCursor {
+    
+    private final LocalDateTime date;
+    private final long id;
+    
+    public FeedCursor(LocalDateTime date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+    
+    /**
+     * Encode the cursor as a token
+     * @return the token
+     */
+    public String encode() {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    public LocalDateTime getDate() {
+        return date;
+    }
+    
+    public long getId() {
+        return id;
+    }
+}
@@ -2,36 +2,66 @@ package com.splitwise.util;
 
 import com.splitwise.entity.User;
 import com.splitwise.repository.UserRepository;
+import com.splitwise.config.UserAuthorities;
+import com.splitwise.service.CurrentUserCache;
+import com.splitwise.service.GroupMembershipIndex;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Optional;
-
 @Component
 public class SecurityUtil {
 
+    // Request attribute memoizing the resolved current user for the rest of the request
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityUtil.class.getName() + ".currentUser";
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
     /**
-     * Get the current logged-in user from session
+     * Get the current logged-in user from session, or from the verified access token in token mode.
+     * Resolved at most once per request, and served from {@link CurrentUserCache} across requests;
+     * the returned user is detached, so only its columns should be read.
      * @return the current user or null if not logged in
      */
     public User getCurrentUser() {
         try {
             ServletRequestAttributes attr = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
             HttpSession session = attr.getRequest().getSession(false);
-            
-            if (session != null) {
-                User currentUser = (User) session.getAttribute("currentUser");
-                if (currentUser != null) {
-                    // Refresh user data from database to get latest info
-                    Optional<User> userOpt = userRepository.findById(currentUser.getId());
-                    return userOpt.orElse(null);
+            Object attribute = session != null ? session.getAttribute(SessionPrincipal.SESSION_ATTRIBUTE) : null;
+            SessionPrincipal principal = attribute instanceof SessionPrincipal
+                    ? (SessionPrincipal) attribute : authenticatedPrincipal();
+
+            if (principal != null) {
+                Long userId = principal.getId();
+                Object memo = attr.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (memo instanceof ResolvedUser && ((ResolvedUser) memo).userId.equals(userId)) {
+                    currentUserCache.recordRequestHit();
+                    return ((ResolvedUser) memo).user;
                 }
+
+                // Refresh user data from database to get latest info
+                User currentUser = currentUserCache.get(userId, id -> userRepository.findById(id).orElse(null));
+                attr.setAttribute(CURRENT_USER_ATTRIBUTE, new ResolvedUser(userId, currentUser),
+                        RequestAttributes.SCOPE_REQUEST);
+                if (currentUser != null && attribute == principal && principal.isStale(currentUser)) {
+                    // Keep the session's name and email in step with the user row
+                    session.setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(currentUser));
+                }
+                return currentUser;
             }
         } catch (Exception e) {
             // Session not available or other error
@@ -55,4 +85,74 @@ public class SecurityUtil {
     public boolean isUserLoggedIn() {
         return getCurrentUser() != null;
     }
+
+    /**
+     * Check if the current request is authenticated as an administrator (splitwise.security.admin-user-ids)
+     * @return true if the caller has the admin role
+     */
+    public boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (("ROLE_" + UserAuthorities.ADMIN_ROLE).equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check that the current user may run a maintenance job (rebuild, recount) on one group:
+     * administrators on any group, other users only on groups they belong to
+     * @param groupId the group ID
+     * @throws AccessDeniedException if the caller is neither an administrator nor a member of the group
+     */
+    public void checkGroupMaintenanceAllowed(Long groupId) {
+        if (isAdmin()) {
+            return;
+        }
+        Long currentUserId = getCurrentUserId();
+        if (currentUserId == null || !groupMembershipIndex.confirmMember(currentUserId, groupId)) {
+            throw new AccessDeniedException("You are not a member of this group");
+        }
+    }
+
+    /**
+     * Get the principal a filter put into the SecurityContext (the access token's user in token mode)
+     * @return the principal or null if the request is not authenticated that way
+     */
+    private SessionPrincipal authenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof SessionPrincipal) {
+            return (SessionPrincipal) authentication.getPrincipal();
+        }
+        return null;
+    }
+
+    /**
+     * Forget the current user resolved for this request if it is the given user (user updated or deleted)
+     * @param userId the user ID
+     */
+    public void forgetCurrentUser(Long userId) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object memo = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo instanceof ResolvedUser && ((ResolvedUser) memo).userId.equals(userId)) {
+            attributes.removeAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static final class ResolvedUser {
+        final Long userId;
+        final User user; // null if the session's user no longer exists
+
+        ResolvedUser(Long userId, User user) {
+            this.userId = userId;
+            this.user = user;
+        }
+    }
 }
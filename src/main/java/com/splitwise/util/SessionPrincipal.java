@@ -0,0 +1,92 @@
+package com.splitwise.util;
+
+import com.splitwise.entity.User;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * Logged-in user as kept in the HttpSession: ID, email, display name and the version of the user row
+ * it was taken from. Immutable and a few dozen bytes, unlike the User entity with its password hash
+ * and lazy associations, so sessions stay small and cheap to serialize.
+ */
+public final class SessionPrincipal implements Principal, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Session attribute holding the principal of the logged-in user */
+    public static final String SESSION_ATTRIBUTE = "currentUser";
+
+    private final long id;
+    private final String email;
+    private final String name;
+    private final long version;
+
+    public SessionPrincipal(long id, String email, String name, long version) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.version = version;
+    }
+
+    /**
+     * Build the principal of a persisted user
+     * @param user the user
+     * @return the principal
+     */
+    public static SessionPrincipal of(User user) {
+        return new SessionPrincipal(user.getId(), user.getEmail(), user.getName(), versionOf(user));
+    }
+
+    /**
+     * Version of a user row: its last update time in epoch milliseconds
+     * @param user the user
+     * @return the version, or 0 if the user has never been saved
+     */
+    public static long versionOf(User user) {
+        return user.getUpdatedAt() == null ? 0L : user.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Check whether this principal was taken from an older version of the user row
+     * @param user the current user row
+     * @return true if the principal should be rebuilt from the user
+     */
+    public boolean isStale(User user) {
+        return version != versionOf(user);
+    }
+
+    public long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getDisplayName() { return name; }
+    public long getVersion() { return version; }
+
+    /**
+     * The login name used by Spring Security (the email), so Authentication.getName() stays the email
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SessionPrincipal)) return false;
+        SessionPrincipal that = (SessionPrincipal) o;
+        return id == that.id && version == that.version
+                && Objects.equals(email, that.email) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, email, name, version);
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
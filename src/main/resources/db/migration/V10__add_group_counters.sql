@@ -0,0 +1,15 @@
+-- Denormalized per-group counters, kept up to date by the membership and expense write paths
+-- and checked by the counter reconciliation job
+ALTER TABLE `groups`
+    ADD COLUMN member_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN expense_count BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN total_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    ADD COLUMN last_activity_at DATETIME(6) NULL;
+
+-- Backfill from existing memberships and expenses
+-- (equivalent to POST /api/groups/counters/reconcile, which repairs only the groups that drifted)
+UPDATE `groups` g
+SET g.member_count = (SELECT COUNT(*) FROM group_members gm WHERE gm.group_id = g.id),
+    g.expense_count = (SELECT COUNT(*) FROM expenses e WHERE e.group_id = g.id),
+    g.total_amount = (SELECT COALESCE(SUM(e.amount), 0) FROM expenses e WHERE e.group_id = g.id),
+    g.last_activity_at = COALESCE((SELECT MAX(e.created_at) FROM expenses e WHERE e.group_id = g.id), g.updated_at);
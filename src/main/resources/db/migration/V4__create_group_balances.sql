@@ -0,0 +1,28 @@
+-- Incrementally maintained per-(group, user) balance ledger
+CREATE TABLE IF NOT EXISTS group_balances (
+    group_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    total_paid DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    total_owed DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    net_balance DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    updated_at DATETIME(6),
+    PRIMARY KEY (group_id, user_id)
+);
+
+CREATE INDEX idx_group_balances_user ON group_balances(user_id);
+
+-- Backfill from existing expenses and splits
+-- (equivalent to POST /api/balances/ledger/rebuild)
+INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at)
+SELECT e.group_id, e.paid_by, SUM(e.amount), 0, SUM(e.amount), NOW()
+FROM expenses e
+GROUP BY e.group_id, e.paid_by;
+
+INSERT INTO group_balances (group_id, user_id, total_paid, total_owed, net_balance, updated_at)
+SELECT e.group_id, es.owed_by, 0, SUM(es.amount), -SUM(es.amount), NOW()
+FROM expense_splits es
+JOIN expenses e ON e.id = es.expense_id
+WHERE es.is_settled = false
+GROUP BY e.group_id, es.owed_by
+ON DUPLICATE KEY UPDATE total_owed = VALUES(total_owed),
+                        net_balance = total_paid - VALUES(total_owed);
@@ -0,0 +1,24 @@
+-- Block allocator backing the "pooled-ids" profile (META-INF/orm-pooled-ids.xml).
+-- next_id is the last ID handed out; the next block starts at next_id + 1, so seeding it with
+-- the current MAX(id) keeps new IDs clear of rows created through AUTO_INCREMENT.
+CREATE TABLE IF NOT EXISTS id_generators (
+    entity_name VARCHAR(255) NOT NULL,
+    next_id BIGINT NOT NULL,
+    PRIMARY KEY (entity_name)
+);
+
+INSERT INTO id_generators (entity_name, next_id)
+SELECT 'users', COALESCE(MAX(id), 0) FROM users
+ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id));
+
+INSERT INTO id_generators (entity_name, next_id)
+SELECT 'group_members', COALESCE(MAX(id), 0) FROM group_members
+ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id));
+
+INSERT INTO id_generators (entity_name, next_id)
+SELECT 'expenses', COALESCE(MAX(id), 0) FROM expenses
+ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id));
+
+INSERT INTO id_generators (entity_name, next_id)
+SELECT 'expense_splits', COALESCE(MAX(id), 0) FROM expense_splits
+ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id));
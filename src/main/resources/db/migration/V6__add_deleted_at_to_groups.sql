@@ -0,0 +1,4 @@
+-- Soft-delete marker for asynchronous group deletion; rows are removed by the purge job
+ALTER TABLE `groups` ADD COLUMN deleted_at DATETIME(6) NULL;
+
+CREATE INDEX idx_groups_deleted_at ON `groups`(deleted_at);
@@ -0,0 +1,3 @@
+-- Supports the keyset seek of the group expense feed: WHERE group_id = ? AND (expense_date, id) < (?, ?)
+-- ORDER BY expense_date DESC, id DESC
+CREATE INDEX idx_expenses_group_date_id ON expenses(group_id, expense_date, id);
@@ -0,0 +1,29 @@
+-- Incrementally maintained per-(group, member, month) spend rollups
+CREATE TABLE IF NOT EXISTS monthly_spend (
+    group_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    paid_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    paid_count BIGINT NOT NULL DEFAULT 0,
+    owed_amount DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    owed_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6),
+    PRIMARY KEY (group_id, user_id, month_start)
+);
+
+-- Backfill from existing expenses and splits
+-- (equivalent to POST /api/analytics/monthly-spend/backfill, which runs group by group in parallel)
+INSERT INTO monthly_spend (group_id, user_id, month_start, paid_amount, paid_count, owed_amount, owed_count, updated_at)
+SELECT e.group_id, e.paid_by, DATE_SUB(DATE(e.expense_date), INTERVAL DAYOFMONTH(e.expense_date) - 1 DAY),
+       SUM(e.amount), COUNT(*), 0, 0, NOW()
+FROM expenses e
+GROUP BY e.group_id, e.paid_by, DATE_SUB(DATE(e.expense_date), INTERVAL DAYOFMONTH(e.expense_date) - 1 DAY);
+
+INSERT INTO monthly_spend (group_id, user_id, month_start, paid_amount, paid_count, owed_amount, owed_count, updated_at)
+SELECT e.group_id, es.owed_by, DATE_SUB(DATE(e.expense_date), INTERVAL DAYOFMONTH(e.expense_date) - 1 DAY),
+       0, 0, SUM(es.amount), COUNT(*), NOW()
+FROM expense_splits es
+JOIN expenses e ON e.id = es.expense_id
+GROUP BY e.group_id, es.owed_by, DATE_SUB(DATE(e.expense_date), INTERVAL DAYOFMONTH(e.expense_date) - 1 DAY)
+ON DUPLICATE KEY UPDATE owed_amount = VALUES(owed_amount),
+                        owed_count = VALUES(owed_count);
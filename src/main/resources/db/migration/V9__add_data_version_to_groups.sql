@@ -0,0 +1,3 @@
+-- Persisted per-group data version, bumped by every write that changes the group's expense or balance views.
+-- Served as the ETag of GET /api/expenses/group/{id} and GET /api/balances/group/{id}.
+ALTER TABLE `groups` ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,137 @@
+package com.splitwise;
+
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.GroupMember;
+import com.splitwise.entity.User;
+import com.splitwise.repository.GroupMemberRepository;
+import com.splitwise.repository.GroupRepository;
+import com.splitwise.repository.UserRepository;
+import com.splitwise.util.SessionPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Creates users, groups and expense requests for integration tests
+ */
+@Component
+public class TestData {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    /**
+     * Create a user with a unique email
+     * @param name the name prefix
+     * @return the saved user
+     */
+    @Transactional
+    public User user(String name) {
+        long n = SEQUENCE.incrementAndGet();
+        return userRepository.save(new User(name + " " + n, name.toLowerCase().replace(' ', '.') + n + "@example.com"));
+    }
+
+    /**
+     * Load a user
+     * @param userId the user ID
+     * @return the user
+     */
+    @Transactional(readOnly = true)
+    public User userById(Long userId) {
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    /**
+     * Create a group with the given number of new members
+     * @param memberCount the number of members
+     * @return the saved group
+     */
+    @Transactional
+    public Group groupWithMembers(int memberCount) {
+        List<User> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            members.add(user("Member"));
+        }
+        return groupOf(members);
+    }
+
+    /**
+     * Create a group of existing users
+     * @param members the members
+     * @return the saved group
+     */
+    @Transactional
+    public Group groupOf(List<User> members) {
+        Group group = new Group("Group " + SEQUENCE.incrementAndGet());
+        group.setMemberCount(members.size());
+        group = groupRepository.save(group);
+        for (User member : members) {
+            groupMemberRepository.save(new GroupMember(member, group));
+        }
+        return group;
+    }
+
+    /**
+     * Get the user IDs of a group's members
+     * @param groupId the group ID
+     * @return the member IDs
+     */
+    @Transactional(readOnly = true)
+    public List<Long> memberIds(Long groupId) {
+        return new ArrayList<>(groupMemberRepository.findUserIdsByGroupId(groupId));
+    }
+
+    /**
+     * Build an expense request split evenly (in whole cents, remainder on the first split) across the given users
+     * @param groupId the group ID
+     * @param paidById the payer
+     * @param amount the expense amount
+     * @param owedByIds the users sharing the expense
+     * @return the request
+     */
+    public CreateExpenseRequest evenSplit(Long groupId, Long paidById, BigDecimal amount, List<Long> owedByIds) {
+        BigDecimal share = amount.divide(BigDecimal.valueOf(owedByIds.size()), 2, RoundingMode.DOWN);
+        BigDecimal remainder = amount.subtract(share.multiply(BigDecimal.valueOf(owedByIds.size())));
+        List<CreateExpenseRequest.SplitRequest> splits = new ArrayList<>(owedByIds.size());
+        for (Long owedById : owedByIds) {
+            splits.add(new CreateExpenseRequest.SplitRequest(owedById, splits.isEmpty() ? share.add(remainder) : share));
+        }
+        return new CreateExpenseRequest("Expense " + SEQUENCE.incrementAndGet(), amount, paidById, groupId, splits);
+    }
+
+    /**
+     * Call a service as the given user, through a request whose session holds the user's principal
+     * @param user the calling user
+     * @param call the service call
+     * @return the call's result
+     */
+    public <T> T as(User user, Supplier<T> call) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return call.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
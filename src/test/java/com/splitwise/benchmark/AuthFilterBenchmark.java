@@ -0,0 +1,118 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.config.AuthMode;
+import com.splitwise.config.SessionAuthenticationFilter;
+import com.splitwise.config.TokenAuthenticationFilter;
+import com.splitwise.config.UserAuthorities;
+import com.splitwise.entity.User;
+import com.splitwise.service.AccessTokenService;
+import com.splitwise.util.SessionPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of the two auth modes: TokenAuthenticationFilter verifying an HMAC-signed
+ * bearer token, against SessionAuthenticationFilter reading the principal from a session that is first
+ * looked up by ID among {@value #SESSIONS} live sessions, as the servlet container does for the session cookie.
+ * Both end with the same Authentication in the SecurityContext; the user row lookup that follows is the same
+ * in both modes and is left out.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark="AuthFilterBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthFilterBenchmark {
+
+    private static final int SESSIONS = 100_000;
+
+    private final ConcurrentHashMap<String, MockHttpSession> sessionStore = new ConcurrentHashMap<>();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private TokenAuthenticationFilter tokenFilter;
+    private SessionAuthenticationFilter sessionFilter;
+    private MockHttpServletRequest tokenRequest;
+    private MockHttpServletRequest sessionRequest;
+    private String[] sessionIds;
+    private Authentication authenticated;
+
+    private final FilterChain capture = (req, res) ->
+            authenticated = SecurityContextHolder.getContext().getAuthentication();
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        AccessTokenService accessTokenService = new AccessTokenService(AuthMode.TOKEN,
+                "bench:" + Base64.getEncoder().encodeToString(secret), "", 900, 10_000);
+        UserAuthorities userAuthorities = new UserAuthorities("");
+        tokenFilter = new TokenAuthenticationFilter(accessTokenService, userAuthorities);
+        sessionFilter = new SessionAuthenticationFilter(userAuthorities);
+
+        User user = new User("Bench User", "bench.user@example.com");
+        user.setId(42L);
+        user.setUpdatedAt(LocalDateTime.now());
+        tokenRequest = new MockHttpServletRequest("GET", "/api/groups");
+        tokenRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenService.issue(user));
+
+        MockServletContext servletContext = new MockServletContext();
+        sessionIds = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            MockHttpSession session = new MockHttpSession(servletContext);
+            User sessionUser = new User("Session User " + i, "session.user" + i + "@example.com");
+            sessionUser.setId((long) i + 1);
+            session.setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(sessionUser));
+            sessionStore.put(session.getId(), session);
+            sessionIds[i] = session.getId();
+        }
+        sessionRequest = new MockHttpServletRequest("GET", "/api/groups");
+    }
+
+    @Benchmark
+    public Authentication token() throws ServletException, IOException {
+        try {
+            tokenFilter.doFilter(tokenRequest, response, capture);
+            return authenticated;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication session() throws ServletException, IOException {
+        try {
+            String sessionId = sessionIds[ThreadLocalRandom.current().nextInt(SESSIONS)];
+            sessionRequest.setSession(sessionStore.get(sessionId));
+            sessionFilter.doFilter(sessionRequest, response, capture);
+            return authenticated;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
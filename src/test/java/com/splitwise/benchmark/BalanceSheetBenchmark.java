@@ -0,0 +1,100 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.dto.BalanceResponse;
+import com.splitwise.entity.User;
+import com.splitwise.service.BalanceSheet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance math on a cents {@link BalanceSheet} against the BigDecimal maps it replaced, from the
+ * per-member paid/owed rows to response rows and net balances. Add {@code -prof gc} for the bytes allocated
+ * per calculation.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BalanceSheetBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalanceSheetBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int members;
+
+    private List<User> users;
+    private Long[] userIds;
+    private BigDecimal[] paid;
+    private BigDecimal[] owed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        users = new ArrayList<>(members);
+        userIds = new Long[members];
+        paid = new BigDecimal[members];
+        owed = new BigDecimal[members];
+        for (int i = 0; i < members; i++) {
+            User user = new User("member" + i, "member" + i + "@example.com");
+            user.setId(1000L + i);
+            users.add(user);
+            userIds[i] = user.getId();
+            paid[i] = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            owed[i] = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+        }
+    }
+
+    @Benchmark
+    public void cents(Blackhole blackhole) {
+        BalanceSheet sheet = new BalanceSheet(users);
+        for (int i = 0; i < members; i++) {
+            sheet.addPaid(userIds[i], paid[i]);
+            sheet.addOwed(userIds[i], owed[i]);
+        }
+        blackhole.consume(sheet.toUserBalances());
+        blackhole.consume(sheet.netBalances());
+        blackhole.consume(sheet.totalPaidCents());
+    }
+
+    @Benchmark
+    public void bigDecimalMaps(Blackhole blackhole) {
+        Map<Long, BigDecimal> paidByUser = new HashMap<>();
+        Map<Long, BigDecimal> owedByUser = new HashMap<>();
+        for (int i = 0; i < members; i++) {
+            paidByUser.put(userIds[i], paid[i]);
+            owedByUser.put(userIds[i], owed[i]);
+        }
+        List<BalanceResponse.UserBalance> userBalances = new ArrayList<>();
+        Map<Long, BigDecimal> netBalances = new HashMap<>();
+        for (User user : users) {
+            BigDecimal totalPaid = paidByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
+            BigDecimal totalOwed = owedByUser.getOrDefault(user.getId(), BigDecimal.ZERO);
+            BigDecimal netBalance = totalPaid.subtract(totalOwed);
+            userBalances.add(new BalanceResponse.UserBalance(
+                    user.getId(), user.getName(), totalPaid, totalOwed, netBalance));
+            netBalances.put(user.getId(), netBalance);
+        }
+        blackhole.consume(userBalances);
+        blackhole.consume(netBalances);
+        blackhole.consume(paidByUser.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+}
@@ -0,0 +1,103 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.SplitwiseCloneApplication;
+import com.splitwise.TestData;
+import com.splitwise.dto.ExpenseImportResult;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.service.ExpenseImportFormat;
+import com.splitwise.service.ExpenseImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NDJSON import of {@value #ROWS} expenses with {@value #SPLITS} splits each into in-memory H2,
+ * with IDENTITY keys against the pooled-ids profile. Splits per second = ROWS * SPLITS / time per import.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ExpenseImportBenchmark</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 15)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseImportBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int SPLITS = 3;
+
+    @Param({"identity", "pooled-ids"})
+    private String ids;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseImportService expenseImportService;
+    private TestData testData;
+    private User importer;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        String[] profiles = "pooled-ids".equals(ids) ? new String[] {"test", "pooled-ids"} : new String[] {"test"};
+        context = new SpringApplicationBuilder(SplitwiseCloneApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(profiles)
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        expenseImportService = context.getBean(ExpenseImportService.class);
+
+        testData = context.getBean(TestData.class);
+        Group group = testData.groupWithMembers(SPLITS);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        importer = testData.userById(memberIds.get(0));
+        StringBuilder ndjson = new StringBuilder();
+        for (int row = 0; row < ROWS; row++) {
+            ndjson.append("{\"description\":\"Row ").append(row).append("\",\"amount\":30.00,\"paidById\":")
+                    .append(memberIds.get(row % SPLITS)).append(",\"groupId\":").append(group.getId()).append(",\"splits\":[");
+            for (int i = 0; i < SPLITS; i++) {
+                ndjson.append(i == 0 ? "" : ",").append("{\"userId\":").append(memberIds.get(i)).append(",\"amount\":10.00}");
+            }
+            ndjson.append("]}\n");
+        }
+        body = ndjson.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExpenseImportResult importExpenses() {
+        ExpenseImportResult result = testData.as(importer, () -> {
+            try {
+                return expenseImportService.importExpenses(new StringReader(body), ExpenseImportFormat.NDJSON);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (result.getImported() != ROWS) {
+            throw new IllegalStateException("Imported " + result.getImported() + " of " + ROWS + " rows");
+        }
+        return result;
+    }
+}
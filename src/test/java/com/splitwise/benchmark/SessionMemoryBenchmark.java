@@ -0,0 +1,151 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.SplitwiseCloneApplication;
+import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Heap retained by 100,000 logged-in sessions that hold the compact SessionPrincipal against sessions that
+ * hold the User entity as login loads it (password hash, timestamps, uninitialized memberships collection).
+ * Each operation loads the users page by page, keeps one MockHttpSession per user holding only that
+ * attribute and lets the user rows go, then forces a GC and reports the heap still in use per session
+ * as bytesPerSession. The reading barely moves between runs, so a single measured iteration is enough and
+ * the counter is not summed over several. The time score includes the forced GCs and is not the result.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark="SessionMemoryBenchmark"</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SessionMemoryBenchmark {
+
+    private static final int SESSIONS = 100_000;
+    private static final int PAGE_SIZE = 1_000;
+
+    // Shaped like a BCrypt hash, as stored in users.password
+    private static final String PASSWORD_HASH = "$2a$10$" + "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final MockServletContext servletContext = new MockServletContext();
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    private List<MockHttpSession> sessions;
+    private long baselineHeap;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long bytesPerSession;
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SplitwiseCloneApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            rows.add(new Object[] {"Session User " + i, "session.user" + i + "@example.com", PASSWORD_HASH,
+                    "+1555" + (1_000_000 + i), now, now});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO users (name, email, password, phone, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void dropSessions() {
+        sessions = null;
+        baselineHeap = usedHeapAfterGc();
+    }
+
+    @Benchmark
+    public List<MockHttpSession> principalSessions(RetainedHeap retained) {
+        return openSessions(SessionPrincipal::of, retained);
+    }
+
+    @Benchmark
+    public List<MockHttpSession> entitySessions(RetainedHeap retained) {
+        return openSessions(user -> user, retained);
+    }
+
+    private List<MockHttpSession> openSessions(Function<User, Object> attribute, RetainedHeap retained) {
+        sessions = new ArrayList<>(SESSIONS);
+        long afterId = 0;
+        while (sessions.size() < SESSIONS) {
+            long from = afterId;
+            List<User> page = readOnlyTransaction.execute(status -> entityManager
+                    .createQuery("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id", User.class)
+                    .setParameter("afterId", from)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList());
+            if (page.isEmpty()) {
+                break;
+            }
+            for (User user : page) {
+                MockHttpSession session = new MockHttpSession(servletContext);
+                session.setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, attribute.apply(user));
+                sessions.add(session);
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        retained.bytesPerSession = (usedHeapAfterGc() - baselineHeap) / sessions.size();
+        return sessions;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // A few rounds, keeping the lowest reading, so objects awaiting finalization or reference processing settle
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,77 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.service.settlement.GreedySettlementEngine;
+import com.splitwise.service.settlement.MinimumTransferSettlementEngine;
+import com.splitwise.service.settlement.SettlementPlan;
+import com.splitwise.service.settlement.SettlementPlanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy matching against the planner (exact minimum-transfer solver up to 16 non-zero balances,
+ * greedy beyond) across group sizes. Add {@code -prof gc} for the bytes allocated per plan.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SettlementEngineBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SettlementEngineBenchmark {
+
+    @Param({"4", "8", "12", "16", "40", "200", "1000"})
+    private int members;
+
+    private long[] balances;
+    private GreedySettlementEngine greedy;
+    private SettlementPlanner planner;
+
+    @Setup
+    public void setUp() {
+        balances = zeroSumBalances(members, 42);
+        greedy = new GreedySettlementEngine();
+        planner = new SettlementPlanner(new MinimumTransferSettlementEngine(), greedy, 16, 100);
+    }
+
+    @Benchmark
+    public SettlementPlan greedy() {
+        return greedy.settle(balances, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public SettlementPlan planner() {
+        return planner.plan(balances);
+    }
+
+    /**
+     * Random balances in whole cents that sum to zero, every member non-zero
+     */
+    static long[] zeroSumBalances(int members, long seed) {
+        Random random = new Random(seed);
+        long[] balances = new long[members];
+        long total = 0;
+        for (int i = 0; i < members - 1; i++) {
+            long cents = 100 + random.nextInt(50_000);
+            balances[i] = random.nextBoolean() ? cents : -cents;
+            total += balances[i];
+        }
+        balances[members - 1] = total == 0 ? 1 : -total;
+        if (total == 0) {
+            balances[0] -= 1;
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,112 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.SplitwiseCloneApplication;
+import com.splitwise.TestData;
+import com.splitwise.dto.ExpenseSplitDTO;
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.ExpenseSplit;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.service.ExpenseService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap cost of one "splits owed by a user" request: the JPQL constructor projection the endpoint serves
+ * against loading the split entities (payer, debtor and group fetched in the same query) and mapping
+ * them to the same DTOs in a read-only transaction. Run with {@code -prof gc}; gc.alloc.rate.norm is
+ * the bytes allocated per request.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark="SplitListBenchmark -prof gc"</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SplitListBenchmark {
+
+    private static final String ENTITY_QUERY = "SELECT es FROM ExpenseSplit es JOIN FETCH es.expense e " +
+            "JOIN FETCH e.group JOIN FETCH e.paidBy JOIN FETCH es.owedBy WHERE es.owedBy.id = :userId";
+
+    @Param({"20", "500"})
+    private int splits;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SplitwiseCloneApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        expenseService = context.getBean(ExpenseService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        TestData testData = context.getBean(TestData.class);
+        Group group = testData.groupWithMembers(2);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        userId = memberIds.get(1);
+        User payer = testData.userById(memberIds.get(0));
+        for (int i = 0; i < splits; i++) {
+            testData.as(payer, () -> expenseService.createExpense(
+                    testData.evenSplit(group.getId(), payer.getId(), new BigDecimal("20.00"), memberIds)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseSplitDTO> projection() {
+        return expenseService.getSplitsOwedByUser(userId);
+    }
+
+    @Benchmark
+    public List<ExpenseSplitDTO> entities() {
+        return readOnlyTransaction.execute(status -> {
+            List<ExpenseSplit> entities = entityManager.createQuery(ENTITY_QUERY, ExpenseSplit.class)
+                    .setParameter("userId", userId)
+                    .getResultList();
+            List<ExpenseSplitDTO> dtos = new ArrayList<>(entities.size());
+            for (ExpenseSplit split : entities) {
+                Expense expense = split.getExpense();
+                dtos.add(new ExpenseSplitDTO(split.getId(), split.getAmount(), split.isSettled(), split.getSettledAt(),
+                        split.getCreatedAt(), expense.getId(), expense.getDescription(), expense.getExpenseDate(),
+                        expense.getGroup().getId(), expense.getGroup().getName(), split.getOwedBy().getId(),
+                        split.getOwedBy().getName(), expense.getPaidBy().getId(), expense.getPaidBy().getName()));
+            }
+            return dtos;
+        });
+    }
+}
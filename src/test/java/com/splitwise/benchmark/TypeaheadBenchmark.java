@@ -0,0 +1,115 @@
+package com.splitwise.benchmark;
+
+import com.splitwise.SplitwiseCloneApplication;
+import com.splitwise.TestData;
+import com.splitwise.dto.TypeaheadSuggestion;
+import com.splitwise.entity.User;
+import com.splitwise.repository.UserRepository;
+import com.splitwise.service.TypeaheadService;
+import com.splitwise.util.SessionPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-keystroke latency distribution (see the p0.99 rows) of the typeahead for a caller with
+ * {@value #GROUPS} groups of {@value #MEMBERS_PER_GROUP} members, against the LIKE '%x%' user scan it replaced.
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TypeaheadBenchmark</pre>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeaheadBenchmark {
+
+    private static final int GROUPS = 20;
+    private static final int MEMBERS_PER_GROUP = 100;
+    private static final String[] KEYSTROKES = {"m", "me", "mem", "memb", "member", "member 1", "member 12", "group", "group 3"};
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        ConfigurableApplicationContext context;
+        TypeaheadService typeaheadService;
+        UserRepository userRepository;
+        User caller;
+
+        @Setup
+        public void setUp() {
+            context = new SpringApplicationBuilder(SplitwiseCloneApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties("spring.jpa.properties.hibernate.generate_statistics=false")
+                    .run();
+            typeaheadService = context.getBean(TypeaheadService.class);
+            userRepository = context.getBean(UserRepository.class);
+
+            TestData testData = context.getBean(TestData.class);
+            caller = testData.user("Caller");
+            for (int i = 0; i < GROUPS; i++) {
+                List<User> members = new ArrayList<>(MEMBERS_PER_GROUP);
+                members.add(caller);
+                for (int j = 1; j < MEMBERS_PER_GROUP; j++) {
+                    members.add(testData.user("Member"));
+                }
+                testData.groupOf(members);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        int keystroke;
+
+        @Setup(Level.Trial)
+        public void logIn(Application application) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.getSession().setAttribute(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(application.caller));
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        }
+
+        @TearDown(Level.Trial)
+        public void logOut() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        String nextKeystroke() {
+            keystroke = (keystroke + 1) % KEYSTROKES.length;
+            return KEYSTROKES[keystroke];
+        }
+    }
+
+    @Benchmark
+    public List<TypeaheadSuggestion> typeahead(Application application, Caller caller) {
+        return application.typeaheadService.suggest(caller.nextKeystroke(), 10);
+    }
+
+    @Benchmark
+    public List<User> likeScan(Application application, Caller caller) {
+        return application.userRepository.findByNameContainingIgnoreCase(caller.nextKeystroke());
+    }
+}
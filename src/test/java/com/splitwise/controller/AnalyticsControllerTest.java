@@ -0,0 +1,65 @@
+package com.splitwise.controller;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A missing group answers 404 and a bad month range 400, whatever the error message says
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void missingGroupIsNotFound() throws Exception {
+        User user = testData.user("Analyst");
+
+        mockMvc.perform(get("/api/analytics/groups/" + Long.MAX_VALUE + "/monthly-spend")
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Group not found with id: " + Long.MAX_VALUE));
+        mockMvc.perform(post("/api/analytics/groups/" + Long.MAX_VALUE + "/monthly-spend/rebuild")
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void invalidRangeIsBadRequest() throws Exception {
+        User user = testData.user("Analyst");
+        Group group = testData.groupOf(List.of(user));
+        String path = "/api/analytics/groups/" + group.getId() + "/monthly-spend";
+
+        mockMvc.perform(get(path).param("from", "2025-06").param("to", "2025-01")
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("from must not be after to"));
+        mockMvc.perform(get(path).param("from", "2025-13")
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(path).param("from", "2025-01").param("to", "2025-03")
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,78 @@
+package com.splitwise.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sign-in attempts refused by the password hashing service are answered with 429 and a Retry-After header
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthThrottleTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${splitwise.auth.throttle.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${splitwise.auth.throttle.window-seconds:60}")
+    private long windowSeconds;
+
+    @Test
+    void loginsBeyondThePerEmailLimitGet429WithRetryAfter() throws Exception {
+        String body = credentials("throttled-" + UUID.randomUUID() + "@example.com");
+        for (int i = 0; i < maxAttempts; i++) {
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        MvcResult refused = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Too many sign-in attempts for this email, please retry later"))
+                .andReturn();
+        long retryAfter = Long.parseLong(refused.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter >= 1 && retryAfter <= windowSeconds, "Retry-After " + retryAfter);
+
+        // Other emails are unaffected
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(credentials("other-" + UUID.randomUUID() + "@example.com")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void registrationsBeyondThePerEmailLimitGet429WithRetryAfter() throws Exception {
+        String email = "register-" + UUID.randomUUID() + "@example.com";
+        for (int i = 0; i < maxAttempts; i++) {
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(credentials(email)));
+        }
+
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Throttled\",\"email\":\"" + email + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static String credentials(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}";
+    }
+}
@@ -0,0 +1,92 @@
+package com.splitwise.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.repository.GroupMemberRepository;
+import com.splitwise.service.GroupMembershipIndex;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only members of a group can add expenses to it, and participants are checked against the group's members
+ * in the database rather than the membership cache
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExpenseCreationSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void onlyMembersCanAddExpenses() throws Exception {
+        Group group = testData.groupWithMembers(2);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User member = testData.userById(memberIds.get(0));
+        User outsider = testData.user("Outsider");
+        String body = objectMapper.writeValueAsString(
+                testData.evenSplit(group.getId(), member.getId(), new BigDecimal("20.00"), memberIds));
+
+        mockMvc.perform(post("/api/expenses").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(outsider)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/expenses").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(member)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void participantRemovedElsewhereIsRejectedWhileTheCacheStillListsThem() throws Exception {
+        Group group = testData.groupWithMembers(3);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User member = testData.userById(memberIds.get(0));
+        Long removedId = memberIds.get(2);
+        assertTrue(groupMembershipIndex.memberCheck(group.getId()).test(removedId));
+
+        // Stands in for a removal committed by another application node, which this node's index never hears about
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> groupMemberRepository.deleteByUserIdAndGroupId(removedId, group.getId()));
+        String body = objectMapper.writeValueAsString(
+                testData.evenSplit(group.getId(), member.getId(), new BigDecimal("30.00"), memberIds));
+
+        mockMvc.perform(post("/api/expenses").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(member)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", endsWith("is not a member of the group")));
+    }
+}
@@ -0,0 +1,163 @@
+package com.splitwise.controller;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.dto.ExpenseDTO;
+import com.splitwise.dto.ExpenseFeedPage;
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.service.ExpenseService;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walking the keyset-paginated feed returns every expense exactly once, newest first, including runs of
+ * expenses that share a timestamp across a page boundary; the last page has no cursor and a malformed
+ * cursor is rejected
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExpenseFeedTest {
+
+    private static final LocalDateTime SHARED = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    private User member;
+    private Group group;
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void createExpenses() {
+        member = testData.user("Feed Reader");
+        group = testData.groupOf(List.of(member));
+        // Five expenses share a timestamp, so their order and the page boundaries fall back to the ID
+        Expense newest = expense(SHARED.plusDays(1));
+        List<Expense> shared = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            shared.add(expense(SHARED));
+        }
+        Expense oldest = expense(SHARED.minusDays(1));
+
+        newestFirst = new ArrayList<>();
+        newestFirst.add(newest.getId());
+        for (int i = shared.size() - 1; i >= 0; i--) {
+            newestFirst.add(shared.get(i).getId());
+        }
+        newestFirst.add(oldest.getId());
+    }
+
+    @Test
+    void pagesSplitSameTimestampRunsWithoutSkippingOrRepeating() {
+        for (int size = 1; size <= 8; size++) {
+            assertEquals(newestFirst, walk(size), "page size " + size);
+        }
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ExpenseFeedPage first = expenseService.getExpenseFeed(group.getId(), 4, null, false);
+        assertNotNull(first.getNextCursor());
+        assertTrue(first.isHasMore());
+
+        ExpenseFeedPage last = expenseService.getExpenseFeed(group.getId(), 4, first.getNextCursor(), false);
+        assertEquals(newestFirst.subList(4, 7), ids(last));
+        assertNull(last.getNextCursor());
+        assertFalse(last.isHasMore());
+
+        // A page that ends exactly on the last expense is the last page too, not followed by an empty one
+        ExpenseFeedPage exact = expenseService.getExpenseFeed(group.getId(), 7, null, false);
+        assertEquals(newestFirst, ids(exact));
+        assertNull(exact.getNextCursor());
+    }
+
+    @Test
+    void includeSplitsAttachesEachExpensesSplits() {
+        ExpenseFeedPage page = expenseService.getExpenseFeed(group.getId(), 3, null, true);
+
+        for (ExpenseDTO item : page.getItems()) {
+            assertEquals(1, item.getSplits().size());
+            assertEquals(item.getId(), item.getSplits().get(0).getExpenseId());
+            assertEquals(member.getId(), item.getSplits().get(0).getOwedById());
+        }
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        String noSeparator = encode("2025-03-01T12:00");
+        String badId = encode("2025-03-01T12:00|twelve");
+        String badDate = encode("yesterday|12");
+        for (String cursor : List.of("not a cursor!", noSeparator, badId, badDate)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> expenseService.getExpenseFeed(group.getId(), 2, cursor, false), cursor);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+
+        mockMvc.perform(get("/api/expenses/group/" + group.getId() + "/feed").param("cursor", badId)
+                        .sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(member)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+    }
+
+    private List<Long> walk(int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ExpenseFeedPage page = expenseService.getExpenseFeed(group.getId(), size, cursor, false);
+            assertFalse(page.getItems().isEmpty(), "a cursor led to an empty page");
+            ids.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> ids(ExpenseFeedPage page) {
+        List<Long> ids = new ArrayList<>();
+        for (ExpenseDTO item : page.getItems()) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+    private Expense expense(LocalDateTime date) {
+        CreateExpenseRequest request = testData.evenSplit(group.getId(), member.getId(), new BigDecimal("5.00"), List.of(member.getId()));
+        request.setExpenseDate(date);
+        return testData.as(member, () -> expenseService.createExpense(request));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
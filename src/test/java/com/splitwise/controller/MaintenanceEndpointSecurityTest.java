@@ -0,0 +1,107 @@
+package com.splitwise.controller;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Full-table maintenance jobs and operational statistics are for administrators; per-group jobs for the group's members
+ */
+@SpringBootTest(properties = "splitwise.security.admin-user-ids=" + MaintenanceEndpointSecurityTest.ADMIN_ID)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MaintenanceEndpointSecurityTest {
+
+    static final long ADMIN_ID = 900_000_001L;
+
+    private static final SessionPrincipal ADMIN = new SessionPrincipal(ADMIN_ID, "admin@example.com", "Admin", 0L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void fullLedgerRebuildRequiresAdmin() throws Exception {
+        User user = testData.user("Regular");
+
+        mockMvc.perform(post("/api/balances/ledger/rebuild").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/balances/ledger/rebuild").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void groupLedgerRebuildRequiresMembership() throws Exception {
+        Group group = testData.groupWithMembers(2);
+        User member = testData.userById(testData.memberIds(group.getId()).get(0));
+        User outsider = testData.user("Outsider");
+        String path = "/api/balances/group/" + group.getId() + "/ledger/rebuild";
+
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(outsider)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(member)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void monthlySpendBackfillRequiresAdmin() throws Exception {
+        User user = testData.user("Regular");
+
+        mockMvc.perform(post("/api/analytics/monthly-spend/backfill").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/analytics/monthly-spend/backfill").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void groupCounterReconciliationRequiresAdmin() throws Exception {
+        User user = testData.user("Regular");
+
+        mockMvc.perform(post("/api/groups/counters/reconcile").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/groups/counters/reconcile").sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void statsRequireAdmin() throws Exception {
+        User user = testData.user("Regular");
+
+        for (String path : new String[] {"/api/stats/auth-tokens", "/api/stats/membership", "/api/stats/balance-cache"}) {
+            mockMvc.perform(get(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(user)))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void groupMonthlySpendRebuildRequiresMembership() throws Exception {
+        Group group = testData.groupWithMembers(2);
+        User member = testData.userById(testData.memberIds(group.getId()).get(0));
+        User outsider = testData.user("Outsider");
+        String path = "/api/analytics/groups/" + group.getId() + "/monthly-spend/rebuild";
+
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(outsider)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(member)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, ADMIN))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,69 @@
+package com.splitwise.controller;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.service.ExpenseService;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only the user who is owed can settle up, and per group only as a member of the group
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SettleUpSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void onlyTheCreditorCanSettleUp() throws Exception {
+        User creditor = testData.user("Creditor");
+        User debtor = testData.user("Debtor");
+        Group group = testData.groupOf(List.of(creditor, debtor));
+        testData.as(creditor, () -> expenseService.createExpense(testData.evenSplit(group.getId(), creditor.getId(),
+                new BigDecimal("20.00"), List.of(creditor.getId(), debtor.getId()))));
+        String acrossGroups = "/api/expenses/settle-up/user/" + debtor.getId() + "/to/" + creditor.getId();
+        String inGroup = "/api/expenses/settle-up/group/" + group.getId() + "/user/" + debtor.getId() + "/to/" + creditor.getId();
+
+        mockMvc.perform(post(acrossGroups).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(debtor)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(inGroup).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(debtor)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(inGroup).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(creditor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.settledCount").value(1));
+    }
+
+    @Test
+    void groupSettleUpRequiresMembership() throws Exception {
+        User creditor = testData.user("Creditor");
+        User debtor = testData.user("Debtor");
+        Group group = testData.groupWithMembers(2);
+        testData.groupOf(List.of(creditor, debtor));
+        String path = "/api/expenses/settle-up/group/" + group.getId() + "/user/" + debtor.getId() + "/to/" + creditor.getId();
+
+        mockMvc.perform(post(path).sessionAttr(SessionPrincipal.SESSION_ATTRIBUTE, SessionPrincipal.of(creditor)))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,175 @@
+package com.splitwise.service;
+
+import com.splitwise.config.AuthMode;
+import com.splitwise.entity.User;
+import com.splitwise.util.SessionPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokens verify only with an untouched payload and signature, an unexpired lifetime and a configured key;
+ * rotation keeps the old key's tokens valid until that key is dropped, and revoked tokens stop verifying
+ */
+class AccessTokenServiceTest {
+
+    private static final String OLD_KEY = "old:" + secret('o');
+    private static final String NEW_KEY = "new:" + secret('n');
+
+    private final User user = user();
+
+    @Test
+    void tokenVerifiesAsTheUserItWasIssuedFor() {
+        AccessTokenService service = service(OLD_KEY, "", 900);
+
+        SessionPrincipal principal = service.verify(service.issue(user));
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getId());
+        assertEquals(user.getEmail(), principal.getEmail());
+        assertEquals(user.getName(), principal.getDisplayName());
+        assertEquals(SessionPrincipal.versionOf(user), principal.getVersion());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        AccessTokenService service = service(OLD_KEY, "", 900);
+        String token = service.issue(user);
+        String[] parts = token.split("\\.");
+
+        // Same signature over a payload naming another user
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replaceFirst("^7\n", "8\n").getBytes(StandardCharsets.UTF_8));
+        assertNull(service.verify(parts[0] + "." + forged + "." + parts[2]));
+
+        byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+        signature[0] ^= 1;
+        assertNull(service.verify(parts[0] + "." + parts[1] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature)));
+
+        // A token signed by another service holding a different secret under the same key ID
+        AccessTokenService impostor = service("old:" + secret('x'), "", 900);
+        assertNull(service.verify(impostor.issue(user)));
+
+        assertEquals(3, service.getStats().getRejected());
+        assertEquals(0, service.getStats().getVerified());
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        AccessTokenService service = service(OLD_KEY, "", 900);
+
+        for (String token : new String[] {null, "", "old", "old.payload", ".payload.signature", "old.!!!.???"}) {
+            assertNull(service.verify(token), String.valueOf(token));
+        }
+        assertFalse(service.revoke("old.payload"));
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws InterruptedException {
+        AccessTokenService service = service(OLD_KEY, "", 1);
+        String token = service.issue(user);
+        assertNotNull(service.verify(token));
+
+        Thread.sleep(1100);
+
+        assertNull(service.verify(token));
+    }
+
+    @Test
+    void tokenSignedWithAnUnknownKeyIsRejected() {
+        AccessTokenService issuer = service(OLD_KEY, "", 900);
+        AccessTokenService verifier = service(NEW_KEY, "", 900);
+
+        assertNull(verifier.verify(issuer.issue(user)));
+    }
+
+    @Test
+    void rotationAcceptsTheOldKeyUntilItIsDropped() {
+        AccessTokenService before = service(OLD_KEY, "", 900);
+        String oldToken = before.issue(user);
+
+        // Step one: the new key is added and made active, the old one is still accepted
+        AccessTokenService during = service(OLD_KEY + "," + NEW_KEY, "new", 900);
+        String newToken = during.issue(user);
+        assertTrue(newToken.startsWith("new."));
+        assertNotNull(during.verify(oldToken));
+        assertNotNull(during.verify(newToken));
+        // Nodes not yet rotated reject the new key's tokens
+        assertNull(before.verify(newToken));
+
+        // Step two: the old key is dropped
+        AccessTokenService after = service(NEW_KEY, "", 900);
+        assertNull(after.verify(oldToken));
+        assertNotNull(after.verify(newToken));
+    }
+
+    @Test
+    void revokedTokenIsRejectedWhileOthersStillVerify() {
+        AccessTokenService service = service(OLD_KEY, "", 900);
+        String loggedOut = service.issue(user);
+        String other = service.issue(user);
+
+        assertTrue(service.revoke(loggedOut));
+
+        assertNull(service.verify(loggedOut));
+        assertNotNull(service.verify(other));
+        assertEquals(1, service.getStats().getRevocations());
+        assertEquals(1, service.getStats().getRevokedTracked());
+    }
+
+    @Test
+    void revocationListIsBounded() {
+        AccessTokenService service = new AccessTokenService(AuthMode.TOKEN, OLD_KEY, "", 900, 2);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.revoke(service.issue(user)));
+        }
+
+        assertTrue(service.getStats().getRevokedTracked() <= 2);
+        assertEquals(5, service.getStats().getRevocations());
+    }
+
+    @Test
+    void tokenModeWithoutKeysFailsAtStartup() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new AccessTokenService(AuthMode.TOKEN, "", "", 900, 100));
+        assertEquals("splitwise.auth.mode=TOKEN requires splitwise.auth.token.keys", e.getMessage());
+
+        // Session mode never sends tokens to clients, so a per-process key is enough
+        AccessTokenService session = new AccessTokenService(AuthMode.SESSION, "", "", 900, 100);
+        assertEquals("local", session.getStats().getActiveKeyId());
+    }
+
+    @Test
+    void invalidKeyConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service("short:" + Base64.getEncoder().encodeToString(new byte[16]), "", 900));
+        assertThrows(IllegalArgumentException.class, () -> service("no-separator", "", 900));
+        assertThrows(IllegalArgumentException.class, () -> service("a.b:" + secret('d'), "", 900));
+        assertThrows(IllegalArgumentException.class, () -> service(OLD_KEY, "missing", 900));
+    }
+
+    private static AccessTokenService service(String keySpec, String activeKeyId, long ttlSeconds) {
+        return new AccessTokenService(AuthMode.TOKEN, keySpec, activeKeyId, ttlSeconds, 100);
+    }
+
+    private static String secret(char fill) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) fill);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+
+    private static User user() {
+        User user = new User("Token User", "token.user@example.com");
+        user.setId(7L);
+        return user;
+    }
+}
@@ -0,0 +1,79 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.BalanceResponse;
+import com.splitwise.entity.Group;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements one group balance calculation issues
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceServiceQueryCountTest {
+
+    // Group, members, paid totals and owed totals, plus the group version lookup
+    private static final long MAX_STATEMENTS = 5;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void groupBalancesIssueFixedNumberOfStatementsRegardlessOfGroupSize() {
+        long small = statementsForBalances(groupWithExpenses(3));
+        long large = statementsForBalances(groupWithExpenses(40));
+
+        assertEquals(small, large, "statement count grows with group size");
+        assertTrue(large <= MAX_STATEMENTS, "balance calculation issued " + large + " statements");
+    }
+
+    @Test
+    void groupBalancesAreComputedFromAllExpenses() {
+        Group group = groupWithExpenses(4);
+
+        BalanceResponse balances = balanceService.calculateGroupBalances(group.getId());
+
+        // Every member paid 10.00 split four ways, so everyone is even
+        assertEquals(0, new BigDecimal("40.00").compareTo(balances.getTotalGroupExpenses()));
+        assertEquals(4, balances.getUserBalances().size());
+        assertTrue(balances.getSettlements().isEmpty());
+    }
+
+    private Group groupWithExpenses(int memberCount) {
+        Group group = testData.groupWithMembers(memberCount);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        for (Long payerId : memberIds) {
+            testData.as(testData.userById(payerId), () -> expenseService.createExpense(
+                    testData.evenSplit(group.getId(), payerId, new BigDecimal("10.00"), memberIds)));
+        }
+        return group;
+    }
+
+    private long statementsForBalances(Group group) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        balanceService.calculateGroupBalances(group.getId());
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,173 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.User;
+import com.splitwise.repository.UserRepository;
+import com.splitwise.util.SecurityUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * The current user is resolved once per request and cached across requests until the TTL; updating or
+ * deleting the user through UserService makes the very next read, in the same request or a later one, see it
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CurrentUserCacheTest {
+
+    @Autowired
+    private SecurityUtil securityUtil;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void currentUserIsResolvedOncePerRequest() {
+        User user = testData.user("Memo");
+
+        testData.as(user, () -> {
+            User first = securityUtil.getCurrentUser();
+            CurrentUserCache.Stats before = currentUserCache.getStats();
+            User second = securityUtil.getCurrentUser();
+            CurrentUserCache.Stats after = currentUserCache.getStats();
+
+            assertSame(first, second);
+            assertEquals(before.getRequestHits() + 1, after.getRequestHits());
+            assertEquals(before.getCacheHits(), after.getCacheHits());
+            assertEquals(before.getDatabaseLookups(), after.getDatabaseLookups());
+            return null;
+        });
+    }
+
+    @Test
+    void laterRequestIsServedFromTheCache() {
+        User user = testData.user("Cached");
+        testData.as(user, securityUtil::getCurrentUser);
+
+        // Stands in for a rename committed by another application node, which this node's cache never hears about
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User renamed = userRepository.findById(user.getId()).orElseThrow();
+            renamed.setName("Renamed Elsewhere");
+        });
+
+        long lookups = currentUserCache.getStats().getDatabaseLookups();
+        assertEquals(user.getName(), testData.as(user, securityUtil::getCurrentUser).getName(), "served until the TTL");
+        assertEquals(lookups, currentUserCache.getStats().getDatabaseLookups());
+    }
+
+    @Test
+    void updateIsSeenByTheNextReadInTheSameRequestAndLaterOnes() {
+        User user = testData.user("Before");
+
+        testData.as(user, () -> {
+            assertEquals(user.getName(), securityUtil.getCurrentUser().getName());
+            User changes = new User("After", user.getEmail());
+            userService.updateUser(user.getId(), changes);
+
+            assertEquals("After", securityUtil.getCurrentUser().getName());
+            return null;
+        });
+        assertEquals("After", testData.as(user, securityUtil::getCurrentUser).getName());
+    }
+
+    @Test
+    void deletedUserIsGoneForTheNextReadInTheSameRequestAndLaterOnes() {
+        User user = testData.user("Leaving");
+
+        testData.as(user, () -> {
+            assertNotNull(securityUtil.getCurrentUser());
+            userService.deleteUser(user.getId());
+
+            assertNull(securityUtil.getCurrentUser());
+            return null;
+        });
+        assertNull(testData.as(user, securityUtil::getCurrentUser));
+    }
+
+    @Test
+    void entryExpiresAfterTheTtl() throws InterruptedException {
+        Map<Long, User> rows = new HashMap<>();
+        rows.put(1L, new User("Old Name", "ttl@example.com"));
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, User> loader = id -> {
+            loads.incrementAndGet();
+            return rows.get(id);
+        };
+        CurrentUserCache cache = new CurrentUserCache(true, 10, 1);
+
+        assertEquals("Old Name", cache.get(1L, loader).getName());
+        rows.put(1L, new User("New Name", "ttl@example.com"));
+        assertEquals("Old Name", cache.get(1L, loader).getName());
+        Thread.sleep(1100);
+
+        assertEquals("New Name", cache.get(1L, loader).getName());
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(1, cache.getStats().getCacheHits());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedBeyondTheSize() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, User> loader = id -> {
+            loads.incrementAndGet();
+            return new User("User " + id, "user" + id + "@example.com");
+        };
+        CurrentUserCache cache = new CurrentUserCache(true, 2, 60);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+
+        // Over the cap: user 2 is the least recently used
+        cache.get(3L, loader);
+        cache.get(1L, loader);
+        assertEquals(3, loads.get(), "recently used entry was evicted");
+        cache.get(2L, loader);
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void evictionDropsTheEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, User> loader = id -> {
+            loads.incrementAndGet();
+            return new User("User " + id, "user" + id + "@example.com");
+        };
+        CurrentUserCache cache = new CurrentUserCache(true, 10, 60);
+        cache.get(1L, loader);
+
+        cache.evictAfterCommit(1L);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getInvalidations());
+    }
+}
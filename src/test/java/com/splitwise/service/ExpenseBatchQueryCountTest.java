@@ -0,0 +1,111 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.ExpenseImportResult;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the SQL statements of the batched write paths under the pooled-ids profile, where
+ * expense and split inserts go out as JDBC batches. Runs against its own in-memory database: its schema has
+ * no AUTO_INCREMENT IDs, and recreating the shared one would break the cached "test" context.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:splitwise-pooled-ids;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles({"test", "pooled-ids"})
+class ExpenseBatchQueryCountTest {
+
+    private static final long MAX_EXPENSE_STATEMENTS = 12;
+
+    // Lookups, caller and member checks, ID blocks, insert batches, one ledger and one rollup upsert and the counter update
+    private static final long MAX_IMPORT_STATEMENTS = 20;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void expenseCreationIssuesFixedNumberOfStatementsRegardlessOfSplitCount() {
+        long small = statementsForExpense(5);
+        long large = statementsForExpense(50);
+
+        assertEquals(small, large, "statement count grows with the number of splits");
+        assertTrue(large <= MAX_EXPENSE_STATEMENTS, "expense creation issued " + large + " statements");
+    }
+
+    @Test
+    void importIssuesFixedNumberOfStatementsRegardlessOfRowCount() throws IOException {
+        long small = statementsForImport(10);
+        long large = statementsForImport(100);
+
+        assertEquals(small, large, "statement count grows with the number of imported rows");
+        assertTrue(large <= MAX_IMPORT_STATEMENTS, "import issued " + large + " statements");
+    }
+
+    private long statementsForExpense(int splitCount) {
+        Group group = testData.groupWithMembers(splitCount);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User payer = testData.userById(memberIds.get(0));
+        Statistics statistics = statistics();
+        testData.as(payer, () -> expenseService.createExpense(
+                testData.evenSplit(group.getId(), payer.getId(), new BigDecimal("100.00"), memberIds)));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long statementsForImport(int rowCount) throws IOException {
+        Group group = testData.groupWithMembers(5);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        StringBuilder csv = new StringBuilder("description,amount,paidById,groupId,splits\n");
+        for (int row = 0; row < rowCount; row++) {
+            csv.append("Row ").append(row).append(",50.00,").append(memberIds.get(row % memberIds.size()))
+                    .append(',').append(group.getId()).append(',');
+            for (int i = 0; i < memberIds.size(); i++) {
+                csv.append(i == 0 ? "" : ";").append(memberIds.get(i)).append(":10.00");
+            }
+            csv.append('\n');
+        }
+        User importer = testData.userById(memberIds.get(0));
+        Statistics statistics = statistics();
+        ExpenseImportResult result = testData.as(importer, () -> importCsv(csv.toString()));
+        assertEquals(rowCount, result.getImported(), "rows were rejected: " + result.getErrors().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ExpenseImportResult importCsv(String csv) {
+        try {
+            return expenseImportService.importExpenses(new StringReader(csv), ExpenseImportFormat.CSV);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
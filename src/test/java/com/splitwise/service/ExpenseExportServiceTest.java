@@ -0,0 +1,51 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Streams a small ledger through the export cursor
+ */
+@SpringBootTest(properties = "splitwise.export.fetch-size=100")
+@ActiveProfiles("test")
+class ExpenseExportServiceTest {
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void csvExportWritesHeaderAndOneRowPerSplit() throws IOException {
+        Group group = testData.groupWithMembers(3);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User member = testData.userById(memberIds.get(0));
+        testData.as(member, () -> expenseService.createExpense(
+                testData.evenSplit(group.getId(), memberIds.get(0), new BigDecimal("30.00"), memberIds)));
+        testData.as(member, () -> expenseService.createExpense(
+                testData.evenSplit(group.getId(), memberIds.get(1), new BigDecimal("9.00"), memberIds)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = expenseExportService.exportLedger(group.getId(), ExpenseExportFormat.CSV, out);
+
+        assertEquals(6, rows);
+        assertEquals(7, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+}
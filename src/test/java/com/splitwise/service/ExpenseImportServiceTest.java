@@ -0,0 +1,103 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.ExpenseImportResult;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.repository.GroupMemberRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imported rows are only accepted for groups the importing user belongs to, with participants checked
+ * against the group's members in the database rather than the membership cache
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseImportServiceTest {
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void rowsForGroupsOfWhichTheImporterIsNotAMemberAreRejected() {
+        Group own = testData.groupWithMembers(2);
+        Group other = testData.groupWithMembers(2);
+        List<Long> ownIds = testData.memberIds(own.getId());
+        List<Long> otherIds = testData.memberIds(other.getId());
+        User importer = testData.userById(ownIds.get(0));
+
+        ExpenseImportResult result = testData.as(importer, () -> importCsv(
+                "description,amount,paidById,groupId,splits\n"
+                        + row(own, ownIds)
+                        + row(other, otherIds)
+                        + row(own, ownIds)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals("You are not a member of this group", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void participantRemovedElsewhereIsRejectedWhileTheCacheStillListsThem() {
+        Group group = testData.groupWithMembers(3);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User importer = testData.userById(memberIds.get(0));
+        Long removedId = memberIds.get(2);
+        assertTrue(groupMembershipIndex.memberCheck(group.getId()).test(removedId));
+
+        // Stands in for a removal committed by another application node, which this node's index never hears about
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> groupMemberRepository.deleteByUserIdAndGroupId(removedId, group.getId()));
+
+        ExpenseImportResult result = testData.as(importer, () -> importCsv(
+                "description,amount,paidById,groupId,splits\n" + row(group, memberIds)));
+
+        assertTrue(groupMembershipIndex.memberCheck(group.getId()).test(removedId), "cached member list is stale");
+        assertEquals(0, result.getImported());
+        assertTrue(result.getErrors().get(0).getMessage().endsWith("is not a member of the group"),
+                result.getErrors().get(0).getMessage());
+    }
+
+    private String row(Group group, List<Long> memberIds) {
+        StringBuilder row = new StringBuilder("Dinner,").append(memberIds.size() * 10).append(".00,")
+                .append(memberIds.get(0)).append(',').append(group.getId()).append(',');
+        for (int i = 0; i < memberIds.size(); i++) {
+            row.append(i == 0 ? "" : ";").append(memberIds.get(i)).append(":10.00");
+        }
+        return row.append('\n').toString();
+    }
+
+    private ExpenseImportResult importCsv(String csv) {
+        try {
+            return expenseImportService.importExpenses(new StringReader(csv), ExpenseImportFormat.CSV);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.dto.ExpenseDTO;
+import com.splitwise.dto.ExpenseSearchResult;
+import com.splitwise.entity.Expense;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import com.splitwise.repository.ExpenseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Search matches words, prefixes and substrings, ranks exact matches first, only sees the caller's groups,
+ * reloads a group once its data version moves on and keeps a bounded number of groups
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseSearchIndexTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseSearchIndex expenseSearchIndex;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private User member;
+    private Group group;
+    private Expense dinner;
+    private Expense taxi;
+    private Expense dinnerNote;
+
+    @BeforeEach
+    void createExpenses() {
+        member = testData.user("Searcher");
+        group = testData.groupOf(List.of(member));
+        dinner = expense("Dinner at Luigi's", null);
+        taxi = expense("Taxi to the airport", null);
+        dinnerNote = expense("Groceries", "for the dinner party");
+    }
+
+    @Test
+    void matchesWordsPrefixesAndSubstrings() {
+        assertEquals(List.of(taxi.getId()), search("taxi", group.getId()));
+        assertEquals(List.of(taxi.getId()), search("airp", group.getId()));
+        assertEquals(List.of(dinner.getId()), search("uigi", group.getId()));
+        assertEquals(List.of(taxi.getId()), search("taxi airport", group.getId()));
+        assertTrue(search("taxi luigi", group.getId()).isEmpty(), "every query word must match");
+    }
+
+    @Test
+    void ranksDescriptionMatchesBeforeNoteMatches() {
+        assertEquals(List.of(dinner.getId(), dinnerNote.getId()), search("dinner", group.getId()));
+    }
+
+    @Test
+    void deletedExpensesDropOutOfResults() {
+        expenseService.deleteExpense(taxi.getId());
+
+        assertTrue(search("taxi", group.getId()).isEmpty());
+    }
+
+    @Test
+    void searchIsScopedToTheCallersGroups() {
+        User outsider = testData.user("Outsider");
+        testData.groupOf(List.of(outsider));
+
+        ExpenseSearchResult result = testData.as(outsider, () -> expenseService.searchExpenses("taxi", null, 0, 10));
+        assertEquals(0, result.getTotal());
+        assertThrows(IllegalArgumentException.class,
+                () -> testData.as(outsider, () -> expenseService.searchExpenses("taxi", group.getId(), 0, 10)));
+    }
+
+    @Test
+    void changeMadeOnAnotherNodeIsSeenOnceTheGroupVersionMovesOn() {
+        assertEquals(List.of(taxi.getId()), search("taxi", group.getId()));
+        long reloads = expenseSearchIndex.getStats().getReloads();
+
+        // Stands in for an edit committed by another application node, which this node's index never hears about
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Expense edited = expenseRepository.findById(taxi.getId()).orElseThrow();
+            edited.setDescription("Shuttle to the airport");
+            groupVersionService.bump(group.getId());
+        });
+
+        assertEquals(List.of(taxi.getId()), search("shuttle", group.getId()));
+        assertTrue(search("taxi", group.getId()).isEmpty());
+        assertEquals(reloads + 1, expenseSearchIndex.getStats().getReloads());
+    }
+
+    @Test
+    void leastRecentlySearchedGroupIsEvicted() {
+        ExpenseSearchIndex index = new ExpenseSearchIndex(expenseRepository, groupVersionService, transactionManager, 1);
+        Group other = testData.groupOf(List.of(member));
+
+        assertEquals(List.of(taxi.getId()), index.search(List.of(group.getId()), "taxi"));
+        index.search(List.of(other.getId()), "taxi");
+        assertEquals(List.of(taxi.getId()), index.search(List.of(group.getId()), "taxi"));
+
+        ExpenseSearchIndex.Stats stats = index.getStats();
+        assertEquals(1, stats.getCachedGroups());
+        assertEquals(3, stats.getLoads(), "the evicted group was loaded again");
+        assertEquals(2, stats.getEvictions());
+        assertEquals(0, stats.getHits());
+    }
+
+    private Expense expense(String description, String notes) {
+        CreateExpenseRequest request = testData.evenSplit(group.getId(), member.getId(), new BigDecimal("12.00"), List.of(member.getId()));
+        request.setDescription(description);
+        request.setNotes(notes);
+        return testData.as(member, () -> expenseService.createExpense(request));
+    }
+
+    private List<Long> search(String query, Long groupId) {
+        ExpenseSearchResult result = testData.as(member, () -> expenseService.searchExpenses(query, groupId, 0, 10));
+        List<Long> ids = new ArrayList<>();
+        for (ExpenseDTO item : result.getItems()) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,71 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the SQL statements expense creation issues with IDENTITY keys: the lookups and the ledger and rollup
+ * upserts are fixed, only the split inserts grow with the number of splits
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpenseServiceQueryCountTest {
+
+    // Caller membership, participants and member IDs; the group is loaded by primary key
+    private static final long LOOKUP_QUERIES = 3;
+
+    // The split insert: IDENTITY keys cannot be batched, the ledger and rollup deltas go out as one upsert each
+    private static final long STATEMENTS_PER_SPLIT = 1;
+
+    private static final long MAX_FIXED_STATEMENTS = 10;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void expenseCreationLooksUpParticipantsWithFixedNumberOfQueries() {
+        Statistics small = statisticsForExpense(5);
+        long smallStatements = small.getPrepareStatementCount();
+        long smallQueries = small.getQueryExecutionCount();
+        Statistics large = statisticsForExpense(50);
+
+        assertEquals(smallQueries, large.getQueryExecutionCount(), "lookup queries grow with the number of splits");
+        assertTrue(large.getQueryExecutionCount() <= LOOKUP_QUERIES, "lookups issued " + large.getQueryExecutionCount() + " queries");
+        assertEquals(0, large.getEntityFetchCount(), "participants were fetched one by one");
+        assertTrue(smallStatements <= MAX_FIXED_STATEMENTS + 5 * STATEMENTS_PER_SPLIT,
+                "5-way split issued " + smallStatements + " statements");
+        assertEquals(45 * STATEMENTS_PER_SPLIT, large.getPrepareStatementCount() - smallStatements,
+                "45 more splits issued " + (large.getPrepareStatementCount() - smallStatements) + " more statements");
+    }
+
+    private Statistics statisticsForExpense(int splitCount) {
+        Group group = testData.groupWithMembers(splitCount);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User payer = testData.userById(memberIds.get(0));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        testData.as(payer, () -> expenseService.createExpense(
+                testData.evenSplit(group.getId(), payer.getId(), new BigDecimal("100.00"), memberIds)));
+        return statistics;
+    }
+}
@@ -0,0 +1,150 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.BalanceResponse;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With the balance cache on, a write through any of the group's writers must make the next read recompute.
+ * Runs against its own in-memory database: starting this context recreates its schema, which would reset IDs
+ * under the caches of the shared "test" context.
+ */
+@SpringBootTest(properties = {"splitwise.balance.cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:splitwise-balance-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class GroupBalanceCacheTest {
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void unchangedGroupIsServedFromCache() {
+        Group group = testData.groupWithMembers(2);
+
+        BalanceResponse first = balanceService.calculateGroupBalances(group.getId());
+
+        assertSame(first, balanceService.calculateGroupBalances(group.getId()));
+    }
+
+    @Test
+    void newExpenseIsNeverServedStale() {
+        Group group = testData.groupWithMembers(2);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User payer = testData.userById(memberIds.get(0));
+        BalanceResponse before = balanceService.calculateGroupBalances(group.getId());
+
+        testData.as(payer, () -> expenseService.createExpense(
+                testData.evenSplit(group.getId(), payer.getId(), new BigDecimal("20.00"), memberIds)));
+
+        BalanceResponse after = balanceService.calculateGroupBalances(group.getId());
+        assertNotSame(before, after);
+        assertEquals(0, new BigDecimal("20.00").compareTo(after.getTotalGroupExpenses()));
+    }
+
+    @Test
+    void addedMemberIsNeverServedStale() {
+        Group group = testData.groupWithMembers(2);
+        User caller = testData.userById(testData.memberIds(group.getId()).get(0));
+        User newcomer = testData.user("Newcomer");
+        assertEquals(2, balanceService.calculateGroupBalances(group.getId()).getUserBalances().size());
+
+        testData.as(caller, () -> groupService.addUserToGroup(group.getId(), newcomer.getId()));
+
+        assertEquals(3, balanceService.calculateGroupBalances(group.getId()).getUserBalances().size());
+    }
+
+    @Test
+    void removedMemberIsNeverServedStale() {
+        Group group = testData.groupWithMembers(3);
+        Long leaving = testData.memberIds(group.getId()).get(2);
+        assertEquals(3, balanceService.calculateGroupBalances(group.getId()).getUserBalances().size());
+
+        groupService.removeUserFromGroup(group.getId(), leaving);
+
+        assertEquals(2, balanceService.calculateGroupBalances(group.getId()).getUserBalances().size());
+    }
+
+    @Test
+    void renamedMemberIsNeverServedStale() {
+        Group group = testData.groupWithMembers(2);
+        User member = testData.userById(testData.memberIds(group.getId()).get(0));
+        balanceService.calculateGroupBalances(group.getId());
+
+        User renamed = new User("Renamed Member", member.getEmail(), member.getPhone());
+        userService.updateUser(member.getId(), renamed);
+
+        assertTrue(balanceService.calculateGroupBalances(group.getId()).getUserBalances().stream()
+                .anyMatch(balance -> "Renamed Member".equals(balance.getUserName())));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        GroupBalanceCache cache = new GroupBalanceCache(true, 10, 1);
+        BalanceResponse balance = new BalanceResponse();
+        cache.put(1L, 5L, balance);
+        assertSame(balance, cache.get(1L, 5L));
+
+        Thread.sleep(1100);
+
+        assertNull(cache.get(1L, 5L));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedBeyondTheCap() {
+        GroupBalanceCache cache = new GroupBalanceCache(true, 2, 60);
+        cache.put(1L, 1L, new BalanceResponse());
+        cache.put(2L, 1L, new BalanceResponse());
+        cache.get(1L, 1L);
+
+        cache.put(3L, 1L, new BalanceResponse());
+
+        assertNull(cache.get(2L, 1L));
+        GroupBalanceCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void entryOfAnOlderVersionIsInvalidated() {
+        GroupBalanceCache cache = new GroupBalanceCache(true, 10, 60);
+        cache.put(1L, 1L, new BalanceResponse());
+
+        assertNull(cache.get(1L, 2L));
+
+        GroupBalanceCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getSize());
+    }
+}
@@ -0,0 +1,130 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.GroupMember;
+import com.splitwise.entity.User;
+import com.splitwise.repository.GroupMemberRepository;
+import com.splitwise.repository.GroupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the membership index's expiry and LRU eviction, and that membership writes decide from the database
+ * when another node changed a membership the index has not seen
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupMembershipIndexTest {
+
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void membershipRemovedElsewhereIsSeenOnceTheEntryExpires() throws InterruptedException {
+        GroupMembershipIndex index = new GroupMembershipIndex(groupMemberRepository, 100, 1);
+        Group group = testData.groupWithMembers(2);
+        Long userId = testData.memberIds(group.getId()).get(0);
+        assertTrue(index.isMember(userId, group.getId()));
+
+        inOtherTransaction(() -> groupMemberRepository.deleteByUserIdAndGroupId(userId, group.getId()));
+
+        assertTrue(index.isMember(userId, group.getId()), "answered from the cached entry");
+        assertFalse(index.confirmMember(userId, group.getId()));
+        Thread.sleep(1100);
+        assertFalse(index.isMember(userId, group.getId()));
+        assertEquals(1, index.getStats().getExpirations());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        GroupMembershipIndex index = new GroupMembershipIndex(groupMemberRepository, 2, 60);
+        Group group = testData.groupWithMembers(3);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        index.isMember(memberIds.get(0), group.getId());
+        index.isMember(memberIds.get(1), group.getId());
+        index.isMember(memberIds.get(0), group.getId());
+
+        // Over the cap: the second user is the least recently used
+        index.isMember(memberIds.get(2), group.getId());
+        long loads = index.getStats().getLoads();
+        index.isMember(memberIds.get(0), group.getId());
+        assertEquals(loads, index.getStats().getLoads(), "recently used entry was evicted");
+        index.isMember(memberIds.get(1), group.getId());
+        assertEquals(loads + 1, index.getStats().getLoads(), "least recently used entry was kept");
+        assertEquals(2, index.getStats().getEvictions());
+    }
+
+    @Test
+    void addingAMemberAddedElsewhereIsRejected() {
+        Group group = testData.groupWithMembers(2);
+        User caller = testData.userById(testData.memberIds(group.getId()).get(0));
+        User newcomer = testData.user("Newcomer");
+        assertFalse(groupMembershipIndex.isMember(newcomer.getId(), group.getId()));
+
+        inOtherTransaction(() -> groupMemberRepository.save(
+                new GroupMember(newcomer, groupRepository.findById(group.getId()).orElseThrow())));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> testData.as(caller, () -> groupService.addUserToGroup(group.getId(), newcomer.getId())));
+        assertEquals("User is already a member of this group", e.getMessage());
+        assertEquals(3, groupMemberRepository.countMembersByGroupId(group.getId()));
+    }
+
+    @Test
+    void removingAMemberAddedElsewhereSucceeds() {
+        Group group = testData.groupWithMembers(2);
+        User newcomer = testData.user("Newcomer");
+        assertFalse(groupMembershipIndex.isMember(newcomer.getId(), group.getId()));
+
+        inOtherTransaction(() -> groupMemberRepository.save(
+                new GroupMember(newcomer, groupRepository.findById(group.getId()).orElseThrow())));
+
+        groupService.removeUserFromGroup(group.getId(), newcomer.getId());
+        assertFalse(groupMemberRepository.existsByUserIdAndGroupId(newcomer.getId(), group.getId()));
+    }
+
+    @Test
+    void removingAMemberRemovedElsewhereIsRejected() {
+        Group group = testData.groupWithMembers(2);
+        Long userId = testData.memberIds(group.getId()).get(0);
+        assertTrue(groupMembershipIndex.isMember(userId, group.getId()));
+
+        inOtherTransaction(() -> groupMemberRepository.deleteByUserIdAndGroupId(userId, group.getId()));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> groupService.removeUserFromGroup(group.getId(), userId));
+        assertEquals("User is not a member of this group", e.getMessage());
+    }
+
+    // Stands in for a write made by another application node, which this node's index never hears about
+    private void inOtherTransaction(Runnable write) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> write.run());
+    }
+}
@@ -0,0 +1,67 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.entity.Group;
+import com.splitwise.repository.GroupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that group versions follow the persisted column, including bumps made by other nodes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GroupVersionServiceTest {
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void bumpCommittedElsewhereChangesTheETag() {
+        Group group = testData.groupWithMembers(2);
+        String before = groupVersionService.currentETag(group.getId());
+        long version = groupVersionService.currentVersion(group.getId());
+
+        // Another node bumps the row directly, bypassing this service
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                groupRepository.incrementDataVersions(List.of(group.getId())));
+
+        assertEquals(version + 1, groupVersionService.currentVersion(group.getId()));
+        assertNotEquals(before, groupVersionService.currentETag(group.getId()));
+    }
+
+    @Test
+    void bumpIsVisibleAfterCommit() {
+        Group group = testData.groupWithMembers(2);
+        long version = groupVersionService.currentVersion(group.getId());
+
+        groupVersionService.bump(group.getId());
+
+        assertEquals(version + 1, groupVersionService.currentVersion(group.getId()));
+    }
+
+    @Test
+    void missingGroupHasNoETag() {
+        assertNull(groupVersionService.currentETag(Long.MAX_VALUE));
+        assertEquals(0L, groupVersionService.currentVersion(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,69 @@
+package com.splitwise.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.TestData;
+import com.splitwise.dto.CreateExpenseRequest;
+import com.splitwise.dto.MonthlySpendReport;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rebuilding a group's rollups from its expenses reproduces the rollups maintained by the write deltas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MonthlySpendServiceTest {
+
+    @Autowired
+    private MonthlySpendService monthlySpendService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void rebuildMatchesIncrementalRollups() throws Exception {
+        Group group = testData.groupWithMembers(3);
+        List<Long> memberIds = testData.memberIds(group.getId());
+        User member = testData.userById(memberIds.get(0));
+        expense(group, memberIds.get(0), "30.00", memberIds, LocalDateTime.of(2025, 1, 31, 23, 59));
+        expense(group, memberIds.get(1), "12.00", memberIds, LocalDateTime.of(2025, 2, 1, 0, 0));
+        expense(group, memberIds.get(1), "9.99", memberIds.subList(1, 3), LocalDateTime.of(2025, 2, 14, 12, 0));
+
+        String incremental = report(group);
+        testData.as(member, () -> {
+            monthlySpendService.rebuildGroup(group.getId());
+            return null;
+        });
+
+        assertEquals(incremental, report(group));
+        MonthlySpendReport rebuilt = monthlySpendService.getMonthlySpend(group.getId(), "2025-01", "2025-02");
+        assertEquals(0, new BigDecimal("30.00").compareTo(rebuilt.getMonths().get(0).getTotalSpend()));
+        assertEquals(2, rebuilt.getMonths().get(1).getExpenseCount());
+    }
+
+    private void expense(Group group, Long paidById, String amount, List<Long> owedByIds, LocalDateTime date) {
+        CreateExpenseRequest request = testData.evenSplit(group.getId(), paidById, new BigDecimal(amount), owedByIds);
+        request.setExpenseDate(date);
+        testData.as(testData.userById(paidById), () -> expenseService.createExpense(request));
+    }
+
+    private String report(Group group) throws Exception {
+        return objectMapper.writeValueAsString(monthlySpendService.getMonthlySpend(group.getId(), "2025-01", "2025-02"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.splitwise.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * With the hashing pool busy and its queue full further sign-ins are shed at once, a hash that outlasts the
+ * wait limit is abandoned, and each email gets a fixed number of attempts per window; all three are
+ * PasswordHashingRejectedException with a Retry-After
+ */
+class PasswordHashingServiceTest {
+
+    // Holds every hash until released, standing in for BCrypt under load
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+    };
+
+    private final List<PasswordHashingService> services = new ArrayList<>();
+
+    @AfterEach
+    void releaseAndShutdown() {
+        release.countDown();
+        services.forEach(PasswordHashingService::shutdown);
+    }
+
+    @Test
+    void signInsBeyondTheQueueAreShed() throws Exception {
+        // One thread and one queue slot: the first hash runs, the second waits, the third is refused
+        PasswordHashingService service = service(1, 1, 10_000, 100, 60);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        awaitStats(service, 1, 0);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        awaitStats(service, 1, 1);
+
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> service.matches("third", "hashed:third"));
+        assertEquals("Too many sign-ins in progress, please retry shortly", e.getMessage());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1, service.getStats().getShed());
+
+        release.countDown();
+        assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+        assertTrue(service.matches("fourth", "hashed:fourth"), "pool accepts work again once drained");
+        assertEquals(1, service.getStats().getPeakQueueDepth());
+    }
+
+    @Test
+    void hashOutlastingTheWaitLimitIsAbandoned() {
+        PasswordHashingService service = service(1, 1, 100, 100, 60);
+
+        long start = System.nanoTime();
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> service.encode("slow"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Sign-in is taking too long, please retry shortly", e.getMessage());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertTrue(waitedMillis >= 100 && waitedMillis < 5_000, "waited " + waitedMillis + " ms");
+        assertEquals(1, service.getStats().getTimeouts());
+    }
+
+    @Test
+    void attemptsPerEmailAreLimitedWithinTheWindow() {
+        PasswordHashingService service = service(1, 1, 1_000, 3, 60);
+        for (int i = 0; i < 3; i++) {
+            service.recordAttempt("Someone@Example.com");
+        }
+
+        // Same email in another case and with whitespace counts against the same window
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> service.recordAttempt(" someone@example.com "));
+        assertEquals("Too many sign-in attempts for this email, please retry later", e.getMessage());
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60, "retry after " + e.getRetryAfterSeconds());
+
+        assertDoesNotThrow(() -> service.recordAttempt("someone.else@example.com"));
+        assertEquals(1, service.getStats().getThrottled());
+        assertEquals(2, service.getStats().getTrackedEmails());
+    }
+
+    @Test
+    void attemptsAreAllowedAgainOnceTheWindowPasses() throws InterruptedException {
+        PasswordHashingService service = service(1, 1, 1_000, 1, 1);
+        service.recordAttempt("window@example.com");
+        assertThrows(PasswordHashingRejectedException.class, () -> service.recordAttempt("window@example.com"));
+
+        Thread.sleep(1100);
+
+        assertDoesNotThrow(() -> service.recordAttempt("window@example.com"));
+    }
+
+    private PasswordHashingService service(int threads, int queueCapacity, long maxWaitMillis,
+                                           int maxAttempts, long windowSeconds) {
+        PasswordHashingService service = new PasswordHashingService(
+                blockingEncoder, threads, queueCapacity, maxWaitMillis, maxAttempts, windowSeconds, 1_000);
+        services.add(service);
+        return service;
+    }
+
+    private void await() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitStats(PasswordHashingService service, int activeThreads, int queueDepth)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (service.getStats().getActiveThreads() != activeThreads || service.getStats().getQueueDepth() != queueDepth) {
+            assertTrue(System.currentTimeMillis() < deadline, "pool did not reach the expected state");
+            Thread.sleep(10);
+        }
+    }
+}
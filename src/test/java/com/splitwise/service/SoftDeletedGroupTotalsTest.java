@@ -0,0 +1,62 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.GroupBalanceSummary;
+import com.splitwise.dto.SettleUpResult;
+import com.splitwise.entity.Group;
+import com.splitwise.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Splits of a group awaiting its asynchronous purge no longer count towards cross-group totals or settle-ups
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SoftDeletedGroupTotalsTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void crossGroupTotalsSkipSoftDeletedGroups() {
+        User payer = testData.user("Payer");
+        User debtor = testData.user("Debtor");
+        List<Long> both = List.of(payer.getId(), debtor.getId());
+        Group deleted = testData.groupOf(List.of(payer, debtor));
+        Group kept = testData.groupOf(List.of(payer, debtor));
+        testData.as(payer, () -> expenseService.createExpense(
+                testData.evenSplit(deleted.getId(), payer.getId(), new BigDecimal("40.00"), both)));
+        testData.as(payer, () -> expenseService.createExpense(
+                testData.evenSplit(kept.getId(), payer.getId(), new BigDecimal("10.00"), both)));
+
+        groupService.scheduleGroupDeletion(deleted.getId());
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(balanceService.getTotalAmountOwedByUser(debtor.getId())));
+        assertEquals(1, expenseService.getUnsettledSplitsOwedByUser(debtor.getId()).size());
+        assertEquals(1, expenseService.getExpensesPaidByUser(payer.getId()).size());
+        List<GroupBalanceSummary> summary = balanceService.getUserBalanceSummary(debtor.getId());
+        assertEquals(1, summary.size());
+        assertEquals(kept.getId(), summary.get(0).getGroupId());
+
+        SettleUpResult result = testData.as(payer, () -> expenseService.settleUp(null, debtor.getId(), payer.getId()));
+        assertEquals(1, result.getSettledCount());
+        assertEquals(0, new BigDecimal("5.00").compareTo(result.getSettledAmount()));
+    }
+}
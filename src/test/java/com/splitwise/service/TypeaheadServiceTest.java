@@ -0,0 +1,50 @@
+package com.splitwise.service;
+
+import com.splitwise.TestData;
+import com.splitwise.dto.TypeaheadSuggestion;
+import com.splitwise.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Suggestions matching from the first character rank first, then alphabetically, cut at the limit
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TypeaheadServiceTest {
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void ranksLeadingMatchesFirstThenAlphabetically() {
+        User caller = testData.user("Caller");
+        User annaBell = testData.user("Anna Bell");
+        User bellaCruz = testData.user("Bella Cruz");
+        User belindaAsh = testData.user("Belinda Ash");
+        User arabella = testData.user("Arabella");
+        testData.groupOf(List.of(caller, annaBell, bellaCruz, belindaAsh, arabella));
+
+        assertEquals(List.of(belindaAsh.getId(), bellaCruz.getId(), annaBell.getId()), suggest(caller, "bel", 10));
+        assertEquals(List.of(belindaAsh.getId(), bellaCruz.getId()), suggest(caller, "bel", 2));
+        assertEquals(List.of(annaBell.getId()), suggest(caller, "anna b", 10));
+    }
+
+    private List<Long> suggest(User caller, String query, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (TypeaheadSuggestion suggestion : testData.as(caller, () -> typeaheadService.suggest(query, limit))) {
+            ids.add(suggestion.getId());
+        }
+        return ids;
+    }
+}
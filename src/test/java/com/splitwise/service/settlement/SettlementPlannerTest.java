@@ -0,0 +1,66 @@
+package com.splitwise.service.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SettlementPlannerTest {
+
+    private final SettlementPlanner planner =
+            new SettlementPlanner(new MinimumTransferSettlementEngine(), new GreedySettlementEngine(), 16, 100);
+
+    @Test
+    void greedyKeepsParticipantOrderForEqualAmounts() {
+        // Three equal debtors and two equal creditors: the earlier participant is matched first
+        long[] balances = {-100, 150, -100, 150, -100};
+
+        SettlementPlan plan = new GreedySettlementEngine().settle(balances, Long.MAX_VALUE);
+
+        assertEquals(4, plan.size());
+        assertTransfer(plan, 0, 0, 1, 100);
+        assertTransfer(plan, 1, 2, 1, 50);
+        assertTransfer(plan, 2, 2, 3, 50);
+        assertTransfer(plan, 3, 4, 3, 100);
+    }
+
+    @Test
+    void exactSolverFindsFewerTransfersThanGreedy() {
+        // {+5, -5} and {+3, +4, -7} are independent zero-sum groups: 3 transfers, greedy needs 4
+        long[] balances = {500, 300, 400, -700, -500};
+
+        SettlementPlan greedy = new GreedySettlementEngine().settle(balances, Long.MAX_VALUE);
+        SettlementPlan plan = planner.plan(balances);
+
+        assertEquals(4, greedy.size());
+        assertEquals(3, plan.size());
+        assertEquals(SettlementAlgorithm.MINIMUM_TRANSFERS, plan.getAlgorithm());
+    }
+
+    @Test
+    void largeGroupsFallBackToGreedy() {
+        long[] balances = new long[40];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = i % 2 == 0 ? 100 + i : -100 - i + 1;
+        }
+
+        assertEquals(SettlementAlgorithm.GREEDY, planner.plan(balances).getAlgorithm());
+    }
+
+    @Test
+    void configuredLimitIsCappedBelowTheTableLimit() {
+        SettlementPlanner generous =
+                new SettlementPlanner(new MinimumTransferSettlementEngine(), new GreedySettlementEngine(), 30, 100);
+        long[] balances = new long[MinimumTransferSettlementEngine.MAX_PARTICIPANTS];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = i % 2 == 0 ? 100 : -100;
+        }
+
+        assertEquals(SettlementAlgorithm.GREEDY, generous.plan(balances).getAlgorithm());
+    }
+
+    private static void assertTransfer(SettlementPlan plan, int i, int from, int to, long amountCents) {
+        assertEquals(from, plan.fromIndex(i), "from of transfer " + i);
+        assertEquals(to, plan.toIndex(i), "to of transfer " + i);
+        assertEquals(amountCents, plan.amountCents(i), "amount of transfer " + i);
+    }
+}